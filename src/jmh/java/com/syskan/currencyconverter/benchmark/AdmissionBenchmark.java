@@ -0,0 +1,132 @@
+package com.syskan.currencyconverter.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.syskan.currencyconverter.admission.AdmissionFilter;
+import com.syskan.currencyconverter.admission.ClientRateLimiter;
+import com.syskan.currencyconverter.admission.LoadShedder;
+import com.syskan.currencyconverter.admission.Priority;
+import com.syskan.currencyconverter.config.CurrencyProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * Overhead of admission control per request: a token bucket charge for one client and for
+ * clients spread over many buckets, a shedding slot, and the whole {@link AdmissionFilter}
+ * against calling the filter chain directly. Tiers are set high enough that every request
+ * is admitted, which is the path every served request pays for. The {@code contended}
+ * variants run four threads against the same bucket or counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdmissionBenchmark {
+
+    private static final int CLIENTS = 10_000;
+    private static final FilterChain NO_OP = (request, response) -> { };
+
+    private ClientRateLimiter limiter;
+    private String[] clients;
+    private LoadShedder shedder;
+    private AdmissionFilter filter;
+
+    @Setup
+    public void setUp() {
+        limiter = new ClientRateLimiter("bench", 1e9, 1_000_000, CLIENTS * 2);
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "10." + (i >> 16 & 0xFF) + "." + (i >> 8 & 0xFF) + "." + (i & 0xFF);
+            limiter.tryAcquire(clients[i]);
+        }
+        shedder = new LoadShedder(1_000_000, 0.8, 0.5);
+
+        CurrencyProperties properties = new CurrencyProperties();
+        CurrencyProperties.Tier anonymous = new CurrencyProperties.Tier();
+        anonymous.setRate(1e9);
+        anonymous.setBurst(1_000_000);
+        properties.getAdmission().getTiers().put("anonymous", anonymous);
+        properties.getAdmission().setMaxInFlight(1_000_000);
+        filter = new AdmissionFilter(properties, new SimpleMeterRegistry());
+    }
+
+    @State(Scope.Thread)
+    public static class Request {
+
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/currency/convert");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        int next;
+
+        @Setup
+        public void setUp() {
+            request.setRemoteAddr("10.0.0.1");
+            // Threads walk the clients from different places rather than in step
+            next = ThreadLocalRandom.current().nextInt(CLIENTS);
+        }
+    }
+
+    @Benchmark
+    public long rateLimitOneClient() {
+        return limiter.tryAcquire(clients[0]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long rateLimitOneClientContended() {
+        return limiter.tryAcquire(clients[0]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long rateLimitManyClients(Request state) {
+        state.next = (state.next + 1) % CLIENTS;
+        return limiter.tryAcquire(clients[state.next]);
+    }
+
+    @Benchmark
+    public boolean shedAcquireRelease() {
+        boolean admitted = shedder.tryAcquire(Priority.STANDARD);
+        shedder.release();
+        return admitted;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean shedAcquireReleaseContended() {
+        boolean admitted = shedder.tryAcquire(Priority.STANDARD);
+        shedder.release();
+        return admitted;
+    }
+
+    @Benchmark
+    public int chainOnly(Request state) throws IOException, ServletException {
+        NO_OP.doFilter(state.request, state.response);
+        return state.response.getStatus();
+    }
+
+    @Benchmark
+    public int filter(Request state) throws IOException, ServletException {
+        filter.doFilter(state.request, state.response, NO_OP);
+        return state.response.getStatus();
+    }
+}
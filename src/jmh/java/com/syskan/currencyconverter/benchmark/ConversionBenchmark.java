@@ -0,0 +1,101 @@
+package com.syskan.currencyconverter.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.syskan.currencyconverter.dto.ConversionRequest;
+import com.syskan.currencyconverter.dto.ConversionResponse;
+import com.syskan.currencyconverter.service.CurrencyService;
+
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Conversion and lookup paths of {@link CurrencyService} against a warm cache. The
+ * {@code meters} parameter compares recording metrics with no-op meters, which shows the
+ * cost of the instrumentation on the hot path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversionBenchmark {
+
+    @Param({"noop", "simple"})
+    private String meters;
+
+    private CurrencyService currencyService;
+    private ConversionRequest anchorPair;
+    private ConversionRequest crossPair;
+
+    @Setup
+    public void setUp() {
+        // A composite registry with no children hands out no-op meters
+        currencyService = StubRateProvider.currencyService("noop".equals(meters)
+            ? new CompositeMeterRegistry()
+            : new SimpleMeterRegistry());
+        anchorPair = ConversionRequest.builder()
+            .fromCurrency("USD")
+            .toCurrency("EUR")
+            .amount(new BigDecimal("1234.56"))
+            .build();
+        crossPair = ConversionRequest.builder()
+            .fromCurrency("EUR")
+            .toCurrency("JPY")
+            .amount(new BigDecimal("1234.56"))
+            .build();
+        // Load the anchor snapshot so every measured call is a cache hit
+        currencyService.convertCurrency(anchorPair);
+    }
+
+    @TearDown
+    public void tearDown() {
+        currencyService.shutdown();
+    }
+
+    @Benchmark
+    public ConversionResponse convertAnchorPair() {
+        return currencyService.convertCurrency(anchorPair);
+    }
+
+    @Benchmark
+    public ConversionResponse convertCrossPair() {
+        return currencyService.convertCurrency(crossPair);
+    }
+
+    @Benchmark
+    public BigDecimal exchangeRateLookup() {
+        return currencyService.getExchangeRate("GBP", "JPY");
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> allRatesForAnchor() {
+        return currencyService.getAllRates("USD");
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> allRatesForCrossBase() {
+        return currencyService.getAllRates("EUR");
+    }
+
+    @Benchmark
+    public boolean isCurrencySupported() {
+        return currencyService.isCurrencySupported("GBP");
+    }
+}
@@ -0,0 +1,77 @@
+package com.syskan.currencyconverter.benchmark;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+import com.syskan.currencyconverter.provider.RatePayloadDecoder;
+
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Decoding an upstream rate payload: Jackson data binding, as the WebClient codecs did,
+ * against {@link RatePayloadDecoder}. Run with the benchmarks profile's {@code -prof gc}
+ * to compare allocation per operation as well as throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RatePayloadBenchmark {
+
+    private ObjectReader bindingReader;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        JsonMapper mapper = JsonMapper.builder().build();
+        bindingReader = mapper.readerFor(ExchangeRateResponse.class);
+
+        // Shaped like an exchangerate-api reply, including the fields nobody reads
+        Map<String, Object> reply = new LinkedHashMap<>();
+        reply.put("provider", "https://www.exchangerate-api.com");
+        reply.put("terms", "https://www.exchangerate-api.com/terms");
+        reply.put("base", "USD");
+        reply.put("date", "2024-12-09");
+        reply.put("time_last_updated", 1733702401L);
+        reply.put("rates", StubRateProvider.rates());
+        payload = mapper.writeValueAsBytes(reply);
+    }
+
+    @Benchmark
+    public ExchangeRateResponse bindTable() {
+        return bindingReader.readValue(payload);
+    }
+
+    @Benchmark
+    public ExchangeRateResponse decodeTable() {
+        return RatePayloadDecoder.decode(payload);
+    }
+
+    @Benchmark
+    public BigDecimal bindThenGetOneRate() {
+        ExchangeRateResponse response = bindingReader.readValue(payload);
+        return response.getRates().get("EUR");
+    }
+
+    @Benchmark
+    public BigDecimal findOneRate() {
+        return RatePayloadDecoder.findRate(payload, "EUR");
+    }
+}
@@ -0,0 +1,92 @@
+package com.syskan.currencyconverter.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.syskan.currencyconverter.dto.ConversionRequest;
+import com.syskan.currencyconverter.dto.ConversionResponse;
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * JSON binding of the API payloads with the same Jackson setup the web layer uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectWriter responseWriter;
+    private ObjectReader requestReader;
+    private ObjectWriter ratesWriter;
+    private ObjectReader ratesReader;
+
+    private ConversionResponse response;
+    private byte[] requestJson;
+    private ExchangeRateResponse rates;
+    private byte[] ratesJson;
+
+    @Setup
+    public void setUp() {
+        JsonMapper mapper = JsonMapper.builder().build();
+        responseWriter = mapper.writerFor(ConversionResponse.class);
+        requestReader = mapper.readerFor(ConversionRequest.class);
+        ratesWriter = mapper.writerFor(ExchangeRateResponse.class);
+        ratesReader = mapper.readerFor(ExchangeRateResponse.class);
+
+        response = ConversionResponse.builder()
+            .fromCurrency("USD")
+            .toCurrency("EUR")
+            .amount(new BigDecimal("1234.56"))
+            .convertedAmount(new BigDecimal("1049.38"))
+            .exchangeRate(new BigDecimal("0.85"))
+            .timestamp(LocalDateTime.of(2024, 12, 9, 10, 0))
+            .message("Conversion successful")
+            .build();
+        requestJson = "{\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":1234.56}".getBytes();
+        rates = ExchangeRateResponse.builder()
+            .base("USD")
+            .date("2024-12-09")
+            .rates(StubRateProvider.rates())
+            .build();
+        ratesJson = ratesWriter.writeValueAsBytes(rates);
+    }
+
+    @Benchmark
+    public byte[] serializeConversionResponse() {
+        return responseWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public ConversionRequest deserializeConversionRequest() {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] serializeRateTable() {
+        return ratesWriter.writeValueAsBytes(rates);
+    }
+
+    @Benchmark
+    public ExchangeRateResponse deserializeRateTable() {
+        return ratesReader.readValue(ratesJson);
+    }
+}
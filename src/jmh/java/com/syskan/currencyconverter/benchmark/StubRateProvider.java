@@ -0,0 +1,59 @@
+package com.syskan.currencyconverter.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.LoggerFactory;
+
+import com.syskan.currencyconverter.cache.NoSharedSnapshotStore;
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.provider.StaticRateProvider;
+import com.syskan.currencyconverter.service.CurrencyService;
+import com.syskan.currencyconverter.service.RateHistoryService;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Serves a fixed rate table for every ISO currency from memory, so benchmarks measure this
+ * application rather than the network or the real provider.
+ */
+final class StubRateProvider {
+
+    private StubRateProvider() {
+    }
+
+    static Map<String, BigDecimal> rates() {
+        Map<String, BigDecimal> rates = new TreeMap<>();
+        int i = 0;
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            // Spread rates over several orders of magnitude, as real tables do
+            BigDecimal rate = BigDecimal.valueOf(1 + (i * 7919L) % 100_000, 2 + i % 4)
+                .setScale(6, RoundingMode.HALF_UP);
+            rates.put(currency.getCurrencyCode(), rate);
+            i++;
+        }
+        rates.put("USD", BigDecimal.ONE);
+        rates.put("EUR", new BigDecimal("0.85"));
+        rates.put("GBP", new BigDecimal("0.73"));
+        rates.put("JPY", new BigDecimal("150.25"));
+        return rates;
+    }
+
+    /**
+     * A {@link CurrencyService} wired to the stub, with history recording off and request
+     * logging quietened so log output does not dominate the measurement.
+     */
+    static CurrencyService currencyService(MeterRegistry meterRegistry) {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        CurrencyProperties properties = new CurrencyProperties();
+        properties.getHistory().setEnabled(false);
+        return new CurrencyService(new StaticRateProvider("stub", "USD", rates()), properties,
+            new NoSharedSnapshotStore(), new RateHistoryService(null, null, properties, meterRegistry), meterRegistry);
+    }
+}
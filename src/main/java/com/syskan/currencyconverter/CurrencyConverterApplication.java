@@ -1,19 +1,38 @@
 package com.syskan.currencyconverter;
 
+import java.util.function.Function;
+
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class CurrencyConverterApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(CurrencyConverterApplication.class, args);
 	}
 
+	// Provider connections and event loops, released when the context stops and recreated
+	// when it starts again, as Spring does around a CRaC checkpoint
+	@Bean
+	public ReactorResourceFactory reactorResourceFactory() {
+		return new ReactorResourceFactory();
+	}
+
+	@Bean
+	public ReactorClientHttpConnector clientHttpConnector(ReactorResourceFactory resourceFactory) {
+		return new ReactorClientHttpConnector(resourceFactory, Function.identity());
+	}
+
 	@Bean
-	public WebClient.Builder webClientBuilder() {
-		return WebClient.builder();
+	public WebClient.Builder webClientBuilder(ClientHttpConnector clientHttpConnector) {
+		return WebClient.builder().clientConnector(clientHttpConnector);
 	}
 }
@@ -0,0 +1,200 @@
+package com.syskan.currencyconverter.admission;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.syskan.currencyconverter.config.CurrencyProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Admission control in front of the API and the web UI. Each request is first charged to
+ * its client's token bucket and answered 429 if the client is over its tier's rate, then
+ * shed with 503 if too many requests of its {@link Priority} or higher are already in
+ * flight. Both carry Retry-After. Actuator and static resources are not limited.
+ * <p>
+ * The rate stream counts against the client's rate when it connects but not as in flight,
+ * since it stays open and has its own subscriber limit.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "currency.admission.enabled", havingValue = "true")
+@Slf4j
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final String STREAM_PATH = "/api/currency/rates/stream";
+
+    private final Map<String, ClientRateLimiter> tiers = new HashMap<>();
+    private final ClientRateLimiter defaultTier;
+    private final Map<String, ClientRateLimiter> keyTiers = new HashMap<>();
+    private final LoadShedder shedder;
+    private final String apiKeyHeader;
+    private final long shedRetryAfterSeconds;
+
+    private final Counter[] rateLimited = new Counter[Priority.values().length];
+    private final Counter[] shed = new Counter[Priority.values().length];
+
+    public AdmissionFilter(CurrencyProperties properties, MeterRegistry meterRegistry) {
+        CurrencyProperties.Admission config = properties.getAdmission();
+        config.getTiers().forEach((name, tier) -> tiers.put(name,
+            new ClientRateLimiter(name, tier.getRate(), tier.getBurst(), config.getMaxClients())));
+        this.shedder = new LoadShedder(config.getMaxInFlight(), config.getStandardShare(), config.getBulkShare());
+        this.apiKeyHeader = config.getApiKeyHeader();
+        this.defaultTier = tier(config.getDefaultTier());
+        config.getApiKeys().forEach((key, tier) -> keyTiers.put(key, tier(tier)));
+        this.shedRetryAfterSeconds = Math.max(1, config.getShedRetryAfter().toSeconds());
+        log.info("Admission control: tier '{}' per client address, {} API keys, {} requests in flight",
+                defaultTier.tier(), keyTiers.size(), shedder.limit(Priority.INTERACTIVE));
+
+        Gauge.builder("currency.admission.in-flight", shedder, LoadShedder::inFlight)
+            .description("API and web UI requests in flight")
+            .register(meterRegistry);
+        Gauge.builder("currency.admission.clients", tiers,
+                limiters -> limiters.values().stream().mapToInt(ClientRateLimiter::clientCount).sum())
+            .description("Clients with a rate limit bucket")
+            .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase(Locale.ROOT);
+            rateLimited[priority.ordinal()] = Counter.builder("currency.admission.rejected")
+                .description("Requests refused with 429 over the client's rate, or shed with 503")
+                .tag("reason", "rate-limited")
+                .tag("priority", tag)
+                .register(meterRegistry);
+            shed[priority.ordinal()] = Counter.builder("currency.admission.rejected")
+                .description("Requests refused with 429 over the client's rate, or shed with 503")
+                .tag("reason", "shed")
+                .tag("priority", tag)
+                .register(meterRegistry);
+        }
+    }
+
+    private ClientRateLimiter tier(String name) {
+        ClientRateLimiter tier = tiers.get(name);
+        if (tier == null) {
+            throw new IllegalArgumentException("Unknown admission tier '" + name + "'; configured tiers are "
+                + tiers.keySet());
+        }
+        return tier;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return priority(path(request)) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = path(request);
+        Priority priority = priority(path);
+
+        String apiKey = request.getHeader(apiKeyHeader);
+        ClientRateLimiter tier = apiKey == null ? null : keyTiers.get(apiKey);
+        if (tier == null) {
+            tier = defaultTier;
+            apiKey = null;
+        }
+        long wait = tier.tryAcquire(apiKey != null ? apiKey : request.getRemoteAddr());
+        if (wait > 0) {
+            rateLimited[priority.ordinal()].increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, ceilSeconds(wait),
+                "Rate limit of tier '" + tier.tier() + "' exceeded");
+            return;
+        }
+
+        if (path.equals(STREAM_PATH)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!shedder.tryAcquire(priority)) {
+            shed[priority.ordinal()].increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, shedRetryAfterSeconds, "Server is busy");
+            return;
+        }
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Reactive and streaming handlers finish after the filter chain returns
+                request.getAsyncContext().addListener(new ReleaseOnComplete(shedder));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                shedder.release();
+            }
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.sendError(status.value(), message);
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    static Priority priority(String path) {
+        if (path.equals("/") || path.equals("/convert")) {
+            return Priority.INTERACTIVE;
+        }
+        if (path.startsWith("/api/currency/convert/batch") || path.startsWith("/api/currency/convert/csv")) {
+            return Priority.BULK;
+        }
+        if (path.startsWith("/api/")) {
+            return Priority.STANDARD;
+        }
+        return null;
+    }
+
+    LoadShedder shedder() {
+        return shedder;
+    }
+
+    private record ReleaseOnComplete(LoadShedder shedder) implements AsyncListener {
+
+        // Called after onTimeout and onError as well
+        @Override
+        public void onComplete(AsyncEvent event) {
+            shedder.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.syskan.currencyconverter.admission;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets for the clients of one tier, each held as a single {@code long}: the time
+ * at which the bucket would be full again, as in the generic cell rate algorithm. Admitting
+ * a request advances that time by one emission interval with a compare-and-set; a request
+ * that would push it more than the burst ahead of now is refused, and the excess is how
+ * long the client has to wait. Buckets live in a {@link ConcurrentHashMap}, so clients on
+ * different bins never contend and nothing blocks on the request path.
+ * <p>
+ * A bucket whose time has passed is full and indistinguishable from a new one, so when the
+ * map reaches {@code maxClients} those are dropped. If it is still full, new clients share
+ * an overflow bucket until idle clients can be dropped again.
+ */
+public class ClientRateLimiter {
+
+    private static final String OVERFLOW = "*";
+
+    private final String tier;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxClients;
+    private final LongSupplier ticker;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    /**
+     * @param ratePerSecond sustained requests per second per client; zero or less admits
+     *                      every request
+     * @param burst         requests a client with a full bucket may send at once
+     */
+    public ClientRateLimiter(String tier, double ratePerSecond, int burst, int maxClients) {
+        this(tier, ratePerSecond, burst, maxClients, System::nanoTime);
+    }
+
+    ClientRateLimiter(String tier, double ratePerSecond, int burst, int maxClients, LongSupplier ticker) {
+        this.tier = tier;
+        this.intervalNanos = ratePerSecond <= 0 ? 0 : Math.max(1, Math.round(1_000_000_000d / ratePerSecond));
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.maxClients = Math.max(1, maxClients);
+        this.ticker = ticker;
+    }
+
+    /**
+     * Takes a token from the bucket of {@code client}.
+     *
+     * @return zero if the request is admitted, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(String client) {
+        if (intervalNanos == 0) {
+            return 0;
+        }
+        long now = ticker.getAsLong();
+        AtomicLong bucket = bucket(client, now);
+        while (true) {
+            long full = bucket.get();
+            long start = full - now < 0 ? now : full;
+            long wait = start - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong bucket(String client, long now) {
+        AtomicLong bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        String key = client;
+        if (buckets.size() >= maxClients) {
+            sweep(now);
+            if (buckets.size() >= maxClients) {
+                key = OVERFLOW;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    // A request racing the removal of its full bucket may be counted against the dropped
+    // one, which lets that client start one burst early at worst
+    private void sweep(long now) {
+        if (!sweepLock.tryLock()) {
+            return;
+        }
+        try {
+            for (Iterator<AtomicLong> it = buckets.values().iterator(); it.hasNext();) {
+                if (it.next().get() - now <= 0) {
+                    it.remove();
+                }
+            }
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    public String tier() {
+        return tier;
+    }
+
+    public int clientCount() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,57 @@
+package com.syskan.currencyconverter.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts requests in flight and turns new ones away once the count reaches the limit of
+ * their {@link Priority}. Lower priorities get a share of the total, so bulk work is shed
+ * first and interactive requests still find room while the API is saturated.
+ * <p>
+ * In-flight requests beyond the server's worker threads are requests waiting for one, so
+ * the count doubles as queue depth: shedding at a fixed count answers quickly instead of
+ * letting every request wait longer.
+ */
+public class LoadShedder {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int[] limits = new int[Priority.values().length];
+
+    public LoadShedder(int maxInFlight, double standardShare, double bulkShare) {
+        int max = Math.max(1, maxInFlight);
+        limits[Priority.INTERACTIVE.ordinal()] = max;
+        limits[Priority.STANDARD.ordinal()] = share(max, standardShare);
+        limits[Priority.BULK.ordinal()] = share(max, bulkShare);
+    }
+
+    private static int share(int max, double share) {
+        return Math.max(1, (int) Math.min(max, Math.round(max * share)));
+    }
+
+    /**
+     * Takes a slot unless requests in flight have reached the limit of {@code priority};
+     * every slot taken must be given back with {@link #release()}.
+     */
+    public boolean tryAcquire(Priority priority) {
+        int limit = limits[priority.ordinal()];
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public int limit(Priority priority) {
+        return limits[priority.ordinal()];
+    }
+}
@@ -0,0 +1,16 @@
+package com.syskan.currencyconverter.admission;
+
+/**
+ * Request classes in the order they keep being admitted as the server fills up.
+ */
+public enum Priority {
+
+    // The web UI
+    INTERACTIVE,
+
+    // Single conversions and rate lookups on the API
+    STANDARD,
+
+    // Batch and CSV conversions
+    BULK
+}
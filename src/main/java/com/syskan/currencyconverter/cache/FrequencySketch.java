@@ -0,0 +1,97 @@
+package com.syskan.currencyconverter.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch estimating how often each {@code long} key was seen recently.
+ * <p>
+ * Each table word packs four 16-bit counters, one per hash row, so recording a key is four
+ * compare-and-set loops on an {@link AtomicLongArray} and an estimate is the minimum of four
+ * counters, never below the true count since the last decay. Once {@code sampleSize}
+ * increments have accumulated, one thread claims the decay and halves every counter, so keys that stop being read fade out within a few
+ * samples. Nothing is locked; an increment racing a decay may be halved or not, which only
+ * blurs the estimate by one.
+ */
+public final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+        0x97CB3127D3A2F6E1L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L
+    };
+    private static final int ROWS = SEEDS.length;
+    private static final long COUNTER_MASK = 0xFFFFL;
+    // Clears the bit each counter receives from the one above it when a word is shifted right
+    private static final long HALVE_MASK = 0x7FFF7FFF7FFF7FFFL;
+    private static final int MAX_SAMPLE_SIZE = 1 << 14;
+
+    private final AtomicLongArray table;
+    private final int mask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    /**
+     * @param expectedKeys roughly how many distinct keys are read in one sample; the table
+     *                     is sized to keep collisions between them rare
+     */
+    public FrequencySketch(int expectedKeys) {
+        int width = Math.max(64, Integer.highestOneBit(Math.clamp(expectedKeys, 1, 1 << 24) - 1) << 1);
+        this.table = new AtomicLongArray(width);
+        this.mask = width - 1;
+        // Counters stay below 2 * sampleSize, well inside 16 bits
+        this.sampleSize = Math.min(10 * width, MAX_SAMPLE_SIZE);
+    }
+
+    public void increment(long key) {
+        for (int row = 0; row < ROWS; row++) {
+            long hash = hash(key, row);
+            int index = (int) hash & mask;
+            int shift = row << 4;
+            long word;
+            do {
+                word = table.get(index);
+                if (((word >>> shift) & COUNTER_MASK) == COUNTER_MASK) {
+                    break;
+                }
+            } while (!table.compareAndSet(index, word, word + (1L << shift)));
+        }
+        // Whoever moves the count back by half a sample owns the decay; the others see a
+        // count below sampleSize again, and a failed claim is retried by the next increment
+        int count = additions.incrementAndGet();
+        if (count >= sampleSize && additions.compareAndSet(count, count - sampleSize / 2)) {
+            decay();
+        }
+    }
+
+    /**
+     * Estimated reads of {@code key} since about the last two decays.
+     */
+    public int frequency(long key) {
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < ROWS; row++) {
+            long hash = hash(key, row);
+            int count = (int) ((table.get((int) hash & mask) >>> (row << 4)) & COUNTER_MASK);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    public int sampleSize() {
+        return sampleSize;
+    }
+
+    private void decay() {
+        for (int i = 0; i < table.length(); i++) {
+            long word;
+            do {
+                word = table.get(i);
+            } while (!table.compareAndSet(i, word, (word >>> 1) & HALVE_MASK));
+        }
+    }
+
+    private static long hash(long key, int row) {
+        long hash = (key + SEEDS[row]) * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 29;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return hash ^ (hash >>> 32);
+    }
+}
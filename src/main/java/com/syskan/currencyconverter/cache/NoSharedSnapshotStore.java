@@ -0,0 +1,26 @@
+package com.syskan.currencyconverter.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Used when no shared tier is configured: every local miss goes to the rate provider.
+ */
+@Component
+@ConditionalOnProperty(name = "currency.cache.redis.enabled", havingValue = "false", matchIfMissing = true)
+public class NoSharedSnapshotStore implements SharedSnapshotStore {
+
+    @Override
+    public Mono<RateSnapshot> get(String baseCurrency) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> put(RateSnapshot snapshot, Duration ttl) {
+        return Mono.empty();
+    }
+}
@@ -0,0 +1,450 @@
+package com.syskan.currencyconverter.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded in-memory cache of upstream rate tables keyed by base currency.
+ * <p>
+ * Entries live for the configured TTL. Entries that were read since they were last
+ * loaded are reloaded by a background task shortly before they expire, so hot bases
+ * are never reloaded on a request thread; bases nobody reads simply expire.
+ * <p>
+ * Expired entries are kept for a further {@code maxStale}. If reloading one fails, the
+ * stale snapshot is served instead of the error, so an upstream outage degrades to old
+ * rates rather than failed requests until the entry ages out.
+ * <p>
+ * A snapshot restored at startup with {@link #putWarm} is served even once past its TTL,
+ * within the same stale allowance, while a background reload replaces it, so a restarted
+ * node answers at once instead of every early request waiting on the upstream.
+ */
+@Slf4j
+public class RateCache implements AutoCloseable {
+
+    private final Function<String, CompletableFuture<RateSnapshot>> loader;
+    private final LongSupplier ticker;
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final long maxStaleNanos;
+    private final int maxSize;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher;
+    private final SingleFlight<String, RateSnapshot> fetches;
+    private final List<RateUpdateListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean paused;
+    private volatile boolean refreshOnAccess = true;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder expiredEvictions = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+
+    /**
+     * @param loader starts an asynchronous load of the snapshot for a base currency
+     */
+    public RateCache(Function<String, CompletableFuture<RateSnapshot>> loader,
+            CurrencyProperties.Cache config, MeterRegistry meterRegistry) {
+        this(loader, config, meterRegistry, System::nanoTime);
+    }
+
+    RateCache(Function<String, CompletableFuture<RateSnapshot>> loader,
+            CurrencyProperties.Cache config, MeterRegistry meterRegistry, LongSupplier ticker) {
+        this.loader = loader;
+        this.ticker = ticker;
+        this.ttlNanos = config.getTtl().toNanos();
+        this.refreshAheadNanos = Math.min(config.getRefreshAhead().toNanos(), ttlNanos);
+        this.maxStaleNanos = Math.max(0, config.getMaxStale().toNanos());
+        this.maxSize = Math.max(1, config.getMaxSize());
+        this.fetches = new SingleFlight<>("rate-fetch", meterRegistry);
+
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (refreshAheadNanos > 0) {
+            long period = Math.max(TimeUnit.NANOSECONDS.toMillis(refreshAheadNanos) / 4, 100);
+            refresher.scheduleWithFixedDelay(this::maintain, period, period, TimeUnit.MILLISECONDS);
+        }
+
+        registerMetrics(meterRegistry);
+    }
+
+    /**
+     * Returns the cached rates for a base, waiting for a fetch on a miss.
+     */
+    public ExchangeRateResponse get(String baseCurrency) {
+        return getSnapshot(baseCurrency).rates();
+    }
+
+    public RateSnapshot getSnapshot(String baseCurrency) {
+        RateSnapshot cached = getIfFresh(baseCurrency);
+        if (cached != null) {
+            return cached;
+        }
+        return SingleFlight.await(loadOrStale(baseCurrency));
+    }
+
+    /**
+     * Returns the cached snapshot for a base without blocking; a miss completes when the
+     * shared fetch for that base does.
+     */
+    public CompletableFuture<RateSnapshot> getSnapshotAsync(String baseCurrency) {
+        RateSnapshot cached = getIfFresh(baseCurrency);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return loadOrStale(baseCurrency);
+    }
+
+    public CompletableFuture<ExchangeRateResponse> getAsync(String baseCurrency) {
+        return getSnapshotAsync(baseCurrency).thenApply(RateSnapshot::rates);
+    }
+
+    private RateSnapshot getIfFresh(String baseCurrency) {
+        long now = ticker.getAsLong();
+        Entry entry = entries.get(baseCurrency);
+        if (entry != null) {
+            long age = now - entry.loadedAt;
+            if (age < ttlNanos || (entry.warm && age < ttlNanos + maxStaleNanos)) {
+                entry.lastAccess = now;
+                hits.increment();
+                if (age >= ttlNanos) {
+                    staleServed.increment();
+                }
+                return entry.value;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * The snapshot currently held for a base, fresh or not, without counting a hit or miss
+     * or delaying eviction.
+     */
+    public RateSnapshot peek(String baseCurrency) {
+        Entry entry = entries.get(baseCurrency);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Installs a snapshot obtained outside this cache, unless the cache already holds the
+     * same or a newer version for that base.
+     *
+     * @return whether the snapshot was installed
+     */
+    public boolean put(RateSnapshot snapshot) {
+        return install(newEntry(snapshot, false), false);
+    }
+
+    /**
+     * Installs a snapshot restored from local storage, like {@link #put}, and starts a
+     * background reload to replace it. Until the reload succeeds the snapshot is served
+     * even past its TTL; failed reloads are retried by the refresh-ahead task.
+     *
+     * @return whether the snapshot was installed
+     */
+    public boolean putWarm(RateSnapshot snapshot) {
+        Entry candidate = newEntry(snapshot, true);
+        if (!install(candidate, false)) {
+            return false;
+        }
+        refresh(snapshot.base(), candidate);
+        return true;
+    }
+
+    /**
+     * @param sameVersion whether an equal version replaces the current entry too, renewing
+     *                    its TTL, as when a load finds the same snapshot in the shared tier
+     */
+    private boolean install(Entry candidate, boolean sameVersion) {
+        RateSnapshot snapshot = candidate.value;
+        Entry installed = entries.merge(snapshot.base(), candidate, (current, offered) -> {
+            int newer = Long.compare(offered.value.version(), current.value.version());
+            return newer > 0 || (sameVersion && newer == 0) ? offered : current;
+        });
+        if (installed != candidate) {
+            return false;
+        }
+        if (entries.size() > maxSize) {
+            evictLeastRecentlyUsed();
+        }
+        notifyListeners(snapshot.base(), snapshot);
+        return true;
+    }
+
+    public void addListener(RateUpdateListener listener) {
+        listeners.add(listener);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Whether the maintenance task reloads entries that were read since their last load
+     * ahead of expiry. Turned off when something else, such as a prefetcher, decides which
+     * bases to keep warm; entries nobody reloads then simply expire.
+     */
+    public void setRefreshOnAccess(boolean refreshOnAccess) {
+        this.refreshOnAccess = refreshOnAccess;
+    }
+
+    /**
+     * Whether {@link #prefetch} would start a load for this base right now.
+     */
+    public boolean isDueForPrefetch(String baseCurrency) {
+        if (paused) {
+            return false;
+        }
+        Entry entry = entries.get(baseCurrency);
+        return entry == null || isDue(entry);
+    }
+
+    /**
+     * Starts a background load of a base that is not cached, or whose entry is within the
+     * refresh-ahead window of expiry or past it, whether or not it was read.
+     *
+     * @return whether a load was started
+     */
+    public boolean prefetch(String baseCurrency) {
+        if (paused) {
+            return false;
+        }
+        Entry entry = entries.get(baseCurrency);
+        if (entry == null) {
+            load(baseCurrency).whenComplete((value, failure) -> {
+                if (failure != null) {
+                    refreshFailures.increment();
+                    log.warn("Prefetch of {} rates failed: {}", baseCurrency,
+                            SingleFlight.unwrap(failure).getMessage());
+                }
+            });
+            return true;
+        }
+        if (!isDue(entry)) {
+            return false;
+        }
+        refresh(baseCurrency, entry);
+        return true;
+    }
+
+    private boolean isDue(Entry entry) {
+        return entry.warm || ticker.getAsLong() - entry.loadedAt >= ttlNanos - refreshAheadNanos;
+    }
+
+    /**
+     * Stops background refreshes, for example while the process is being checkpointed.
+     */
+    public void pause() {
+        paused = true;
+    }
+
+    /**
+     * Resumes background refreshes. The monotonic clock says nothing about how long the
+     * process was paused or checkpointed, so every entry is aged again from its snapshot's
+     * fetch time and reloaded as if warm-started: it is served while the reload runs,
+     * unless it is now past its stale allowance.
+     */
+    public void resume() {
+        paused = false;
+        entries.forEach((base, entry) -> {
+            Entry rewarmed = newEntry(entry.value, true);
+            if (entries.replace(base, entry, rewarmed)) {
+                refresh(base, rewarmed);
+            }
+        });
+    }
+
+    private CompletableFuture<RateSnapshot> load(String baseCurrency) {
+        return fetches.execute(baseCurrency, base -> loader.apply(base).thenApply(value -> {
+            if (install(newEntry(value, false), true)) {
+                return value;
+            }
+            // A newer snapshot, for example a cluster broadcast, arrived while this one loaded
+            Entry current = entries.get(base);
+            return current != null ? current.value : value;
+        }));
+    }
+
+    private CompletableFuture<RateSnapshot> loadOrStale(String baseCurrency) {
+        return load(baseCurrency).exceptionally(failure -> {
+            RateSnapshot stale = getIfStale(baseCurrency);
+            if (stale == null) {
+                throw new CompletionException(SingleFlight.unwrap(failure));
+            }
+            log.debug("Serving stale {} rates (version {}) after reload failed: {}", baseCurrency,
+                    stale.version(), SingleFlight.unwrap(failure).getMessage());
+            return stale;
+        });
+    }
+
+    private RateSnapshot getIfStale(String baseCurrency) {
+        long now = ticker.getAsLong();
+        Entry entry = entries.get(baseCurrency);
+        if (entry == null || now - entry.loadedAt >= ttlNanos + maxStaleNanos) {
+            return null;
+        }
+        entry.lastAccess = now;
+        staleServed.increment();
+        return entry.value;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        while (entries.size() > maxSize) {
+            String victim = null;
+            long oldest = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+                if (candidate.getValue().lastAccess < oldest) {
+                    oldest = candidate.getValue().lastAccess;
+                    victim = candidate.getKey();
+                }
+            }
+            if (victim == null || entries.remove(victim) == null) {
+                return;
+            }
+            sizeEvictions.increment();
+            log.debug("Evicted rates for {} (cache full)", victim);
+        }
+    }
+
+    /**
+     * Drops entries past their TTL and stale allowance, and reloads entries that are about
+     * to expire and were read since their last load, as well as warm-started entries.
+     */
+    void maintain() {
+        if (paused) {
+            return;
+        }
+        long now = ticker.getAsLong();
+        entries.forEach((base, entry) -> {
+            long age = now - entry.loadedAt;
+            if (age >= ttlNanos + maxStaleNanos) {
+                if (entries.remove(base, entry)) {
+                    expiredEvictions.increment();
+                }
+            } else if (entry.warm || (refreshOnAccess && age < ttlNanos
+                    && age >= ttlNanos - refreshAheadNanos && entry.lastAccess > entry.loadedAt)) {
+                refresh(base, entry);
+            }
+        });
+    }
+
+    private void refresh(String baseCurrency, Entry current) {
+        fetches.execute(baseCurrency, base -> loader.apply(base).thenApply(value -> {
+            // Compares snapshots, not entries, since resume() may have re-aged the entry
+            Entry next = newEntry(value, false);
+            if (entries.computeIfPresent(base, (key, entry) -> entry.value == current.value ? next : entry) == next) {
+                refreshes.increment();
+                notifyListeners(base, value);
+            }
+            return value;
+        })).whenComplete((value, failure) -> {
+            if (failure != null) {
+                refreshFailures.increment();
+                log.warn("Background refresh of {} rates failed: {}", baseCurrency,
+                        SingleFlight.unwrap(failure).getMessage());
+            }
+        });
+    }
+
+    /**
+     * Snapshots fetched a while ago, for example by another node, start out that much
+     * closer to expiry.
+     */
+    private Entry newEntry(RateSnapshot snapshot, boolean warm) {
+        long ageNanos = Math.min(snapshot.age().toNanos(), ttlNanos + maxStaleNanos);
+        return new Entry(snapshot, ticker.getAsLong() - ageNanos, warm);
+    }
+
+    private void notifyListeners(String baseCurrency, RateSnapshot value) {
+        for (RateUpdateListener listener : listeners) {
+            try {
+                listener.onRatesLoaded(baseCurrency, value);
+            } catch (Exception e) {
+                log.error("Rate update listener failed for {}", baseCurrency, e);
+            }
+        }
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("currency.cache.requests", hits, LongAdder::sum)
+            .tag("result", "hit").register(registry);
+        FunctionCounter.builder("currency.cache.requests", misses, LongAdder::sum)
+            .tag("result", "miss").register(registry);
+        FunctionCounter.builder("currency.cache.evictions", sizeEvictions, LongAdder::sum)
+            .tag("cause", "size").register(registry);
+        FunctionCounter.builder("currency.cache.evictions", expiredEvictions, LongAdder::sum)
+            .tag("cause", "expired").register(registry);
+        FunctionCounter.builder("currency.cache.refreshes", refreshes, LongAdder::sum)
+            .tag("result", "success").register(registry);
+        FunctionCounter.builder("currency.cache.refreshes", refreshFailures, LongAdder::sum)
+            .tag("result", "failure").register(registry);
+        FunctionCounter.builder("currency.cache.stale.served", staleServed, LongAdder::sum)
+            .description("Requests answered with an expired snapshot after a failed reload or from a warm start")
+            .register(registry);
+        Gauge.builder("currency.cache.size", entries, Map::size).register(registry);
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long staleServedCount() {
+        return staleServed.sum();
+    }
+
+    public long evictionCount() {
+        return sizeEvictions.sum() + expiredEvictions.sum();
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    private static final class Entry {
+        final RateSnapshot value;
+        final long loadedAt;
+        final boolean warm;
+        volatile long lastAccess;
+
+        Entry(RateSnapshot value, long loadedAt, boolean warm) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.warm = warm;
+            this.lastAccess = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.syskan.currencyconverter.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+/**
+ * An upstream rate table together with when it was fetched and a version stamp that
+ * increases with every fetch, so copies of the same snapshot can be recognised across
+ * cache tiers.
+ */
+public record RateSnapshot(String base, ExchangeRateResponse rates, long version, Instant fetchedAt) {
+
+    private static final AtomicLong LAST_VERSION = new AtomicLong();
+
+    /**
+     * Stamps a freshly fetched rate table. Versions are derived from the wall clock in
+     * milliseconds but never repeat or go backwards within this JVM; they are not ordered
+     * across JVMs, which is why the cluster leader re-stamps what it broadcasts.
+     */
+    public static RateSnapshot fetched(String base, ExchangeRateResponse rates) {
+        Instant now = Instant.now();
+        long version = LAST_VERSION.updateAndGet(last -> Math.max(last + 1, now.toEpochMilli()));
+        return new RateSnapshot(base, rates, version, now);
+    }
+
+    /**
+     * The same rate table under another version, such as one assigned cluster-wide.
+     */
+    public RateSnapshot withVersion(long version) {
+        return new RateSnapshot(base, rates, version, fetchedAt);
+    }
+
+    public Duration age() {
+        Duration age = Duration.between(fetchedAt, Instant.now());
+        return age.isNegative() ? Duration.ZERO : age;
+    }
+}
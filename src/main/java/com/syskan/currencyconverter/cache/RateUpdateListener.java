@@ -0,0 +1,12 @@
+package com.syskan.currencyconverter.cache;
+
+/**
+ * Notified whenever {@link RateCache} installs a new snapshot for a base, whether it was
+ * fetched, loaded from a shared tier or handed to {@link RateCache#put}.
+ * Called on the loading thread before callers waiting on the load are released.
+ */
+@FunctionalInterface
+public interface RateUpdateListener {
+
+    void onRatesLoaded(String baseCurrency, RateSnapshot snapshot);
+}
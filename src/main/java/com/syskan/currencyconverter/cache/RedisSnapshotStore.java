@@ -0,0 +1,60 @@
+package com.syskan.currencyconverter.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import com.syskan.currencyconverter.config.CurrencyProperties;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stores each base currency's snapshot under {@code <key-prefix><BASE>} as
+ * {@link SnapshotCodec} bytes with a Redis TTL. Redis being slow or down is never fatal:
+ * reads fall back to the rate provider and failed writes are only logged.
+ */
+@Component
+@ConditionalOnProperty(name = "currency.cache.redis.enabled", havingValue = "true")
+@Slf4j
+public class RedisSnapshotStore implements SharedSnapshotStore {
+
+    private final ReactiveRedisTemplate<String, byte[]> redis;
+    private final String keyPrefix;
+    private final Duration timeout;
+
+    public RedisSnapshotStore(ReactiveRedisConnectionFactory connectionFactory, CurrencyProperties properties) {
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+            .<String, byte[]>newSerializationContext(RedisSerializer.string())
+            .value(RedisSerializer.byteArray())
+            .build();
+        this.redis = new ReactiveRedisTemplate<>(connectionFactory, context);
+        this.keyPrefix = properties.getCache().getRedis().getKeyPrefix();
+        this.timeout = properties.getCache().getRedis().getTimeout();
+    }
+
+    @Override
+    public Mono<RateSnapshot> get(String baseCurrency) {
+        return redis.opsForValue().get(keyPrefix + baseCurrency)
+            .map(SnapshotCodec::decode)
+            .timeout(timeout)
+            .onErrorResume(e -> {
+                log.warn("Could not read {} rates from Redis: {}", baseCurrency, e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    @Override
+    public Mono<Void> put(RateSnapshot snapshot, Duration ttl) {
+        return redis.opsForValue().set(keyPrefix + snapshot.base(), SnapshotCodec.encode(snapshot), ttl)
+            .timeout(timeout)
+            .doOnError(e -> log.warn("Could not write {} rates to Redis: {}", snapshot.base(), e.getMessage()))
+            .onErrorComplete()
+            .then();
+    }
+}
@@ -0,0 +1,20 @@
+package com.syskan.currencyconverter.cache;
+
+import java.time.Duration;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Second cache tier shared by every application node. A node that misses its local
+ * {@link RateCache} asks this store before calling the rate provider, and publishes what
+ * it fetched so other nodes do not have to.
+ */
+public interface SharedSnapshotStore {
+
+    /**
+     * The stored snapshot for a base, or empty if none is stored.
+     */
+    Mono<RateSnapshot> get(String baseCurrency);
+
+    Mono<Void> put(RateSnapshot snapshot, Duration ttl);
+}
@@ -0,0 +1,100 @@
+package com.syskan.currencyconverter.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces concurrent calls for the same key into a single execution. The first caller
+ * for a key starts the asynchronous function; callers arriving while it is in flight
+ * share its result, or its exception. Nobody blocks unless they choose to {@link #await}.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Call<V>> inFlight = new ConcurrentHashMap<>();
+    private final DistributionSummary callersPerExecution;
+    private final Counter coalescedCalls;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.callersPerExecution = DistributionSummary.builder("currency.singleflight.callers")
+            .description("Callers served by one execution, including the caller that started it")
+            .tag("name", name)
+            .register(meterRegistry);
+        this.coalescedCalls = Counter.builder("currency.singleflight.coalesced")
+            .description("Calls that joined an execution already in flight")
+            .tag("name", name)
+            .register(meterRegistry);
+    }
+
+    public CompletableFuture<V> execute(K key, Function<? super K, ? extends CompletableFuture<? extends V>> function) {
+        Call<V> call = new Call<>();
+        Call<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            existing.callers.incrementAndGet();
+            coalescedCalls.increment();
+            return existing.result.copy();
+        }
+
+        CompletableFuture<? extends V> execution;
+        try {
+            execution = function.apply(key);
+        } catch (RuntimeException | Error e) {
+            complete(key, call, null, e);
+            return call.result.copy();
+        }
+        execution.whenComplete((value, failure) -> complete(key, call, value, failure));
+        return call.result.copy();
+    }
+
+    private void complete(K key, Call<V> call, V value, Throwable failure) {
+        inFlight.remove(key, call);
+        callersPerExecution.record(call.callers.get());
+        if (failure != null) {
+            call.result.completeExceptionally(unwrap(failure));
+        } else {
+            call.result.complete(value);
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Waits for a result, rethrowing the original unchecked exception rather than the
+     * {@link CompletionException} wrapper.
+     */
+    public static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    static Throwable unwrap(Throwable failure) {
+        while (failure instanceof CompletionException && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        return failure;
+    }
+
+    private static final class Call<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        final AtomicInteger callers = new AtomicInteger(1);
+    }
+}
@@ -0,0 +1,110 @@
+package com.syskan.currencyconverter.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.Map;
+
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+import com.syskan.currencyconverter.rates.CompactRates;
+import com.syskan.currencyconverter.rates.CurrencyCodes;
+
+/**
+ * Compact binary form of a {@link RateSnapshot}, used wherever a snapshot leaves the JVM.
+ * Rates whose unscaled value fits in a long are written as scale plus long; anything
+ * larger falls back to the unscaled value's two's-complement bytes.
+ */
+public final class SnapshotCodec {
+
+    private static final short MAGIC = 0x5253; // "RS"
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte LONG_RATE = 0;
+    private static final byte BIG_RATE = 1;
+
+    private SnapshotCodec() {
+    }
+
+    public static byte[] encode(RateSnapshot snapshot) {
+        Map<String, BigDecimal> rates = snapshot.rates().getRates();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + rates.size() * 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeShort(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(snapshot.version());
+            out.writeLong(snapshot.fetchedAt().toEpochMilli());
+            out.writeUTF(snapshot.base());
+            out.writeUTF(snapshot.rates().getDate() == null ? "" : snapshot.rates().getDate());
+            out.writeInt(rates.size());
+            for (Map.Entry<String, BigDecimal> rate : rates.entrySet()) {
+                out.writeUTF(rate.getKey());
+                writeRate(out, rate.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static RateSnapshot decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readShort() != MAGIC) {
+                throw new IllegalArgumentException("Not an encoded rate snapshot");
+            }
+            byte format = in.readByte();
+            if (format != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot format " + format);
+            }
+            long version = in.readLong();
+            Instant fetchedAt = Instant.ofEpochMilli(in.readLong());
+            String base = in.readUTF();
+            String date = in.readUTF();
+            int count = in.readInt();
+            CompactRates.Builder rates = CompactRates.builder(count);
+            for (int i = 0; i < count; i++) {
+                readRate(in, rates, CurrencyCodes.intern(in.readUTF()));
+            }
+            ExchangeRateResponse response = ExchangeRateResponse.builder()
+                .base(base)
+                .date(date.isEmpty() ? null : date)
+                .rates(rates.build())
+                .build();
+            return new RateSnapshot(base, response, version, fetchedAt);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated rate snapshot", e);
+        }
+    }
+
+    private static void writeRate(DataOutputStream out, BigDecimal rate) throws IOException {
+        BigInteger unscaled = rate.unscaledValue();
+        if (unscaled.bitLength() < Long.SIZE) {
+            out.writeByte(LONG_RATE);
+            out.writeInt(rate.scale());
+            out.writeLong(unscaled.longValue());
+        } else {
+            byte[] magnitude = unscaled.toByteArray();
+            out.writeByte(BIG_RATE);
+            out.writeInt(rate.scale());
+            out.writeInt(magnitude.length);
+            out.write(magnitude);
+        }
+    }
+
+    private static void readRate(DataInputStream in, CompactRates.Builder rates, String code) throws IOException {
+        byte kind = in.readByte();
+        int scale = in.readInt();
+        if (kind == LONG_RATE) {
+            rates.put(code, in.readLong(), scale);
+            return;
+        }
+        byte[] magnitude = new byte[in.readInt()];
+        in.readFully(magnitude);
+        rates.put(code, new BigDecimal(new BigInteger(magnitude), scale));
+    }
+}
@@ -0,0 +1,101 @@
+package com.syskan.currencyconverter.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link RateSnapshot} on local disk: a fixed header with a format version, the payload
+ * length and a CRC32 of the payload, followed by the {@link SnapshotCodec} bytes.
+ * <p>
+ * Writes go to a temporary file in the same directory that is synced and then moved over
+ * the target, so a crash mid-write leaves the previous file intact. Reads map the file and
+ * verify the checksum before decoding anything.
+ */
+public final class SnapshotFile {
+
+    private static final int MAGIC = 0x52534E50; // "RSNP"
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES + 1 + Integer.BYTES + Integer.BYTES;
+
+    private SnapshotFile() {
+    }
+
+    public static void write(Path path, RateSnapshot snapshot) throws IOException {
+        byte[] payload = SnapshotCodec.encode(snapshot);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+            .putInt(MAGIC)
+            .put(FORMAT_VERSION)
+            .putInt(payload.length)
+            .putInt((int) crc.getValue())
+            .flip();
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer body = ByteBuffer.wrap(payload);
+                while (header.hasRemaining() || body.hasRemaining()) {
+                    channel.write(new ByteBuffer[] {header, body});
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * The snapshot stored at {@code path}, or {@code null} if there is no file.
+     *
+     * @throws IllegalArgumentException if the file is truncated, corrupt or of another format
+     */
+    public static RateSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Not a rate snapshot file: " + size + " bytes");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (mapped.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a rate snapshot file");
+            }
+            byte format = mapped.get();
+            if (format != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot file version " + format);
+            }
+            int length = mapped.getInt();
+            int checksum = mapped.getInt();
+            if (length != size - HEADER_BYTES) {
+                throw new IllegalArgumentException("Snapshot file holds " + (size - HEADER_BYTES)
+                    + " payload bytes but its header declares " + length);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(mapped.slice(HEADER_BYTES, length));
+            if ((int) crc.getValue() != checksum) {
+                throw new IllegalArgumentException("Snapshot file checksum mismatch");
+            }
+            byte[] payload = new byte[length];
+            mapped.get(HEADER_BYTES, payload);
+            return SnapshotCodec.decode(payload);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+}
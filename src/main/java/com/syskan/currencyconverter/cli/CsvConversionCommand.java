@@ -0,0 +1,67 @@
+package com.syskan.currencyconverter.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.service.CsvConversionService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Command-line mode for CSV ledgers: converts {@code currency.csv.input} into
+ * {@code currency.csv.output} and exits, with status 1 if the job could not run.
+ * <pre>
+ * java -jar currency-converter.jar --spring.main.web-application-type=none \
+ *     --currency.csv.input=ledger.csv --currency.csv.output=ledger.converted.csv
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(name = "currency.csv.input")
+@Slf4j
+public class CsvConversionCommand implements ApplicationRunner {
+
+    private final CsvConversionService csvConversionService;
+    private final ConfigurableApplicationContext context;
+    private final Path input;
+    private final Path output;
+
+    public CsvConversionCommand(CsvConversionService csvConversionService, CurrencyProperties properties,
+            ConfigurableApplicationContext context) {
+        this.csvConversionService = csvConversionService;
+        this.context = context;
+        this.input = Path.of(properties.getCsv().getInput());
+        this.output = properties.getCsv().getOutput() != null
+            ? Path.of(properties.getCsv().getOutput())
+            : Path.of(properties.getCsv().getInput().replaceFirst("(?i)\\.csv$", "") + ".converted.csv");
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int status = convert();
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+
+    int convert() {
+        log.info("Converting {} into {}", input, output);
+        try (InputStream in = Files.newInputStream(input); OutputStream out = Files.newOutputStream(output)) {
+            CsvConversionService.Progress done = csvConversionService.convert(in, out);
+            log.info("Wrote {} rows ({} failed) to {} in {} ms", done.rows(), done.failures(), output,
+                    done.elapsedMillis());
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            log.error("CSV conversion of {} failed", input, e);
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.syskan.currencyconverter.cli;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.syskan.currencyconverter.config.CurrencyProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Training workload for the fast-startup build: with {@code currency.startup.training-run}
+ * set, calls the main endpoints of the running application a few times each and exits, so
+ * a JVM started with {@code -XX:ArchiveClassesAtExit} archives the classes real traffic
+ * loads rather than only those needed to start.
+ * <p>
+ * Registered unconditionally and checked at run time, because the AOT-processed build
+ * fixes bean conditions when it is built and the training run uses that build.
+ */
+@Component
+@Slf4j
+public class StartupTrainingRun implements ApplicationRunner {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final ConfigurableApplicationContext context;
+    private final boolean enabled;
+    private final int rounds;
+
+    public StartupTrainingRun(ConfigurableApplicationContext context, CurrencyProperties properties) {
+        this.context = context;
+        this.enabled = properties.getStartup().isTrainingRun();
+        this.rounds = Math.max(1, properties.getStartup().getTrainingRounds());
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        int status = train();
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+
+    int train() {
+        Integer port = context.getEnvironment().getProperty("local.server.port", Integer.class);
+        if (port == null) {
+            log.error("Training run needs the web server; it is not running");
+            return 1;
+        }
+        List<HttpRequest> requests = requests("http://localhost:" + port);
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build()) {
+            for (int round = 0; round < rounds; round++) {
+                for (HttpRequest request : requests) {
+                    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    if (response.statusCode() != 200) {
+                        log.error("Training request {} {} answered {}", request.method(), request.uri(),
+                                response.statusCode());
+                        return 1;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("Training run failed", e);
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+        log.info("Training run sent {} requests", rounds * requests.size());
+        return 0;
+    }
+
+    private static List<HttpRequest> requests(String app) {
+        return List.of(
+            post(app + "/api/currency/convert", "application/json",
+                "{\"fromCurrency\":\"EUR\",\"toCurrency\":\"GBP\",\"amount\":125.50}"),
+            post(app + "/api/currency/convert/batch", "application/json",
+                "[{\"fromCurrency\":\"USD\",\"toCurrency\":\"JPY\",\"amount\":10},"
+                    + "{\"fromCurrency\":\"GBP\",\"toCurrency\":\"CHF\",\"amount\":99.99}]"),
+            post(app + "/api/currency/convert/csv", "text/csv", "from,to,amount\nUSD,EUR,1\nEUR,CAD,2.50\n"),
+            post(app + "/convert", "application/x-www-form-urlencoded", "fromCurrency=USD&toCurrency=JPY&amount=99.99"),
+            get(app + "/api/currency/rates/EUR", "application/json"),
+            get(app + "/api/currency/rates/USD", "gzip"),
+            get(app + "/api/currency/supported/CHF", "application/json"),
+            get(app + "/", "text/html"));
+    }
+
+    private static HttpRequest post(String uri, String contentType, String body) {
+        return HttpRequest.newBuilder(URI.create(uri))
+            .timeout(TIMEOUT)
+            .header("Content-Type", contentType)
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private static HttpRequest get(String uri, String accept) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri)).timeout(TIMEOUT).GET();
+        return "gzip".equals(accept)
+            ? request.header("Accept-Encoding", "gzip").build()
+            : request.header("Accept", accept).build();
+    }
+}
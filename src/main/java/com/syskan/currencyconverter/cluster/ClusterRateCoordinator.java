@@ -0,0 +1,212 @@
+package com.syskan.currencyconverter.cluster;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.syskan.currencyconverter.cache.RateCache;
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.cache.SharedSnapshotStore;
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.service.CurrencyService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
+
+/**
+ * Makes one node at a time the only caller of the rate provider. Every node competes for
+ * a lease; the holder fetches the configured bases every refresh interval and broadcasts
+ * each snapshot under a cluster-wide version taken while holding the lease, and every
+ * node, the holder included, applies broadcasts to its local cache. {@link RateCache#put}
+ * only ever moves a base to a newer version, so duplicate or out-of-order deliveries are
+ * harmless.
+ * <p>
+ * Followers still load from the shared tier, and failing that from upstream, on a cold
+ * miss. If the leader dies its lease lapses and another node takes over within the lease
+ * TTL plus one heartbeat.
+ */
+@Component
+@ConditionalOnProperty(name = "currency.cluster.enabled", havingValue = "true")
+@Slf4j
+public class ClusterRateCoordinator implements SmartLifecycle {
+
+    private final ClusterTransport transport;
+    private final CurrencyService currencyService;
+    private final RateCache rateCache;
+    private final SharedSnapshotStore sharedStore;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Duration leaseTtl;
+    private final Duration heartbeat;
+    private final Duration refreshInterval;
+    private final Duration cacheTtl;
+    private final Set<String> bases = new LinkedHashSet<>();
+
+    private final Counter applied;
+    private final Counter ignored;
+    private final Counter fetchFailures;
+
+    private volatile boolean leader;
+    private ScheduledExecutorService scheduler;
+    private Disposable subscription;
+
+    public ClusterRateCoordinator(ClusterTransport transport, CurrencyService currencyService,
+            SharedSnapshotStore sharedStore, CurrencyProperties properties, MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.currencyService = currencyService;
+        this.rateCache = currencyService.getRateCache();
+        this.sharedStore = sharedStore;
+        this.leaseTtl = properties.getCluster().getLeaseTtl();
+        this.heartbeat = leaseTtl.dividedBy(3);
+        this.refreshInterval = properties.getCluster().getRefreshInterval();
+        this.cacheTtl = properties.getCache().getTtl();
+        this.bases.add(properties.getRates().getAnchor());
+        this.bases.addAll(properties.getCluster().getBases());
+
+        if (refreshInterval.compareTo(cacheTtl.minus(properties.getCache().getRefreshAhead())) >= 0) {
+            log.warn("currency.cluster.refresh-interval {} is not below the cache refresh window; "
+                    + "followers will also refresh from upstream", refreshInterval);
+        }
+
+        Gauge.builder("currency.cluster.leader", this, coordinator -> coordinator.leader ? 1 : 0)
+            .description("1 while this node holds the rate fetcher lease")
+            .register(meterRegistry);
+        this.applied = Counter.builder("currency.cluster.snapshots")
+            .description("Broadcast snapshots received by this node")
+            .tag("result", "applied")
+            .register(meterRegistry);
+        this.ignored = Counter.builder("currency.cluster.snapshots")
+            .description("Broadcast snapshots received by this node")
+            .tag("result", "ignored")
+            .register(meterRegistry);
+        this.fetchFailures = Counter.builder("currency.cluster.fetch.failures")
+            .description("Scheduled upstream fetches by the leader that failed")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        listen();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-cluster");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, 0, heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Node {} joined rate cluster (lease {}, refresh every {})", nodeId, leaseTtl, refreshInterval);
+    }
+
+    void listen() {
+        subscription = transport.snapshots()
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+            .subscribe(this::apply);
+    }
+
+    private void apply(RateSnapshot snapshot) {
+        if (rateCache.put(snapshot)) {
+            applied.increment();
+            log.debug("Applied {} rates version {}", snapshot.base(), snapshot.version());
+        } else {
+            ignored.increment();
+        }
+    }
+
+    /**
+     * Renews or competes for the lease, then, as leader, refreshes every base that is due.
+     */
+    void tick() {
+        boolean wasLeader = leader;
+        try {
+            Boolean held = wasLeader
+                ? transport.renew(nodeId, leaseTtl).block()
+                : transport.tryAcquire(nodeId, leaseTtl).block();
+            leader = Boolean.TRUE.equals(held);
+        } catch (RuntimeException e) {
+            // Without a confirmed lease another node may already be fetching
+            leader = false;
+            log.warn("Could not reach the cluster lease: {}", e.getMessage());
+        }
+
+        if (leader != wasLeader) {
+            log.info(leader ? "Node {} is now the rate fetcher" : "Node {} is no longer the rate fetcher", nodeId);
+        }
+        if (leader) {
+            bases.forEach(this::refreshIfDue);
+        }
+    }
+
+    private void refreshIfDue(String baseCurrency) {
+        if (!leader) {
+            return;
+        }
+        RateSnapshot current = rateCache.peek(baseCurrency);
+        if (current != null && current.age().compareTo(refreshInterval) < 0) {
+            return;
+        }
+        try {
+            RateSnapshot fetched = currencyService.fetchSnapshot(baseCurrency).block();
+            // Clock-based versions are only ordered within one JVM; a new leader with a slower
+            // clock would publish versions every follower ignores
+            Long version = transport.nextVersion(nodeId, fetched.version()).block();
+            if (version == null) {
+                leader = false;
+                log.info("Node {} lost the rate fetcher lease before publishing {} rates", nodeId, baseCurrency);
+                return;
+            }
+            RateSnapshot snapshot = fetched.withVersion(version);
+            rateCache.put(snapshot);
+            sharedStore.put(snapshot, cacheTtl)
+                .then(transport.publish(snapshot))
+                .block();
+            log.debug("Published {} rates version {}", baseCurrency, snapshot.version());
+        } catch (RuntimeException e) {
+            fetchFailures.increment();
+            log.warn("Scheduled fetch of {} rates failed: {}", baseCurrency, e.getMessage());
+        }
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+        if (leader) {
+            // Hand over now rather than leaving the cluster without a fetcher until the lease lapses
+            leader = false;
+            try {
+                transport.release(nodeId).block();
+            } catch (RuntimeException e) {
+                log.warn("Could not release the cluster lease: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+}
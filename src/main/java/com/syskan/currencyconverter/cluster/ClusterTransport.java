@@ -0,0 +1,40 @@
+package com.syskan.currencyconverter.cluster;
+
+import java.time.Duration;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The shared medium through which nodes elect a rate fetcher and receive its snapshots.
+ */
+public interface ClusterTransport {
+
+    /**
+     * Takes the fetcher lease for {@code nodeId} if nobody holds it.
+     */
+    Mono<Boolean> tryAcquire(String nodeId, Duration ttl);
+
+    /**
+     * Extends the lease, but only while {@code nodeId} still holds it.
+     */
+    Mono<Boolean> renew(String nodeId, Duration ttl);
+
+    Mono<Void> release(String nodeId);
+
+    /**
+     * Takes the next cluster-wide snapshot version, at least {@code floor}, but only while
+     * {@code nodeId} holds the lease; empty otherwise. Versions taken this way never repeat
+     * or go backwards, whichever node takes them.
+     */
+    Mono<Long> nextVersion(String nodeId, long floor);
+
+    Mono<Void> publish(RateSnapshot snapshot);
+
+    /**
+     * Snapshots published by any node, including this one, from the moment of subscription.
+     */
+    Flux<RateSnapshot> snapshots();
+}
@@ -0,0 +1,119 @@
+package com.syskan.currencyconverter.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.cache.SnapshotCodec;
+import com.syskan.currencyconverter.config.CurrencyProperties;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lease is a single key set with {@code NX PX}; renewal, release and taking a version are
+ * scripts that only act while the lease still names this node, so a node that stalled past
+ * its lease can never extend or delete its successor's, nor stamp a snapshot after it.
+ * Versions come from {@code INCR} on one key, raised to the leader's clock-based version
+ * when that is higher so broadcasts also outrank snapshots nodes fetched themselves. Snapshots travel as {@link SnapshotCodec} bytes.
+ */
+@Component
+@ConditionalOnProperty(name = "currency.cluster.enabled", havingValue = "true")
+@Slf4j
+public class RedisClusterTransport implements ClusterTransport {
+
+    private static final RedisScript<Long> RENEW = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end", Long.class);
+
+    private static final RedisScript<Long> RELEASE = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private static final RedisScript<Long> NEXT_VERSION = RedisScript.of(
+        "if redis.call('get', KEYS[1]) ~= ARGV[1] then return -1 end "
+            + "local version = redis.call('incr', KEYS[2]) "
+            + "if version < tonumber(ARGV[2]) then "
+            + "version = tonumber(ARGV[2]) redis.call('set', KEYS[2], ARGV[2]) end "
+            + "return version", Long.class);
+
+    private final ReactiveRedisTemplate<String, byte[]> redis;
+    private final String leaseKey;
+    private final String versionKey;
+    private final String channel;
+    private final Duration timeout;
+
+    public RedisClusterTransport(ReactiveRedisConnectionFactory connectionFactory, CurrencyProperties properties) {
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+            .<String, byte[]>newSerializationContext(RedisSerializer.string())
+            .value(RedisSerializer.byteArray())
+            .build();
+        this.redis = new ReactiveRedisTemplate<>(connectionFactory, context);
+        this.leaseKey = properties.getCluster().getLeaseKey();
+        this.versionKey = properties.getCluster().getVersionKey();
+        this.channel = properties.getCluster().getChannel();
+        this.timeout = properties.getCache().getRedis().getTimeout();
+    }
+
+    @Override
+    public Mono<Boolean> tryAcquire(String nodeId, Duration ttl) {
+        return redis.opsForValue().setIfAbsent(leaseKey, bytes(nodeId), ttl)
+            .timeout(timeout);
+    }
+
+    @Override
+    public Mono<Boolean> renew(String nodeId, Duration ttl) {
+        return redis.execute(RENEW, List.of(leaseKey), List.of(bytes(nodeId), bytes(Long.toString(ttl.toMillis()))))
+            .next()
+            .map(updated -> updated == 1L)
+            .defaultIfEmpty(false)
+            .timeout(timeout);
+    }
+
+    @Override
+    public Mono<Void> release(String nodeId) {
+        return redis.execute(RELEASE, List.of(leaseKey), List.of(bytes(nodeId)))
+            .then()
+            .timeout(timeout);
+    }
+
+    @Override
+    public Mono<Long> nextVersion(String nodeId, long floor) {
+        return redis.execute(NEXT_VERSION, List.of(leaseKey, versionKey),
+                List.of(bytes(nodeId), bytes(Long.toString(floor))))
+            .next()
+            .filter(version -> version >= 0)
+            .timeout(timeout);
+    }
+
+    @Override
+    public Mono<Void> publish(RateSnapshot snapshot) {
+        return redis.convertAndSend(channel, SnapshotCodec.encode(snapshot))
+            .timeout(timeout)
+            .then();
+    }
+
+    @Override
+    public Flux<RateSnapshot> snapshots() {
+        return redis.listenToChannel(channel)
+            .concatMap(message -> Mono.fromCallable(() -> SnapshotCodec.decode(message.getMessage()))
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    log.warn("Ignoring undecodable message on {}: {}", channel, e.getMessage());
+                    return Mono.empty();
+                }));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,350 @@
+package com.syskan.currencyconverter.config;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "currency")
+public class CurrencyProperties {
+
+    private Cache cache = new Cache();
+    private Rates rates = new Rates();
+    private Conversion conversion = new Conversion();
+    private Execution execution = new Execution();
+    private Upstream upstream = new Upstream();
+    private Providers providers = new Providers();
+    private Cluster cluster = new Cluster();
+    private History history = new History();
+    private Metrics metrics = new Metrics();
+    private Stream stream = new Stream();
+    private Csv csv = new Csv();
+    private Startup startup = new Startup();
+    private Prefetch prefetch = new Prefetch();
+    private Admission admission = new Admission();
+
+    @Data
+    public static class Cache {
+
+        // How long a fetched rate table is served before it must be reloaded
+        private Duration ttl = Duration.ofMinutes(10);
+
+        // Maximum number of base currencies held; least recently used bases are evicted first
+        private int maxSize = 200;
+
+        // Entries that were read since their last load are reloaded in the background
+        // this long before they expire. Zero disables refresh-ahead.
+        private Duration refreshAhead = Duration.ofMinutes(2);
+
+        // How long past the TTL an entry is kept to be served when reloading it fails,
+        // for example while the upstream circuit is open. Zero disables stale serving.
+        private Duration maxStale = Duration.ofHours(1);
+
+        private Redis redis = new Redis();
+
+        private Local local = new Local();
+    }
+
+    @Data
+    public static class Redis {
+
+        // Shares fetched snapshots between nodes through Redis (spring.data.redis.*)
+        private boolean enabled = false;
+
+        private String keyPrefix = "currency:rates:";
+
+        // Redis calls slower than this fall back to the rate provider
+        private Duration timeout = Duration.ofMillis(200);
+    }
+
+    @Data
+    public static class Local {
+
+        // Keeps the latest anchor snapshot on local disk and serves it at startup while a
+        // fresh one loads
+        private boolean enabled = true;
+
+        private Path path = Path.of(System.getProperty("java.io.tmpdir"), "currency-converter", "rates.snapshot");
+
+        // Snapshot files older than this are ignored at startup
+        private Duration maxAge = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Rates {
+
+        // When enabled, every currency pair is derived from the anchor snapshot instead of
+        // fetching a rate table per base currency
+        private boolean triangulate = true;
+
+        private String anchor = "USD";
+    }
+
+    @Data
+    public static class Conversion {
+
+        // Applied when rounding a converted amount to the target currency's ISO 4217 minor units
+        private RoundingMode roundingMode = RoundingMode.HALF_UP;
+    }
+
+    @Data
+    public static class Execution {
+
+        // BLOCKING serves the API from servlet threads that wait on upstream fetches;
+        // REACTIVE returns Mono handlers so a slow upstream holds no request thread
+        private Mode mode = Mode.BLOCKING;
+
+        // With spring.threads.virtual.enabled, virtual threads pinned to their carrier for
+        // longer than this are logged and counted
+        private Duration pinnedThreshold = Duration.ofMillis(20);
+    }
+
+    @Data
+    public static class Upstream {
+
+        // Upstream calls allowed in flight at once, whatever the number of request threads
+        private int maxConcurrency = 16;
+
+        // Calls allowed to wait for a permit before new ones are rejected
+        private int maxWaiting = 1000;
+
+        // Consecutive failed or timed-out fetches that open the circuit; while it is open
+        // fetches fail at once and the last good snapshot is served instead
+        private int failureThreshold = 5;
+
+        // How long the circuit stays open before a single probe fetch is let through
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Providers {
+
+        // Rate sources in order of preference. When empty, a single HTTP provider is built
+        // from currency.api.base-url and currency.api.timeout.
+        private List<Source> sources = new ArrayList<>();
+
+        // Starts the next provider when the current one has not answered within its p95
+        // latency and takes whichever good reply arrives first
+        private boolean hedge = true;
+
+        // Hedge delay used until a provider has min-samples latency samples
+        private Duration initialHedgeDelay = Duration.ofMillis(500);
+
+        private Duration minHedgeDelay = Duration.ofMillis(20);
+
+        // Latest fetches per provider kept to estimate its p95 and rank it against the others
+        private int latencySamples = 100;
+
+        private int minSamples = 10;
+
+        // Latency recorded for a failed or empty fetch, so such a provider drops down the ranking
+        private Duration failurePenalty = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Source {
+
+        private String name;
+
+        private ProviderType type = ProviderType.HTTP;
+
+        // HTTP: endpoint serving <url>/<base>
+        private String url;
+
+        private Duration timeout = Duration.ofSeconds(5);
+
+        // FILE: directory holding one <base>.json per base currency
+        private String path;
+
+        // STATIC: fixed rates quoted against base
+        private String base = "USD";
+
+        private Map<String, BigDecimal> rates = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class Cluster {
+
+        // Elects one node through a Redis lease to fetch rates for the whole cluster and
+        // broadcast each snapshot to the others over pub/sub
+        private boolean enabled = false;
+
+        private String leaseKey = "currency:rates:leader";
+
+        private String channel = "currency:rates:updates";
+
+        // Counter the leader takes snapshot versions from, so they keep increasing across failovers
+        private String versionKey = "currency:rates:version";
+
+        // A dead leader is replaced within roughly this long; the lease is renewed every third of it
+        private Duration leaseTtl = Duration.ofSeconds(15);
+
+        // How often the leader fetches fresh rates. Keep it below cache.ttl minus
+        // cache.refresh-ahead so followers never reach their own refresh window.
+        private Duration refreshInterval = Duration.ofMinutes(5);
+
+        // Bases the leader keeps fresh in addition to rates.anchor
+        private List<String> bases = new ArrayList<>();
+    }
+
+    @Data
+    public static class History {
+
+        // Persists every snapshot fetched from upstream for as-of conversions
+        private boolean enabled = true;
+
+        // Snapshots waiting to be written; when full, new snapshots are dropped rather
+        // than slowing down the fetch that produced them
+        private int queueCapacity = 1000;
+
+        // Rows per JDBC batch
+        private int batchSize = 500;
+
+        private Duration flushInterval = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Metrics {
+
+        // Distinct base currencies tagged on upstream fetch timers; later ones are tagged "other"
+        private int maxTaggedBases = 50;
+
+        // Distinct currency pairs with their own conversion counter; later ones are counted as "other"
+        private int maxTaggedPairs = 500;
+    }
+
+    @Data
+    public static class Stream {
+
+        // Open rate streams allowed at once; further subscribers get 503
+        private int maxSubscribers = 20000;
+
+        // Rate updates held for a subscriber that is not keeping up. When full the oldest
+        // is dropped, which is safe because deltas are computed against what was last sent.
+        private int maxBuffered = 8;
+
+        // A stream that was opened but never subscribed gives its slot back after this long
+        private Duration subscribeTimeout = Duration.ofSeconds(30);
+
+        // Comment lines sent on idle streams so proxies keep them open and dead clients are noticed
+        private Duration heartbeat = Duration.ofSeconds(15);
+    }
+
+    @Data
+    public static class Csv {
+
+        // Worker threads converting rows
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        // Rows handed to a worker at once
+        private int chunkSize = 4096;
+
+        // Chunks read ahead of the writer; with chunkSize this bounds the rows held in memory.
+        // Zero means twice the parallelism.
+        private int maxChunksInFlight = 0;
+
+        // Progress is logged every this many rows
+        private long progressInterval = 1_000_000;
+
+        // Command-line mode: when input is set the application converts that file and exits.
+        // Output defaults to the input name with a .converted.csv suffix.
+        private String input;
+        private String output;
+    }
+
+    @Data
+    public static class Prefetch {
+
+        // Keeps the most requested bases loaded ahead of expiry instead of every base that
+        // was read; the rest expire. Bases are counted in a frequency sketch either way.
+        private boolean enabled = true;
+
+        // How many of the most requested bases to keep warm
+        private int topK = 8;
+
+        // How often the hot bases are re-ranked and prefetched; keep it well below
+        // currency.cache.refresh-ahead so a hot base is caught inside its refresh window
+        private Duration interval = Duration.ofSeconds(15);
+
+        // Upstream loads a single prefetch round may start
+        private int budget = 4;
+
+        // Distinct bases and pairs the access sketch is sized for
+        private int sketchSize = 4096;
+    }
+
+    @Data
+    public static class Admission {
+
+        // Limits each client to the request rate of its tier and sheds API requests once too
+        // many are in flight, answering 429 or 503 with Retry-After
+        private boolean enabled = true;
+
+        // Header carrying a client's API key. Requests without a key listed in api-keys are
+        // limited per client IP address in default-tier. Behind a load balancer that address
+        // is only the client's with server.forward-headers-strategy set.
+        private String apiKeyHeader = "X-API-Key";
+
+        private String defaultTier = "anonymous";
+
+        private Map<String, Tier> tiers = new LinkedHashMap<>(Map.of("anonymous", new Tier()));
+
+        // API key to tier name
+        private Map<String, String> apiKeys = new LinkedHashMap<>();
+
+        // Clients tracked at once; idle clients are forgotten first, and once the limit is
+        // reached new clients share one bucket per tier
+        private int maxClients = 100_000;
+
+        // API and web UI requests allowed in flight at once. Standard API requests are shed
+        // above standard-share of it and batch and CSV conversions above bulk-share, so the
+        // web UI always has headroom.
+        private int maxInFlight = 400;
+
+        private double standardShare = 0.8;
+
+        private double bulkShare = 0.5;
+
+        // Retry-After sent with a 503 when a request is shed
+        private Duration shedRetryAfter = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Tier {
+
+        // Sustained requests per second per client. Zero disables the limit, which is the
+        // default so that clients behind a misconfigured proxy do not share one bucket.
+        private double rate = 0;
+
+        // Requests a client that has been idle may send at once
+        private int burst = 40;
+    }
+
+    @Data
+    public static class Startup {
+
+        // Exercises the main endpoints and exits; used to train the class-data-sharing
+        // archive of the fast-startup build
+        private boolean trainingRun = false;
+
+        // Times each endpoint is called during a training run
+        private int trainingRounds = 50;
+    }
+
+    public enum Mode {
+        BLOCKING, REACTIVE
+    }
+
+    public enum ProviderType {
+        HTTP, FILE, STATIC
+    }
+}
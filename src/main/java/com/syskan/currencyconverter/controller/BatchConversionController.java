@@ -0,0 +1,93 @@
+package com.syskan.currencyconverter.controller;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.syskan.currencyconverter.rates.CrossRateMatrix;
+import com.syskan.currencyconverter.service.BatchConversionService;
+import com.syskan.currencyconverter.service.CsvConversionService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/currency")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class BatchConversionController {
+
+	private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+	private final BatchConversionService batchConversionService;
+	private final CsvConversionService csvConversionService;
+
+	@PostMapping(path = "/convert/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+			produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> convertJsonBatch(HttpServletRequest request) {
+
+		log.info("Received batch conversion request ({})", MediaType.APPLICATION_JSON_VALUE);
+
+		return stream(request, batchConversionService::convertJsonArray);
+	}
+
+	@PostMapping(path = "/convert/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+			produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> convertNdjsonBatch(HttpServletRequest request) {
+
+		log.info("Received batch conversion request ({})", MediaType.APPLICATION_NDJSON_VALUE);
+
+		return stream(request, batchConversionService::convertNdjson);
+	}
+
+	/**
+	 * Converts an uploaded CSV ledger row by row, answering with the same rows plus
+	 * {@code exchangeRate}, {@code convertedAmount} and {@code error} columns. The rates are
+	 * pinned before the response starts, so a rate outage fails the request with 503.
+	 */
+	@PostMapping(path = "/convert/csv", consumes = "text/csv", produces = "text/csv")
+	public ResponseEntity<StreamingResponseBody> convertCsv(HttpServletRequest request) {
+
+		log.info("Received CSV conversion request ({} bytes)", request.getContentLengthLong());
+
+		CrossRateMatrix rates;
+		try {
+			rates = csvConversionService.pinRates();
+		} catch (Exception e) {
+			log.error("No rates for CSV conversion", e);
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+		StreamingResponseBody body = output -> {
+			try (InputStream input = request.getInputStream()) {
+				csvConversionService.convert(rates, input, output, progress -> log.info(
+						"CSV conversion: {} rows, {} failed, {} rows/s",
+						progress.rows(), progress.failures(), progress.rowsPerSecond()));
+			}
+		};
+		return ResponseEntity.ok().contentType(TEXT_CSV).body(body);
+	}
+
+	private ResponseEntity<StreamingResponseBody> stream(HttpServletRequest request, BatchConverter converter) {
+		StreamingResponseBody body = output -> {
+			try (InputStream input = request.getInputStream()) {
+				converter.convert(input, output);
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+
+	@FunctionalInterface
+	private interface BatchConverter {
+		BatchConversionService.BatchSummary convert(InputStream input, OutputStream output);
+	}
+}
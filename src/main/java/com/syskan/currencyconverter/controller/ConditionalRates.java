@@ -0,0 +1,130 @@
+package com.syskan.currencyconverter.controller;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.service.RenderedRates;
+
+/**
+ * HTTP validators for rate tables. A snapshot's version becomes a strong ETag and its
+ * fetch time Last-Modified, and {@code max-age} is whatever is left of its cache TTL, so
+ * clients and shared caches revalidate exactly when this node would reload.
+ * <p>
+ * A matching {@code If-None-Match} is answered with a bodiless 304 before the rate table
+ * is looked up. Otherwise the table's pre-rendered JSON, or its gzip variant when the
+ * client accepts it, is written as is. Each encoding has its own ETag.
+ */
+final class ConditionalRates {
+
+	private ConditionalRates() {
+	}
+
+	static ResponseEntity<byte[]> respond(String baseCurrency, RateSnapshot snapshot, Duration freshFor,
+			String ifNoneMatch, String ifModifiedSince, String acceptEncoding, Supplier<RenderedRates> rates) {
+
+		boolean gzip = acceptsGzip(acceptEncoding);
+		String etag = etag(baseCurrency, snapshot, gzip);
+		boolean notModified = notModified(etag, snapshot, ifNoneMatch, ifModifiedSince);
+		ResponseEntity.BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+				.eTag(etag)
+				.lastModified(snapshot.fetchedAt())
+				.cacheControl(CacheControl.maxAge(freshFor).cachePublic())
+				.varyBy(HttpHeaders.ACCEPT_ENCODING);
+		if (notModified) {
+			return response.build();
+		}
+		RenderedRates rendered = rates.get();
+		response.contentType(MediaType.APPLICATION_JSON);
+		if (gzip) {
+			return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(rendered.gzip());
+		}
+		return response.body(rendered.json());
+	}
+
+	// Rates triangulated from one anchor snapshot share its version, so the base is part of the tag
+	static String etag(String baseCurrency, RateSnapshot snapshot, boolean gzip) {
+		return "\"" + baseCurrency + "-" + Long.toHexString(snapshot.version()) + (gzip ? "-gz\"" : "\"");
+	}
+
+	/**
+	 * Whether {@code gzip}, or {@code *}, is listed without {@code q=0}.
+	 */
+	static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			int params = coding.indexOf(';');
+			String name = (params < 0 ? coding : coding.substring(0, params)).trim();
+			if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+				return params < 0 || !coding.substring(params + 1).replace(" ", "").matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * If-None-Match takes precedence; If-Modified-Since is only consulted without it.
+	 */
+	static boolean notModified(String etag, RateSnapshot snapshot, String ifNoneMatch, String ifModifiedSince) {
+		if (ifNoneMatch != null) {
+			return matchesAny(ifNoneMatch, etag);
+		}
+		if (ifModifiedSince != null) {
+			try {
+				long since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME)
+						.toInstant().getEpochSecond();
+				return snapshot.fetchedAt().getEpochSecond() <= since;
+			} catch (DateTimeParseException e) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Weak comparison against a comma-separated list of entity tags, scanning the header in
+	 * place rather than splitting it.
+	 */
+	static boolean matchesAny(String header, String etag) {
+		int length = header.length();
+		int i = 0;
+		while (i < length) {
+			while (i < length && (header.charAt(i) == ' ' || header.charAt(i) == ',')) {
+				i++;
+			}
+			if (i >= length) {
+				return false;
+			}
+			if (header.charAt(i) == '*') {
+				return true;
+			}
+			if (header.startsWith("W/", i)) {
+				i += 2;
+			}
+			int end = header.indexOf(',', i);
+			if (end < 0) {
+				end = length;
+			}
+			int tagEnd = end;
+			while (tagEnd > i && header.charAt(tagEnd - 1) == ' ') {
+				tagEnd--;
+			}
+			if (tagEnd - i == etag.length() && header.regionMatches(i, etag, 0, etag.length())) {
+				return true;
+			}
+			i = end + 1;
+		}
+		return false;
+	}
+}
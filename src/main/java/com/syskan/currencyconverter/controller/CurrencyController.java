@@ -1,8 +1,9 @@
 package com.syskan.currencyconverter.controller;
 
-import java.math.BigDecimal;
 import java.util.Map;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -10,11 +11,14 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.syskan.currencyconverter.cache.RateSnapshot;
 import com.syskan.currencyconverter.dto.ConversionRequest;
 import com.syskan.currencyconverter.dto.ConversionResponse;
+import com.syskan.currencyconverter.service.CircuitBreaker;
 import com.syskan.currencyconverter.service.CurrencyService;
 
 import jakarta.validation.Valid;
@@ -26,6 +30,7 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 @CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = "currency.execution.mode", havingValue = "blocking", matchIfMissing = true)
 public class CurrencyController {
 
 	private final CurrencyService currencyService;
@@ -44,19 +49,30 @@ public class CurrencyController {
 					.body(ConversionResponse.builder().message("Error: " + e.getMessage()).build());
 		} catch (Exception e) {
 			log.error("Conversion failed", e);
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+			return ResponseEntity.status(failureStatus(e))
 					.body(ConversionResponse.builder().message("Conversion failed: " + e.getMessage()).build());
 		}
 	}
 
+	// No rates could be served at all because the rate provider's circuit is open
+	static HttpStatus failureStatus(Throwable e) {
+		return e.getCause() instanceof CircuitBreaker.CircuitOpenException
+				? HttpStatus.SERVICE_UNAVAILABLE
+				: HttpStatus.INTERNAL_SERVER_ERROR;
+	}
+
 	@GetMapping("/rates/{baseCurrency}")
-	public ResponseEntity<Map<String, BigDecimal>> getExchangeRates(@PathVariable String baseCurrency) {
+	public ResponseEntity<byte[]> getExchangeRates(@PathVariable String baseCurrency,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
 		log.info("Fetching rates for: {}", baseCurrency);
 
 		try {
-			Map<String, BigDecimal> rates = currencyService.getAllRates(baseCurrency);
-			return ResponseEntity.ok(rates);
+			RateSnapshot snapshot = currencyService.getRatesSnapshot(baseCurrency);
+			return ConditionalRates.respond(baseCurrency, snapshot, currencyService.freshFor(snapshot),
+					ifNoneMatch, ifModifiedSince, acceptEncoding, () -> currencyService.getRenderedRates(baseCurrency, snapshot));
 		} catch (Exception e) {
 			log.error("Failed to fetch rates", e);
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -0,0 +1,53 @@
+package com.syskan.currencyconverter.controller;
+
+import java.time.Instant;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.syskan.currencyconverter.dto.ConversionRequest;
+import com.syskan.currencyconverter.dto.ConversionResponse;
+import com.syskan.currencyconverter.service.CurrencyService;
+import com.syskan.currencyconverter.service.RateHistoryService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/currency")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class RateHistoryController {
+
+	private final RateHistoryService rateHistoryService;
+	private final CurrencyService currencyService;
+
+	/**
+	 * Converts at the rates that were current at {@code at}, for example
+	 * {@code /convert/as-of?fromCurrency=EUR&toCurrency=GBP&amount=100&at=2024-12-09T10:00:00Z}.
+	 */
+	@GetMapping("/convert/as-of")
+	public ResponseEntity<ConversionResponse> convertAsOf(@Valid ConversionRequest request, @RequestParam Instant at) {
+
+		log.info("Received historical conversion request: {} at {}", request, at);
+
+		return rateHistoryService.rateAsOf(request.getFromCurrency(), request.getToCurrency(), at)
+			.map(historical -> {
+				ConversionResponse response = currencyService.convert(request, historical.rate());
+				response.setRatesAsOf(historical.effectiveAt());
+				return ResponseEntity.ok(response);
+			})
+			.orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+				.body(ConversionResponse.builder()
+					.message("Error: No rate history for " + request.getFromCurrency() + "/"
+						+ request.getToCurrency() + " at " + at)
+					.build()));
+	}
+}
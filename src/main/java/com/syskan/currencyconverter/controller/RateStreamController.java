@@ -0,0 +1,106 @@
+package com.syskan.currencyconverter.controller;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.dto.RateUpdate;
+import com.syskan.currencyconverter.rates.CurrencyCodes;
+import com.syskan.currencyconverter.service.RateStreamService;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/currency")
+@Slf4j
+@CrossOrigin(origins = "*")
+public class RateStreamController {
+
+	private final RateStreamService rateStreamService;
+	private final Duration heartbeat;
+
+	public RateStreamController(RateStreamService rateStreamService, CurrencyProperties properties) {
+		this.rateStreamService = rateStreamService;
+		this.heartbeat = properties.getStream().getHeartbeat();
+	}
+
+	/**
+	 * Server-Sent Events for whole bases and single pairs, for example
+	 * {@code /rates/stream?bases=USD&pairs=EUR/GBP,JPYCHF}. The first event is a
+	 * {@code snapshot} of every subscribed pair; each later {@code delta} carries only the pairs
+	 * of one base that changed, so one snapshot may bring a delta per base. Event ids are snapshot
+	 * versions. Comment lines keep idle connections open.
+	 */
+	@GetMapping(path = "/rates/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<Flux<ServerSentEvent<RateUpdate>>> streamRates(
+			@RequestParam(required = false) List<String> bases,
+			@RequestParam(required = false) List<String> pairs) {
+
+		Set<String> baseCodes = new LinkedHashSet<>();
+		Set<String> pairCodes = new LinkedHashSet<>();
+		try {
+			if (bases != null) {
+				bases.forEach(base -> baseCodes.add(currencyCode(base)));
+			}
+			if (pairs != null) {
+				pairs.forEach(pair -> pairCodes.add(pair(pair)));
+			}
+		} catch (IllegalArgumentException e) {
+			log.error("Invalid rate stream subscription: {}", e.getMessage());
+			return ResponseEntity.badRequest().build();
+		}
+		if (baseCodes.isEmpty() && pairCodes.isEmpty()) {
+			return ResponseEntity.badRequest().build();
+		}
+		Optional<Flux<RateUpdate>> stream = rateStreamService.open(baseCodes, pairCodes);
+		if (stream.isEmpty()) {
+			log.warn("Rejecting rate stream subscription: {} subscribers open", rateStreamService.subscriberCount());
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+
+		log.info("Opening rate stream for bases {} and pairs {}", baseCodes, pairCodes);
+
+		Flux<ServerSentEvent<RateUpdate>> updates = stream.get()
+			.map(update -> ServerSentEvent.builder(update)
+				.event(update.getType())
+				.id(Long.toString(update.getVersion()))
+				.build());
+		Flux<ServerSentEvent<RateUpdate>> heartbeats = Flux.interval(heartbeat, heartbeat)
+			.map(tick -> ServerSentEvent.<RateUpdate>builder().comment("heartbeat").build());
+		return ResponseEntity.ok()
+			.contentType(MediaType.TEXT_EVENT_STREAM)
+			.body(Flux.merge(updates, heartbeats));
+	}
+
+	// Accepts EUR/GBP as well as EURGBP
+	private static String pair(String value) {
+		String pair = value.replace("/", "").trim();
+		if (pair.length() != 6) {
+			throw new IllegalArgumentException("Invalid currency pair: " + value);
+		}
+		return currencyCode(pair.substring(0, 3)) + "/" + currencyCode(pair.substring(3));
+	}
+
+	private static String currencyCode(String value) {
+		String code = value.trim().toUpperCase(Locale.ROOT);
+		if (!CurrencyCodes.isWellFormed(code)) {
+			throw new IllegalArgumentException("Invalid currency code: " + value);
+		}
+		return code;
+	}
+}
@@ -0,0 +1,89 @@
+package com.syskan.currencyconverter.controller;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.syskan.currencyconverter.dto.ConversionRequest;
+import com.syskan.currencyconverter.dto.ConversionResponse;
+import com.syskan.currencyconverter.service.CurrencyService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Same API as {@link CurrencyController}, but every handler returns a {@link Mono} so the
+ * request thread is released while rates are fetched. Enabled with
+ * {@code currency.execution.mode=reactive}.
+ */
+@RestController
+@RequestMapping("/api/currency")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(name = "currency.execution.mode", havingValue = "reactive")
+public class ReactiveCurrencyController {
+
+	private final CurrencyService currencyService;
+
+	@PostMapping("/convert")
+	public Mono<ResponseEntity<ConversionResponse>> convertCurrency(@Valid @RequestBody ConversionRequest request) {
+
+		log.info("Received conversion request: {}", request);
+
+		return currencyService.convertCurrencyReactive(request)
+				.map(ResponseEntity::ok)
+				.onErrorResume(IllegalArgumentException.class, e -> {
+					log.error("Invalid request: {}", e.getMessage());
+					return Mono.just(ResponseEntity.badRequest()
+							.body(ConversionResponse.builder().message("Error: " + e.getMessage()).build()));
+				})
+				.onErrorResume(e -> {
+					log.error("Conversion failed", e);
+					return Mono.just(ResponseEntity.status(CurrencyController.failureStatus(e))
+							.body(ConversionResponse.builder().message("Conversion failed: " + e.getMessage()).build()));
+				});
+	}
+
+	@GetMapping("/rates/{baseCurrency}")
+	public Mono<ResponseEntity<byte[]>> getExchangeRates(@PathVariable String baseCurrency,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+		log.info("Fetching rates for: {}", baseCurrency);
+
+		return currencyService.getRatesSnapshotReactive(baseCurrency)
+				.map(snapshot -> ConditionalRates.respond(baseCurrency, snapshot, currencyService.freshFor(snapshot),
+						ifNoneMatch, ifModifiedSince, acceptEncoding, () -> currencyService.getRenderedRates(baseCurrency, snapshot)))
+				.onErrorResume(e -> {
+					log.error("Failed to fetch rates", e);
+					return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+				});
+	}
+
+	@GetMapping("/supported/{currencyCode}")
+	public Mono<ResponseEntity<Map<String, Boolean>>> checkCurrencySupport(@PathVariable String currencyCode) {
+
+		return currencyService.isCurrencySupportedReactive(currencyCode)
+				.map(supported -> ResponseEntity.ok(Map.of("supported", supported)));
+	}
+
+	@GetMapping("/health")
+	public ResponseEntity<Map<String, String>> health() {
+		return ResponseEntity.ok(Map.of("status", "UP", "service", "Currency Converter API"));
+	}
+}
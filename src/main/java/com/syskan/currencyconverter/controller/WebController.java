@@ -1,6 +1,8 @@
 package com.syskan.currencyconverter.controller;
 
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.stereotype.Controller;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 
 import com.syskan.currencyconverter.dto.ConversionRequest;
 import com.syskan.currencyconverter.dto.ConversionResponse;
+import com.syskan.currencyconverter.model.CurrencyInfo;
 import com.syskan.currencyconverter.service.CurrencyService;
 
 import jakarta.validation.Valid;
@@ -54,7 +57,14 @@ public class WebController {
     }
 
     private void addCurrencies(Model model) {
-        // Popular currencies
+        List<CurrencyInfo> supported = currencyService.getCurrencyRegistry().supportedCurrencies();
+        if (!supported.isEmpty()) {
+            Map<String, String> currencies = new LinkedHashMap<>();
+            supported.forEach(currency -> currencies.put(currency.getCode(), currency.getName()));
+            model.addAttribute("currencies", currencies);
+            return;
+        }
+        // Popular currencies until the first anchor snapshot is loaded
         Map<String, String> currencies = Map.of(
             "USD", "US Dollar",
             "EUR", "Euro",
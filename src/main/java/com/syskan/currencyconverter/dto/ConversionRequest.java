@@ -2,6 +2,8 @@ package com.syskan.currencyconverter.dto;
 
 import java.math.BigDecimal;
 
+import com.syskan.currencyconverter.validation.CurrencyCode;
+
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
@@ -16,9 +18,11 @@ import lombok.NoArgsConstructor;
 public class ConversionRequest {
     
     @NotNull(message = "From currency is required")
+    @CurrencyCode
     private String fromCurrency;
     
     @NotNull(message = "To currency is required")
+    @CurrencyCode
     private String toCurrency;
     
     @NotNull(message = "Amount is required")
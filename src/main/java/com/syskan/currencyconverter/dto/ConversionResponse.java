@@ -1,8 +1,11 @@
 package com.syskan.currencyconverter.dto;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,4 +23,16 @@ public class ConversionResponse {
     private BigDecimal exchangeRate;
     private LocalDateTime timestamp;
     private String message;
+
+    // Set on historical conversions: when the rates used were fetched
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant ratesAsOf;
+
+    // Set on live conversions: how old the rates used were, and whether they were past
+    // the cache TTL because the rate provider could not be reached
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long ratesAgeSeconds;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean stale;
 }
@@ -0,0 +1,28 @@
+package com.syskan.currencyconverter.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RateUpdate {
+
+    public static final String SNAPSHOT = "snapshot";
+    public static final String DELTA = "delta";
+
+    // SNAPSHOT for the first event of a stream, DELTA for later ones
+    private String type;
+    private long version;
+    private Instant fetchedAt;
+
+    // Keyed by pair, e.g. "EUR/GBP"; a delta only holds the pairs of one base that changed
+    private Map<String, BigDecimal> rates;
+}
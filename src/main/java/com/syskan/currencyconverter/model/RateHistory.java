@@ -0,0 +1,50 @@
+package com.syskan.currencyconverter.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One quoted rate from one fetched snapshot. Rows are only ever inserted; the index
+ * serves "latest rate for a pair at or before an instant" as a single index seek.
+ */
+@Entity
+@Table(name = "rate_history", indexes = @Index(name = "idx_rate_history_pair_time",
+        columnList = "base_currency, quote_currency, effective_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RateHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "base_currency", length = 3, nullable = false)
+    private String baseCurrency;
+
+    @Column(name = "quote_currency", length = 3, nullable = false)
+    private String quoteCurrency;
+
+    @Column(name = "rate", precision = 30, scale = 12, nullable = false)
+    private BigDecimal rate;
+
+    // When the snapshot was fetched from the provider
+    @Column(name = "effective_at", nullable = false)
+    private Instant effectiveAt;
+
+    @Column(name = "snapshot_version", nullable = false)
+    private long snapshotVersion;
+}
@@ -0,0 +1,40 @@
+package com.syskan.currencyconverter.provider;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reads {@code <directory>/<base>.json}, in the same format the HTTP provider returns.
+ * Meant for offline development and tests; a missing file means the base is not quoted.
+ */
+public class FileRateProvider implements RateProvider {
+
+    private final String name;
+    private final Path directory;
+
+    public FileRateProvider(String name, Path directory) {
+        this.name = name;
+        this.directory = directory;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Mono<ExchangeRateResponse> fetch(String baseCurrency) {
+        return Mono.fromCallable(() -> {
+            Path file = directory.resolve(baseCurrency + ".json");
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            return RatePayloadDecoder.decode(Files.readAllBytes(file));
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,225 @@
+package com.syskan.currencyconverter.provider;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+import com.syskan.currencyconverter.service.CurrencyMetrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Fetches from the configured providers, fastest first.
+ * <p>
+ * Providers are ranked by the p95 of their recent fetches. The fastest is asked first; if
+ * it has not answered within its own p95, or fails, the next one is asked as well and the
+ * first good reply wins, cancelling the other. A provider that keeps failing or answering
+ * empty is charged the failure penalty and drops down the ranking, and one that recovers
+ * climbs back up. Fetches cancelled after losing a race are only counted in the
+ * {@code cancelled} timer, since their latency is unknown.
+ */
+@Component
+@Slf4j
+public class HedgingRateRouter implements RateProvider {
+
+    private final List<Tracked> providers;
+    private final boolean hedge;
+    private final long initialHedgeDelayNanos;
+    private final long minHedgeDelayNanos;
+    private final long failurePenaltyNanos;
+    private final LongSupplier ticker;
+    private final Counter hedges;
+
+    @Autowired
+    public HedgingRateRouter(WebClient.Builder webClientBuilder, CurrencyProperties properties,
+            @Value("${currency.api.base-url}") String baseUrl, @Value("${currency.api.timeout}") int timeout,
+            MeterRegistry meterRegistry) {
+        this(createProviders(webClientBuilder.filter(CurrencyMetrics.payloadSizeFilter(meterRegistry)).build(),
+                properties.getProviders().getSources(), baseUrl, Duration.ofMillis(timeout)),
+            properties.getProviders(), meterRegistry, System::nanoTime);
+    }
+
+    HedgingRateRouter(List<? extends RateProvider> providers, CurrencyProperties.Providers config,
+            MeterRegistry meterRegistry, LongSupplier ticker) {
+        if (providers.isEmpty()) {
+            throw new IllegalArgumentException("At least one rate provider is required");
+        }
+        this.hedge = config.isHedge();
+        this.initialHedgeDelayNanos = config.getInitialHedgeDelay().toNanos();
+        this.minHedgeDelayNanos = config.getMinHedgeDelay().toNanos();
+        this.failurePenaltyNanos = config.getFailurePenalty().toNanos();
+        this.ticker = ticker;
+        this.providers = new ArrayList<>(providers.size());
+        for (RateProvider provider : providers) {
+            this.providers.add(new Tracked(provider,
+                new LatencyWindow(config.getLatencySamples(), config.getMinSamples()), meterRegistry));
+        }
+        this.hedges = Counter.builder("currency.provider.hedges")
+            .description("Fetches started on the next provider because the previous one was slow or failed")
+            .register(meterRegistry);
+        log.info("Rate providers: {}", this.providers.stream().map(tracked -> tracked.provider.name()).toList());
+    }
+
+    private static List<RateProvider> createProviders(WebClient webClient, List<CurrencyProperties.Source> sources,
+            String defaultUrl, Duration defaultTimeout) {
+        if (sources.isEmpty()) {
+            return List.of(new HttpRateProvider("default", webClient, defaultUrl, defaultTimeout));
+        }
+        List<RateProvider> providers = new ArrayList<>(sources.size());
+        for (CurrencyProperties.Source source : sources) {
+            String name = source.getName() != null ? source.getName() : source.getType().name().toLowerCase();
+            providers.add(switch (source.getType()) {
+                case HTTP -> new HttpRateProvider(name, webClient, source.getUrl(), source.getTimeout());
+                case FILE -> new FileRateProvider(name, Path.of(source.getPath()));
+                case STATIC -> new StaticRateProvider(name, source.getBase(), source.getRates());
+            });
+        }
+        return providers;
+    }
+
+    @Override
+    public String name() {
+        return "hedging";
+    }
+
+    @Override
+    public Mono<ExchangeRateResponse> fetch(String baseCurrency) {
+        return fetchFrom(ranked(), 0, baseCurrency);
+    }
+
+    /**
+     * Providers by estimated p95, fastest first. Providers without enough samples are
+     * estimated at the initial hedge delay; ties keep the configured order.
+     */
+    List<RateProvider> ranking() {
+        return ranked().stream().map(tracked -> tracked.provider).toList();
+    }
+
+    private List<Tracked> ranked() {
+        List<Tracked> ranked = new ArrayList<>(providers);
+        ranked.sort(Comparator.comparingLong(this::estimatedP95));
+        return ranked;
+    }
+
+    private long estimatedP95(Tracked tracked) {
+        long p95 = tracked.latencies.percentile(0.95);
+        return p95 < 0 ? initialHedgeDelayNanos : p95;
+    }
+
+    private Mono<ExchangeRateResponse> fetchFrom(List<Tracked> ranked, int index, String baseCurrency) {
+        Tracked current = ranked.get(index);
+        if (index == ranked.size() - 1) {
+            return current.fetch(baseCurrency);
+        }
+
+        Sinks.Empty<Void> gaveUp = Sinks.empty();
+        Mono<ExchangeRateResponse> first = current.fetch(baseCurrency)
+            .doOnSuccess(response -> {
+                if (response == null) {
+                    gaveUp.tryEmitEmpty();
+                }
+            })
+            .doOnError(failure -> gaveUp.tryEmitEmpty());
+
+        Mono<Void> startNext = hedge
+            ? Mono.firstWithSignal(Mono.delay(Duration.ofNanos(hedgeDelay(current))).then(), gaveUp.asMono())
+            : gaveUp.asMono();
+        Mono<ExchangeRateResponse> next = startNext.then(Mono.defer(() -> {
+            hedges.increment();
+            log.debug("Asking {} for {} rates after {}", ranked.get(index + 1).provider.name(), baseCurrency,
+                    current.provider.name());
+            return fetchFrom(ranked, index + 1, baseCurrency);
+        }));
+
+        // When neither side produced a value, surface the first real error, or complete empty
+        return Mono.firstWithValue(first, next)
+            .onErrorResume(NoSuchElementException.class, noValue -> {
+                List<Throwable> failures = noValue.getCause() == null
+                    ? List.of()
+                    : Exceptions.unwrapMultiple(noValue.getCause());
+                for (Throwable failure : failures) {
+                    if (!(failure instanceof NoSuchElementException)) {
+                        return Mono.error(failure);
+                    }
+                }
+                return Mono.empty();
+            });
+    }
+
+    private long hedgeDelay(Tracked tracked) {
+        return Math.max(estimatedP95(tracked), minHedgeDelayNanos);
+    }
+
+    private final class Tracked {
+        final RateProvider provider;
+        final LatencyWindow latencies;
+        final MeterRegistry registry;
+
+        Tracked(RateProvider provider, LatencyWindow latencies, MeterRegistry registry) {
+            this.provider = provider;
+            this.latencies = latencies;
+            this.registry = registry;
+            TimeGauge.builder("currency.provider.latency.p95", latencies, TimeUnit.NANOSECONDS,
+                    window -> window.percentile(0.95) < 0 ? Double.NaN : window.percentile(0.95))
+                .description("p95 of the provider's recent fetches, used to rank providers and time hedges")
+                .tag("provider", provider.name())
+                .register(registry);
+        }
+
+        /**
+         * Fetches and records the latency. Errors and empty replies count as at least the
+         * failure penalty, so a provider that answers fast with nothing is not ranked first.
+         * A fetch cancelled because another provider won is timed but left out of the
+         * latency window, since how long it would have taken is unknown.
+         */
+        Mono<ExchangeRateResponse> fetch(String baseCurrency) {
+            return Mono.defer(() -> {
+                long start = ticker.getAsLong();
+                return provider.fetch(baseCurrency)
+                    .doOnSuccess(response -> {
+                        if (response == null) {
+                            record("empty", start, failurePenaltyNanos);
+                        } else {
+                            record("success", start, 0);
+                        }
+                    })
+                    .doOnError(failure -> record("error", start, failurePenaltyNanos))
+                    .doOnCancel(() -> time("cancelled", start));
+            });
+        }
+
+        private void record(String outcome, long start, long minimum) {
+            latencies.record(Math.max(time(outcome, start), minimum));
+        }
+
+        private long time(String outcome, long start) {
+            long elapsed = ticker.getAsLong() - start;
+            Timer.builder("currency.provider.fetch")
+                .description("Fetches from each rate provider")
+                .tag("provider", provider.name())
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+            return elapsed;
+        }
+    }
+}
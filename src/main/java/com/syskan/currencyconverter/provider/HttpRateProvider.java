@@ -0,0 +1,49 @@
+package com.syskan.currencyconverter.provider;
+
+import java.time.Duration;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Fetches {@code <url>/<base>} from an exchangerate-api compatible HTTP endpoint. The body
+ * is decoded by {@link RatePayloadDecoder} rather than bound by the WebClient codecs.
+ */
+@Slf4j
+public class HttpRateProvider implements RateProvider {
+
+    private final String name;
+    private final WebClient webClient;
+    private final String baseUrl;
+    private final Duration timeout;
+
+    public HttpRateProvider(String name, WebClient webClient, String baseUrl, Duration timeout) {
+        this.name = name;
+        this.webClient = webClient;
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Mono<ExchangeRateResponse> fetch(String baseCurrency) {
+        String url = baseUrl + "/" + baseCurrency;
+
+        log.debug("Fetching exchange rates from: {}", url);
+
+        return webClient.get()
+            .uri(url)
+            .retrieve()
+            .bodyToMono(byte[].class)
+            .map(RatePayloadDecoder::decode)
+            .timeout(timeout);
+    }
+}
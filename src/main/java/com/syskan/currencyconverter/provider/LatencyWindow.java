@@ -0,0 +1,52 @@
+package com.syskan.currencyconverter.provider;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The latest {@code capacity} latency samples of one provider, for percentile estimates
+ * that follow the provider as it speeds up or slows down.
+ */
+class LatencyWindow {
+
+    private final long[] samples;
+    private final int minSamples;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int next;
+    private int count;
+
+    LatencyWindow(int capacity, int minSamples) {
+        this.samples = new long[Math.max(1, capacity)];
+        this.minSamples = Math.max(1, Math.min(minSamples, samples.length));
+    }
+
+    void record(long nanos) {
+        lock.lock();
+        try {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The given percentile in nanoseconds, or -1 until enough samples were recorded.
+     */
+    long percentile(double percentile) {
+        long[] sorted;
+        lock.lock();
+        try {
+            if (count < minSamples) {
+                return -1;
+            }
+            sorted = Arrays.copyOf(samples, count);
+        } finally {
+            lock.unlock();
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
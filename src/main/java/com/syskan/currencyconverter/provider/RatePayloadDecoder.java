@@ -0,0 +1,156 @@
+package com.syskan.currencyconverter.provider;
+
+import java.math.BigDecimal;
+
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+import com.syskan.currencyconverter.rates.CompactRates;
+import com.syskan.currencyconverter.rates.CurrencyCodes;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.exc.StreamReadException;
+import tools.jackson.core.json.JsonFactory;
+
+/**
+ * Decodes exchangerate-api payloads token by token instead of binding them.
+ * <p>
+ * Rates go straight from the parser's character buffer into {@link CompactRates} as
+ * unscaled longs and scales, so decoding a table creates no map entries and no
+ * {@link BigDecimal}s, and codes are mapped to their {@link CurrencyCodes} instances so
+ * every table shares the same strings. Fields other than {@code base}, {@code date} and
+ * {@code rates} are skipped. {@link #findRate} stops reading as soon as it has the one
+ * rate it was asked for.
+ */
+public final class RatePayloadDecoder {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private static final int MAX_LONG_DIGITS = 18;
+
+    // Typical payloads quote about 160 currencies
+    private static final int EXPECTED_RATES = 192;
+
+    private RatePayloadDecoder() {
+    }
+
+    public static ExchangeRateResponse decode(byte[] payload) {
+        String base = null;
+        String date = null;
+        CompactRates rates = null;
+        try (JsonParser parser = JSON.createParser(payload)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            String field;
+            while ((field = parser.nextName()) != null) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "base" -> base = value == JsonToken.VALUE_NULL ? null : parser.getString();
+                    case "date" -> date = value == JsonToken.VALUE_NULL ? null : parser.getString();
+                    case "rates" -> rates = value == JsonToken.VALUE_NULL ? null : readRates(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return ExchangeRateResponse.builder()
+            .base(base)
+            .date(date)
+            .rates(rates)
+            .build();
+    }
+
+    /**
+     * The rate for one currency, reading no further into the payload than needed, or
+     * {@code null} if the payload does not quote it.
+     */
+    public static BigDecimal findRate(byte[] payload, String currencyCode) {
+        try (JsonParser parser = JSON.createParser(payload)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            String field;
+            while ((field = parser.nextName()) != null) {
+                JsonToken value = parser.nextToken();
+                if (!"rates".equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (value != JsonToken.START_OBJECT) {
+                    return null;
+                }
+                String code;
+                while ((code = parser.nextName()) != null) {
+                    JsonToken rate = parser.nextToken();
+                    if (code.equals(currencyCode)) {
+                        expectNumber(parser, rate);
+                        return parser.getDecimalValue();
+                    }
+                    parser.skipChildren();
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static CompactRates readRates(JsonParser parser) {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        CompactRates.Builder rates = CompactRates.builder(EXPECTED_RATES);
+        String code;
+        while ((code = parser.nextName()) != null) {
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            expectNumber(parser, value);
+            putRate(parser, rates, CurrencyCodes.intern(code));
+        }
+        return rates.build();
+    }
+
+    /**
+     * Parses the current number token's text into an unscaled long and a scale. Exponents
+     * and more than 18 significant digits go through {@link BigDecimal} instead.
+     */
+    private static void putRate(JsonParser parser, CompactRates.Builder rates, String code) {
+        char[] text = parser.getTextCharacters();
+        int i = parser.getTextOffset();
+        int end = i + parser.getTextLength();
+        boolean negative = text[i] == '-';
+        if (negative) {
+            i++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            char c = text[i];
+            if (c == '.') {
+                scale = 0;
+                continue;
+            }
+            if (c < '0' || c > '9' || (digits == MAX_LONG_DIGITS && unscaled != 0)) {
+                rates.put(code, parser.getDecimalValue());
+                return;
+            }
+            unscaled = unscaled * 10 + (c - '0');
+            if (unscaled != 0) {
+                digits++;
+            }
+            if (scale >= 0) {
+                scale++;
+            }
+        }
+        rates.put(code, negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new StreamReadException(parser, "Expected " + expected + " in rate payload but found " + actual);
+        }
+    }
+
+    private static void expectNumber(JsonParser parser, JsonToken actual) throws JacksonException {
+        if (actual != JsonToken.VALUE_NUMBER_INT && actual != JsonToken.VALUE_NUMBER_FLOAT) {
+            throw new StreamReadException(parser, "Expected a number for rate " + parser.currentName()
+                + " but found " + actual);
+        }
+    }
+}
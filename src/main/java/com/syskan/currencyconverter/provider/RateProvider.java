@@ -0,0 +1,19 @@
+package com.syskan.currencyconverter.provider;
+
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A source of rate tables: an upstream API, a local file, or a fixed table for tests.
+ */
+public interface RateProvider {
+
+    String name();
+
+    /**
+     * The current rate table quoted against a base, or empty if this provider does not
+     * quote that base.
+     */
+    Mono<ExchangeRateResponse> fetch(String baseCurrency);
+}
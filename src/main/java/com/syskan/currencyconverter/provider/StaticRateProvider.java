@@ -0,0 +1,52 @@
+package com.syskan.currencyconverter.provider;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves a fixed rate table configured against one base. Other bases are derived from it
+ * by division, so any quoted currency can be requested as a base.
+ */
+public class StaticRateProvider implements RateProvider {
+
+    private static final MathContext RATE_CONTEXT = new MathContext(10, RoundingMode.HALF_EVEN);
+
+    private final String name;
+    private final Map<String, BigDecimal> rates;
+
+    public StaticRateProvider(String name, String base, Map<String, BigDecimal> rates) {
+        this.name = name;
+        this.rates = new HashMap<>(rates);
+        this.rates.put(base, BigDecimal.ONE);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Mono<ExchangeRateResponse> fetch(String baseCurrency) {
+        BigDecimal baseRate = rates.get(baseCurrency);
+        if (baseRate == null || baseRate.signum() <= 0) {
+            return Mono.empty();
+        }
+        Map<String, BigDecimal> rebased = new LinkedHashMap<>(rates.size() * 2);
+        rates.forEach((code, rate) -> rebased.put(code,
+            code.equals(baseCurrency) ? BigDecimal.ONE : rate.divide(baseRate, RATE_CONTEXT)));
+        return Mono.just(ExchangeRateResponse.builder()
+            .base(baseCurrency)
+            .date(LocalDate.now().toString())
+            .rates(rebased)
+            .build());
+    }
+}
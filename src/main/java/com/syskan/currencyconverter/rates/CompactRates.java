@@ -0,0 +1,200 @@
+package com.syskan.currencyconverter.rates;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only rate table held as parallel primitive arrays sorted by currency code.
+ * <p>
+ * Each rate is an unscaled {@code long} and a scale, the same split
+ * {@link FixedPointConverter} works with, so a table of 160 rates is a few arrays rather
+ * than 160 map entries and {@link BigDecimal}s. Lookups binary-search the codes. The
+ * {@link BigDecimal} for a rate is created on first access and then reused; rates that do
+ * not fit in a {@code long} are kept as {@link BigDecimal} from the start.
+ */
+public final class CompactRates extends AbstractMap<String, BigDecimal> {
+
+    private final String[] codes;
+    private final long[] unscaled;
+    private final int[] scales;
+    private final BigDecimal[] decimals;
+
+    private CompactRates(String[] codes, long[] unscaled, int[] scales, BigDecimal[] decimals) {
+        this.codes = codes;
+        this.unscaled = unscaled;
+        this.scales = scales;
+        this.decimals = decimals;
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /**
+     * Position of a currency in {@link #codes()} order, or a negative number if absent.
+     */
+    public int indexOf(String currencyCode) {
+        return currencyCode == null ? -1 : Arrays.binarySearch(codes, currencyCode);
+    }
+
+    public String code(int index) {
+        return codes[index];
+    }
+
+    /**
+     * The rate at {@code index} as a double, without creating a {@link BigDecimal}.
+     */
+    public double doubleValue(int index) {
+        BigDecimal decimal = decimals[index];
+        if (decimal != null) {
+            return decimal.doubleValue();
+        }
+        return scales[index] == 0 ? unscaled[index] : unscaled[index] / Math.pow(10, scales[index]);
+    }
+
+    public BigDecimal rate(int index) {
+        // Racing threads create equal, immutable values, so the unsynchronized store is safe
+        BigDecimal decimal = decimals[index];
+        if (decimal == null) {
+            decimal = BigDecimal.valueOf(unscaled[index], scales[index]);
+            decimals[index] = decimal;
+        }
+        return decimal;
+    }
+
+    @Override
+    public BigDecimal get(Object key) {
+        int index = key instanceof String code ? indexOf(code) : -1;
+        return index < 0 ? null : rate(index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String code && indexOf(code) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return codes.length;
+    }
+
+    @Override
+    public Set<Map.Entry<String, BigDecimal>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, BigDecimal>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < codes.length;
+                    }
+
+                    @Override
+                    public Map.Entry<String, BigDecimal> next() {
+                        if (next >= codes.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = next++;
+                        return new SimpleImmutableEntry<>(codes[index], rate(index));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return codes.length;
+            }
+        };
+    }
+
+    /**
+     * Collects rates in any order; a repeated code keeps its last rate.
+     */
+    public static final class Builder {
+
+        private String[] codes;
+        private long[] unscaled;
+        private int[] scales;
+        private BigDecimal[] decimals;
+        private int size;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 8);
+            this.codes = new String[capacity];
+            this.unscaled = new long[capacity];
+            this.scales = new int[capacity];
+            this.decimals = new BigDecimal[capacity];
+        }
+
+        public Builder put(String code, long unscaledValue, int scale) {
+            int index = slot();
+            codes[index] = code;
+            unscaled[index] = unscaledValue;
+            scales[index] = scale;
+            decimals[index] = null;
+            return this;
+        }
+
+        public Builder put(String code, BigDecimal rate) {
+            BigInteger unscaledValue = rate.unscaledValue();
+            if (unscaledValue.bitLength() < Long.SIZE) {
+                return put(code, unscaledValue.longValue(), rate.scale());
+            }
+            int index = slot();
+            codes[index] = code;
+            decimals[index] = rate;
+            return this;
+        }
+
+        private int slot() {
+            if (size == codes.length) {
+                int capacity = size * 2;
+                codes = Arrays.copyOf(codes, capacity);
+                unscaled = Arrays.copyOf(unscaled, capacity);
+                scales = Arrays.copyOf(scales, capacity);
+                decimals = Arrays.copyOf(decimals, capacity);
+            }
+            return size++;
+        }
+
+        public CompactRates build() {
+            // Providers list codes alphabetically, so this is usually a single pass
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> {
+                int byCode = codes[a].compareTo(codes[b]);
+                return byCode != 0 ? byCode : Integer.compare(a, b);
+            });
+
+            String[] sortedCodes = new String[size];
+            long[] sortedUnscaled = new long[size];
+            int[] sortedScales = new int[size];
+            BigDecimal[] sortedDecimals = new BigDecimal[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                int from = order[i];
+                if (count > 0 && sortedCodes[count - 1].equals(codes[from])) {
+                    count--;
+                }
+                sortedCodes[count] = codes[from];
+                sortedUnscaled[count] = unscaled[from];
+                sortedScales[count] = scales[from];
+                sortedDecimals[count] = decimals[from];
+                count++;
+            }
+            return new CompactRates(Arrays.copyOf(sortedCodes, count), Arrays.copyOf(sortedUnscaled, count),
+                Arrays.copyOf(sortedScales, count), Arrays.copyOf(sortedDecimals, count));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.syskan.currencyconverter.rates;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.cache.RateUpdateListener;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the current {@link CrossRateMatrix}. A new matrix is built whenever a snapshot for
+ * the anchor currency is loaded and published with a compare-and-set that never replaces
+ * a newer snapshot's matrix, so readers always see a complete matrix without locking.
+ */
+@Slf4j
+public class CrossRateEngine implements RateUpdateListener {
+
+    private final String anchor;
+    private final AtomicReference<CrossRateMatrix> current = new AtomicReference<>();
+
+    public CrossRateEngine(String anchor) {
+        this.anchor = anchor;
+    }
+
+    public String anchor() {
+        return anchor;
+    }
+
+    @Override
+    public void onRatesLoaded(String baseCurrency, RateSnapshot snapshot) {
+        if (anchor.equals(baseCurrency)) {
+            install(snapshot);
+        }
+    }
+
+    /**
+     * Builds and publishes the matrix for an anchor snapshot, unless a newer one is already
+     * installed; listeners are told about loads outside the cache's own ordering, so an
+     * older snapshot can arrive after a newer one.
+     */
+    public void install(RateSnapshot snapshot) {
+        CrossRateMatrix matrix = CrossRateMatrix.from(snapshot);
+        CrossRateMatrix installed;
+        do {
+            installed = current.get();
+            if (installed != null && installed.snapshot().version() > snapshot.version()) {
+                log.debug("Kept {} matrix version {} over older version {}", anchor,
+                        installed.snapshot().version(), snapshot.version());
+                return;
+            }
+        } while (!current.compareAndSet(installed, matrix));
+        log.debug("Installed {}x{} cross-rate matrix anchored on {}", matrix.size(), matrix.size(), anchor);
+    }
+
+    /**
+     * The most recently installed matrix, or {@code null} if no anchor snapshot has been
+     * loaded yet.
+     */
+    public CrossRateMatrix current() {
+        return current.get();
+    }
+}
@@ -0,0 +1,168 @@
+package com.syskan.currencyconverter.rates;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+
+/**
+ * Immutable table of cross rates for every currency pair, derived from a single rate
+ * snapshot quoted against one anchor currency.
+ * <p>
+ * A currency is found through its {@link CurrencyCodes} ordinal, which indexes a table of
+ * positions in {@link #currencies()}, so a lookup needs no hashing. Each row of rates from
+ * one currency is worked out the first time it is read and then kept, so any pair after
+ * that is two array reads. Cross rates divide the snapshot's own rates to 10 significant
+ * digits, half-even, the same as dividing the two anchor rates directly; the anchor row
+ * is the snapshot's rates as quoted.
+ */
+public final class CrossRateMatrix {
+
+    private static final MathContext RATE_CONTEXT = new MathContext(10, RoundingMode.HALF_EVEN);
+
+    private final String anchor;
+    private final RateSnapshot snapshot;
+    private final Map<String, BigDecimal> source;
+    private final String[] codes;
+    // Position in codes by CurrencyCodes ordinal, -1 where the currency is not quoted
+    private final int[] positions;
+    private final BigDecimal[] perAnchor;
+    // Rows are filled in on first read; two readers racing on one compute the same values
+    private final AtomicReferenceArray<BigDecimal[]> rows;
+
+    private CrossRateMatrix(RateSnapshot snapshot, String[] codes, int[] positions, BigDecimal[] perAnchor) {
+        this.anchor = snapshot.base();
+        this.snapshot = snapshot;
+        this.source = snapshot.rates().getRates();
+        this.codes = codes;
+        this.positions = positions;
+        this.perAnchor = perAnchor;
+        this.rows = new AtomicReferenceArray<>(codes.length);
+    }
+
+    /**
+     * Builds the matrix from a snapshot quoted against its base, which becomes the anchor.
+     * Non-positive rates are skipped since they cannot be inverted.
+     */
+    public static CrossRateMatrix from(RateSnapshot snapshot) {
+        String anchor = snapshot.base();
+        Map<String, BigDecimal> anchorRates = new HashMap<>(snapshot.rates().getRates());
+        anchorRates.putIfAbsent(anchor, BigDecimal.ONE);
+        anchorRates.values().removeIf(rate -> rate == null || rate.signum() <= 0);
+
+        String[] codes = anchorRates.keySet().stream()
+            .map(CurrencyCodes::intern)
+            .sorted()
+            .toArray(String[]::new);
+
+        int n = codes.length;
+        int[] positions = new int[CurrencyCodes.size()];
+        Arrays.fill(positions, -1);
+        BigDecimal[] perAnchor = new BigDecimal[n];
+        for (int i = 0; i < n; i++) {
+            int ordinal = CurrencyCodes.ordinal(codes[i]);
+            if (ordinal >= 0) {
+                positions[ordinal] = i;
+            }
+            perAnchor[i] = anchorRates.get(codes[i]);
+        }
+        return new CrossRateMatrix(snapshot, codes, positions, perAnchor);
+    }
+
+    public String anchor() {
+        return anchor;
+    }
+
+    public RateSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public String[] currencies() {
+        return codes.clone();
+    }
+
+    public boolean contains(String currencyCode) {
+        return ordinal(currencyCode) >= 0;
+    }
+
+    /**
+     * Returns the ordinal of a currency within this matrix, or -1 if it is not quoted.
+     */
+    public int ordinal(String currencyCode) {
+        int ordinal = CurrencyCodes.ordinal(currencyCode);
+        return ordinal < 0 || ordinal >= positions.length ? -1 : positions[ordinal];
+    }
+
+    /**
+     * Rate for converting one unit of the currency at {@code fromOrdinal} into the one at
+     * {@code toOrdinal}, both ordinals within this matrix.
+     */
+    public BigDecimal rate(int fromOrdinal, int toOrdinal) {
+        return row(fromOrdinal)[toOrdinal];
+    }
+
+    /**
+     * Rate for converting one unit of {@code from} into {@code to}, or {@code null} if
+     * either currency is not quoted.
+     */
+    public BigDecimal rate(String from, String to) {
+        int fromOrdinal = ordinal(from);
+        int toOrdinal = ordinal(to);
+        if (fromOrdinal < 0 || toOrdinal < 0) {
+            return null;
+        }
+        return rate(fromOrdinal, toOrdinal);
+    }
+
+    /**
+     * All rates quoted against {@code base}, or {@code null} if the base is not quoted.
+     * The anchor row is the original snapshot, unchanged.
+     */
+    public Map<String, BigDecimal> ratesFor(String base) {
+        if (anchor.equals(base)) {
+            return Collections.unmodifiableMap(source);
+        }
+        int fromOrdinal = ordinal(base);
+        if (fromOrdinal < 0) {
+            return null;
+        }
+        BigDecimal[] row = row(fromOrdinal);
+        Map<String, BigDecimal> rates = new LinkedHashMap<>(codes.length * 2);
+        for (int to = 0; to < codes.length; to++) {
+            rates.put(codes[to], row[to]);
+        }
+        return rates;
+    }
+
+    private BigDecimal[] row(int fromOrdinal) {
+        BigDecimal[] row = rows.get(fromOrdinal);
+        if (row != null) {
+            return row;
+        }
+        BigDecimal from = perAnchor[fromOrdinal];
+        boolean anchorRow = codes[fromOrdinal].equals(anchor);
+        row = new BigDecimal[codes.length];
+        for (int to = 0; to < codes.length; to++) {
+            if (anchorRow) {
+                // As quoted, like the snapshot itself
+                row[to] = perAnchor[to];
+            } else {
+                BigDecimal rate = perAnchor[to].divide(from, RATE_CONTEXT).stripTrailingZeros();
+                row[to] = rate.scale() < 0 ? rate.setScale(0) : rate;
+            }
+        }
+        rows.set(fromOrdinal, row);
+        return row;
+    }
+}
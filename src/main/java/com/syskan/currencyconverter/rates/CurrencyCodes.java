@@ -0,0 +1,157 @@
+package com.syskan.currencyconverter.rates;
+
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.syskan.currencyconverter.model.CurrencyInfo;
+
+/**
+ * Process-wide registry of currency codes.
+ * <p>
+ * A three-letter code {@code ABC} maps arithmetically to a slot in a 26³ table, so finding
+ * a code's canonical string or its dense ordinal needs no hashing. Every ISO 4217 code the
+ * JDK knows is registered up front; codes a rate provider quotes beyond those, such as
+ * {@code GGP}, are registered the first time they are {@link #intern interned}, which is
+ * the only way in. Ordinals are assigned in registration order and never change, which
+ * lets per-snapshot sets of codes be bitsets.
+ * <p>
+ * Lookups never lock, hits and misses alike: registration fills in a code's ordinal entry
+ * last, with a volatile write, so a reader that sees it also sees everything else about the
+ * code. Only registrations are serialized.
+ */
+public final class CurrencyCodes {
+
+    private static final int SLOTS = 26 * 26 * 26;
+
+    // Written under LOCK, read without it. ORDINALS holds ordinal + 1 so that 0 means unknown.
+    private static final AtomicReferenceArray<String> CODES = new AtomicReferenceArray<>(SLOTS);
+    private static final AtomicIntegerArray ORDINALS = new AtomicIntegerArray(SLOTS);
+    private static volatile String[] byOrdinal = new String[256];
+    private static volatile int size;
+
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
+    static {
+        String[] iso = Currency.getAvailableCurrencies().stream()
+            .map(Currency::getCurrencyCode)
+            .sorted()
+            .toArray(String[]::new);
+        for (String code : iso) {
+            register(code, slot(code));
+        }
+    }
+
+    private CurrencyCodes() {
+    }
+
+    /**
+     * The table slot of an upper-case three-letter code, or -1 for anything else.
+     */
+    public static int slot(CharSequence code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        int slot = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = code.charAt(i) - 'A';
+            if (letter < 0 || letter >= 26) {
+                return -1;
+            }
+            slot = slot * 26 + letter;
+        }
+        return slot;
+    }
+
+    public static boolean isWellFormed(CharSequence code) {
+        return slot(code) >= 0;
+    }
+
+    /**
+     * Whether the code is an ISO code or has been quoted by a rate provider.
+     */
+    public static boolean isRegistered(CharSequence code) {
+        return ordinal(code) >= 0;
+    }
+
+    /**
+     * The dense ordinal of a registered code, or -1.
+     */
+    public static int ordinal(CharSequence code) {
+        int slot = slot(code);
+        if (slot < 0) {
+            return -1;
+        }
+        return ORDINALS.get(slot) - 1;
+    }
+
+    public static String code(int ordinal) {
+        // Reading size first makes the entry for every ordinal below it visible, in
+        // whichever copy of the array is current
+        if (ordinal < 0 || ordinal >= size) {
+            throw new IndexOutOfBoundsException("No currency with ordinal " + ordinal);
+        }
+        return byOrdinal[ordinal];
+    }
+
+    /**
+     * Number of registered codes; every ordinal is below this.
+     */
+    public static int size() {
+        return size;
+    }
+
+    /**
+     * The canonical instance of a well-formed code, registering it if it is new. Anything
+     * else is returned as given.
+     */
+    public static String intern(String code) {
+        int slot = slot(code);
+        if (slot < 0) {
+            return code;
+        }
+        String canonical = CODES.get(slot);
+        return canonical != null ? canonical : register(code, slot);
+    }
+
+    private static String register(String code, int slot) {
+        LOCK.lock();
+        try {
+            String existing = CODES.get(slot);
+            if (existing != null) {
+                return existing;
+            }
+            String canonical = code.intern();
+            int ordinal = size;
+            String[] codes = byOrdinal;
+            if (ordinal == codes.length) {
+                codes = Arrays.copyOf(codes, ordinal * 2);
+            }
+            codes[ordinal] = canonical;
+            byOrdinal = codes;
+            size = ordinal + 1;
+            CODES.set(slot, canonical);
+            ORDINALS.set(slot, ordinal + 1);
+            return canonical;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Name and symbol from the JDK's ISO 4217 data; codes it does not know get the code
+     * itself for both.
+     */
+    public static CurrencyInfo info(String code) {
+        try {
+            Currency currency = Currency.getInstance(code);
+            return new CurrencyInfo(currency.getCurrencyCode(), currency.getDisplayName(Locale.ENGLISH),
+                currency.getSymbol(Locale.ENGLISH));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return new CurrencyInfo(code, code, code);
+        }
+    }
+}
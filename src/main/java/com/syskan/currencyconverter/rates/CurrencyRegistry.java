@@ -0,0 +1,113 @@
+package com.syskan.currencyconverter.rates;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.cache.RateUpdateListener;
+import com.syskan.currencyconverter.model.CurrencyInfo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The currencies this node can convert right now: a bitset over {@link CurrencyCodes}
+ * ordinals, rebuilt whenever an anchor snapshot is installed and published with a single
+ * volatile write. A check is slot arithmetic, an array read and a bit test.
+ * <p>
+ * A currency is supported when the anchor snapshot quotes it with a positive rate, which
+ * is exactly the set {@link CrossRateMatrix} can convert between.
+ */
+@Slf4j
+public class CurrencyRegistry implements RateUpdateListener {
+
+    private final String anchor;
+    private volatile Supported supported;
+
+    public CurrencyRegistry(String anchor) {
+        this.anchor = CurrencyCodes.intern(anchor);
+    }
+
+    @Override
+    public void onRatesLoaded(String baseCurrency, RateSnapshot snapshot) {
+        if (anchor.equals(baseCurrency)) {
+            install(snapshot);
+        }
+    }
+
+    public void install(RateSnapshot snapshot) {
+        Supported current = supported;
+        if (current != null && current.version > snapshot.version()) {
+            return;
+        }
+        Map<String, BigDecimal> rates = snapshot.rates().getRates();
+        // Registers codes the JDK does not know, so every quoted code has an ordinal
+        rates.keySet().forEach(CurrencyCodes::intern);
+
+        long[] bits = new long[(CurrencyCodes.size() >> 6) + 1];
+        int count = set(bits, CurrencyCodes.ordinal(anchor)) ? 1 : 0;
+        for (Map.Entry<String, BigDecimal> rate : rates.entrySet()) {
+            BigDecimal value = rate.getValue();
+            if (value != null && value.signum() > 0 && set(bits, CurrencyCodes.ordinal(rate.getKey()))) {
+                count++;
+            }
+        }
+        supported = new Supported(bits, count, snapshot.version());
+        log.debug("{} currencies supported as of {} snapshot version {}", count, anchor, snapshot.version());
+    }
+
+    private static boolean set(long[] bits, int ordinal) {
+        int word = ordinal >> 6;
+        if (ordinal < 0 || word >= bits.length || (bits[word] & (1L << ordinal)) != 0) {
+            return false;
+        }
+        bits[word] |= 1L << ordinal;
+        return true;
+    }
+
+    /**
+     * Whether an anchor snapshot has been installed; until then nothing is supported.
+     */
+    public boolean isLoaded() {
+        return supported != null;
+    }
+
+    public boolean isSupported(String currencyCode) {
+        Supported current = supported;
+        if (current == null) {
+            return false;
+        }
+        int ordinal = CurrencyCodes.ordinal(currencyCode);
+        int word = ordinal >> 6;
+        return ordinal >= 0 && word < current.bits.length && (current.bits[word] & (1L << ordinal)) != 0;
+    }
+
+    public int supportedCount() {
+        Supported current = supported;
+        return current == null ? 0 : current.count;
+    }
+
+    /**
+     * The supported currencies in ordinal order, with names and symbols.
+     */
+    public List<CurrencyInfo> supportedCurrencies() {
+        Supported current = supported;
+        if (current == null) {
+            return List.of();
+        }
+        List<CurrencyInfo> currencies = new ArrayList<>(current.count);
+        for (int word = 0; word < current.bits.length; word++) {
+            long bits = current.bits[word];
+            while (bits != 0) {
+                int ordinal = (word << 6) + Long.numberOfTrailingZeros(bits);
+                currencies.add(CurrencyCodes.info(CurrencyCodes.code(ordinal)));
+                bits &= bits - 1;
+            }
+        }
+        return currencies;
+    }
+
+    private record Supported(long[] bits, int count, long version) {
+    }
+}
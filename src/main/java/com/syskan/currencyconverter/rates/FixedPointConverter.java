@@ -0,0 +1,118 @@
+package com.syskan.currencyconverter.rates;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Applies a rate to an amount and rounds to the target currency's minor units.
+ * <p>
+ * Amount and rate are each split into an unscaled {@code long} and a scale, multiplied
+ * exactly in 64 bits and rounded with integer arithmetic, which gives the same result as
+ * {@code amount.multiply(rate).setScale(digits, mode)} without intermediate
+ * {@link BigDecimal}s. Inputs with more than 18 significant digits, or products that do
+ * not fit in a {@code long}, take that {@link BigDecimal} path instead.
+ */
+public class FixedPointConverter {
+
+    /** Returned by {@link #multiplyAndRound} when the result cannot be computed in a long. */
+    public static final long OVERFLOW = Long.MIN_VALUE;
+
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_LONG_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final RoundingMode roundingMode;
+
+    public FixedPointConverter(RoundingMode roundingMode) {
+        this.roundingMode = roundingMode;
+    }
+
+    public RoundingMode roundingMode() {
+        return roundingMode;
+    }
+
+    /**
+     * {@code amount * rate}, rounded to the minor units of {@code toCurrency}.
+     */
+    public BigDecimal convert(BigDecimal amount, BigDecimal rate, String toCurrency) {
+        int digits = MinorUnits.digits(toCurrency);
+        if (amount.precision() <= MAX_LONG_DIGITS && rate.precision() <= MAX_LONG_DIGITS) {
+            long minorUnits = multiplyAndRound(unscaled(amount), amount.scale(), unscaled(rate), rate.scale(),
+                digits, roundingMode);
+            if (minorUnits != OVERFLOW) {
+                return BigDecimal.valueOf(minorUnits, digits);
+            }
+        }
+        return amount.multiply(rate).setScale(digits, roundingMode);
+    }
+
+    /**
+     * Multiplies two fixed-point numbers and rounds the product to {@code targetScale}.
+     *
+     * @return the result's unscaled value at {@code targetScale}, or {@link #OVERFLOW}
+     * @throws ArithmeticException if {@code mode} is {@link RoundingMode#UNNECESSARY} and
+     *         the product does not fit the target scale exactly
+     */
+    public static long multiplyAndRound(long amount, int amountScale, long rate, int rateScale,
+            int targetScale, RoundingMode mode) {
+        long product = amount * rate;
+        if (Math.multiplyHigh(amount, rate) != (product >> 63) || product == OVERFLOW) {
+            return OVERFLOW;
+        }
+
+        long scaleDifference = (long) amountScale + rateScale - targetScale;
+        if (scaleDifference <= 0) {
+            if (-scaleDifference > MAX_LONG_DIGITS) {
+                return product == 0 ? 0 : OVERFLOW;
+            }
+            long factor = POWERS_OF_TEN[(int) -scaleDifference];
+            long scaled = product * factor;
+            if (Math.multiplyHigh(product, factor) != (scaled >> 63) || scaled == OVERFLOW) {
+                return OVERFLOW;
+            }
+            return scaled;
+        }
+        if (scaleDifference > MAX_LONG_DIGITS) {
+            return OVERFLOW;
+        }
+
+        long divisor = POWERS_OF_TEN[(int) scaleDifference];
+        long quotient = product / divisor;
+        long remainder = product % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = product < 0 ? -1 : 1;
+        return roundAwayFromZero(quotient, Math.abs(remainder), divisor, sign, mode) ? quotient + sign : quotient;
+    }
+
+    private static boolean roundAwayFromZero(long quotient, long remainder, long divisor, int sign,
+            RoundingMode mode) {
+        return switch (mode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP, HALF_DOWN, HALF_EVEN -> {
+                int half = Long.compare(remainder, divisor - remainder);
+                if (half != 0) {
+                    yield half > 0;
+                }
+                yield mode == RoundingMode.HALF_UP || (mode == RoundingMode.HALF_EVEN && (quotient & 1) != 0);
+            }
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+    }
+
+    private static long unscaled(BigDecimal value) {
+        // Moving the point by the scale leaves a compact value with scale zero
+        return value.scaleByPowerOfTen(value.scale()).longValue();
+    }
+}
@@ -0,0 +1,36 @@
+package com.syskan.currencyconverter.rates;
+
+import java.util.Currency;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ISO 4217 minor-unit digits per currency: 2 for USD, 0 for JPY, 3 for KWD. Codes the JDK
+ * does not know, or that have no minor unit defined, use 2.
+ */
+public final class MinorUnits {
+
+    public static final int DEFAULT_DIGITS = 2;
+
+    private static final Map<String, Integer> DIGITS = new ConcurrentHashMap<>();
+
+    private MinorUnits() {
+    }
+
+    public static int digits(String currencyCode) {
+        Integer digits = DIGITS.get(currencyCode);
+        if (digits == null) {
+            digits = DIGITS.computeIfAbsent(currencyCode, MinorUnits::lookup);
+        }
+        return digits;
+    }
+
+    private static int lookup(String currencyCode) {
+        try {
+            int digits = Currency.getInstance(currencyCode).getDefaultFractionDigits();
+            return digits < 0 ? DEFAULT_DIGITS : digits;
+        } catch (IllegalArgumentException e) {
+            return DEFAULT_DIGITS;
+        }
+    }
+}
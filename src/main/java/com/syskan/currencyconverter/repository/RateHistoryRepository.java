@@ -0,0 +1,14 @@
+package com.syskan.currencyconverter.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.syskan.currencyconverter.model.RateHistory;
+
+public interface RateHistoryRepository extends JpaRepository<RateHistory, Long> {
+
+    Optional<RateHistory> findFirstByBaseCurrencyAndQuoteCurrencyAndEffectiveAtLessThanEqualOrderByEffectiveAtDesc(
+            String baseCurrency, String quoteCurrency, Instant asOf);
+}
@@ -0,0 +1,141 @@
+package com.syskan.currencyconverter.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.syskan.currencyconverter.cache.FrequencySketch;
+import com.syskan.currencyconverter.rates.CurrencyCodes;
+
+/**
+ * How often each base currency and currency pair has been requested lately, kept in one
+ * {@link FrequencySketch} keyed by {@link CurrencyCodes} ordinals, so recording an access
+ * hashes no strings and allocates nothing. Codes that are not registered are not counted.
+ * <p>
+ * Ranking scans every registered base, a few hundred sketch reads. Pairs are ranked only
+ * among those whose source is one of the given bases, since a pair is never read more often
+ * than its source base.
+ */
+public class AccessFrequencies {
+
+    private static final long PAIR = 1L << 40;
+
+    private final FrequencySketch sketch;
+
+    public AccessFrequencies(int expectedKeys) {
+        this.sketch = new FrequencySketch(expectedKeys);
+    }
+
+    public void recordBase(String baseCurrency) {
+        int ordinal = CurrencyCodes.ordinal(baseCurrency);
+        if (ordinal >= 0) {
+            sketch.increment(ordinal);
+        }
+    }
+
+    /**
+     * Counts the pair, and its source as a base.
+     */
+    public void recordPair(String fromCurrency, String toCurrency) {
+        int from = CurrencyCodes.ordinal(fromCurrency);
+        if (from < 0) {
+            return;
+        }
+        sketch.increment(from);
+        int to = CurrencyCodes.ordinal(toCurrency);
+        if (to >= 0) {
+            sketch.increment(pairKey(from, to));
+        }
+    }
+
+    public int baseFrequency(String baseCurrency) {
+        int ordinal = CurrencyCodes.ordinal(baseCurrency);
+        return ordinal < 0 ? 0 : sketch.frequency(ordinal);
+    }
+
+    public int pairFrequency(String fromCurrency, String toCurrency) {
+        int from = CurrencyCodes.ordinal(fromCurrency);
+        int to = CurrencyCodes.ordinal(toCurrency);
+        return from < 0 || to < 0 ? 0 : sketch.frequency(pairKey(from, to));
+    }
+
+    /**
+     * The {@code k} most requested bases, most frequent first; bases not requested lately
+     * are left out.
+     */
+    public List<Ranked> topBases(int k) {
+        TopK top = new TopK(k);
+        int size = CurrencyCodes.size();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            top.offer(ordinal, -1, sketch.frequency(ordinal));
+        }
+        return top.ranked();
+    }
+
+    /**
+     * The {@code k} most requested pairs whose source is one of {@code bases}, most frequent
+     * first.
+     */
+    public List<Ranked> topPairs(int k, List<Ranked> bases) {
+        TopK top = new TopK(k);
+        int size = CurrencyCodes.size();
+        for (Ranked base : bases) {
+            int from = CurrencyCodes.ordinal(base.key());
+            for (int to = 0; to < size; to++) {
+                if (to != from) {
+                    top.offer(from, to, sketch.frequency(pairKey(from, to)));
+                }
+            }
+        }
+        return top.ranked();
+    }
+
+    private static long pairKey(int from, int to) {
+        return PAIR | (long) from << 20 | to;
+    }
+
+    /**
+     * A base such as {@code EUR} or a pair such as {@code EUR/GBP}, with its estimated
+     * request count.
+     */
+    public record Ranked(String key, int frequency) {
+    }
+
+    private static final class TopK {
+
+        private final int k;
+        // Least frequent of the current top k at the head
+        private final PriorityQueue<long[]> heap = new PriorityQueue<>(Comparator.comparingLong(entry -> entry[0]));
+
+        TopK(int k) {
+            this.k = Math.max(0, k);
+        }
+
+        void offer(int from, int to, int frequency) {
+            if (frequency == 0 || k == 0) {
+                return;
+            }
+            if (heap.size() < k) {
+                heap.add(new long[] {frequency, from, to});
+            } else if (frequency > heap.peek()[0]) {
+                heap.poll();
+                heap.add(new long[] {frequency, from, to});
+            }
+        }
+
+        List<Ranked> ranked() {
+            List<Ranked> ranked = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                long[] entry = heap.poll();
+                String key = entry[2] < 0
+                    ? CurrencyCodes.code((int) entry[1])
+                    : CurrencyCodes.code((int) entry[1]) + "/" + CurrencyCodes.code((int) entry[2]);
+                ranked.add(new Ranked(key, (int) entry[0]));
+            }
+            Collections.reverse(ranked);
+            return ranked;
+        }
+    }
+}
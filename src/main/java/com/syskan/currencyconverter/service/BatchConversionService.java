@@ -0,0 +1,228 @@
+package com.syskan.currencyconverter.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.syskan.currencyconverter.dto.ConversionRequest;
+import com.syskan.currencyconverter.dto.ConversionResponse;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+
+/**
+ * Converts a stream of {@link ConversionRequest}s into a stream of NDJSON
+ * {@link ConversionResponse}s. Items are read, converted and written one at a time so
+ * memory use does not depend on the batch size, and an invalid item produces an error
+ * line instead of aborting the batch.
+ */
+@Service
+@Slf4j
+public class BatchConversionService {
+
+    // Upper bound on remembered pairs so the per-batch memo cannot grow without limit
+    private static final int MAX_CACHED_PAIRS = 4096;
+    private static final int FLUSH_EVERY = 256;
+
+    private final CurrencyService currencyService;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader itemReader;
+    private final ObjectWriter responseWriter;
+    private final Validator validator;
+
+    public BatchConversionService(CurrencyService currencyService, ObjectMapper objectMapper,
+            Validator validator) {
+        this.currencyService = currencyService;
+        this.objectMapper = objectMapper;
+        this.itemReader = objectMapper.readerFor(JsonNode.class)
+            .without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.responseWriter = objectMapper.writerFor(ConversionResponse.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.validator = validator;
+    }
+
+    /**
+     * Reads a JSON array of requests and writes one response line per element; elements
+     * that are not objects get an error line too. A syntax error ends the batch with an
+     * error line, since the rest of the array cannot be read.
+     */
+    public BatchSummary convertJsonArray(InputStream input, OutputStream output) {
+        Batch batch = new Batch(output);
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                batch.write(error(null, "Expected a JSON array of conversion requests"));
+                return batch.summary();
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                if (token == JsonToken.START_OBJECT) {
+                    batch.process(itemReader.readValue(parser));
+                } else {
+                    String found = token == JsonToken.START_ARRAY ? "an array" : parser.getString();
+                    batch.write(error(null, "Expected a conversion request object but found " + found));
+                    parser.skipChildren();
+                }
+            }
+        } catch (JacksonException e) {
+            batch.write(error(null, "Malformed batch: " + e.getOriginalMessage()));
+        } finally {
+            batch.finish();
+        }
+        return batch.summary();
+    }
+
+    /**
+     * Reads newline-delimited JSON requests and writes one response line per input line.
+     * Malformed lines produce an error line; blank lines are skipped.
+     */
+    public BatchSummary convertNdjson(InputStream input, OutputStream output) {
+        Batch batch = new Batch(output);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode item;
+                try {
+                    item = objectMapper.readTree(line);
+                } catch (JacksonException e) {
+                    batch.write(error(null, "Malformed request: " + e.getOriginalMessage()));
+                    continue;
+                }
+                batch.process(item);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            batch.finish();
+        }
+        return batch.summary();
+    }
+
+    private static ConversionResponse error(ConversionRequest request, String message) {
+        ConversionResponse.ConversionResponseBuilder response = ConversionResponse.builder()
+            .message("Error: " + message);
+        if (request != null) {
+            response.fromCurrency(request.getFromCurrency())
+                .toCurrency(request.getToCurrency())
+                .amount(request.getAmount());
+        }
+        return response.build();
+    }
+
+    /**
+     * The rate of a pair, or why it could not be resolved.
+     */
+    private record PairRate(BigDecimal rate, RuntimeException failure) {
+    }
+
+    public record BatchSummary(long items, long failures, int distinctPairs, long elapsedMillis) {
+    }
+
+    private final class Batch {
+
+        private final JsonGenerator generator;
+        private final Map<String, BigDecimal> ratesByPair = new HashMap<>();
+        private final long startedAt = System.nanoTime();
+        private long items;
+        private long failures;
+
+        Batch(OutputStream output) {
+            this.generator = objectMapper.createGenerator(output);
+        }
+
+        void process(JsonNode item) {
+            ConversionRequest request;
+            try {
+                request = objectMapper.treeToValue(item, ConversionRequest.class);
+            } catch (JacksonException e) {
+                write(error(null, "Malformed request: " + e.getOriginalMessage()));
+                return;
+            }
+
+            Set<ConstraintViolation<ConversionRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                write(error(request, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "))));
+                return;
+            }
+
+            PairRate pairRate = rateFor(request.getFromCurrency(), request.getToCurrency());
+            if (pairRate.failure() == null) {
+                write(currencyService.convert(request, pairRate.rate()));
+            } else {
+                write(error(request, pairRate.failure().getMessage()));
+            }
+        }
+
+        /**
+         * Resolves each distinct pair once per batch. Failures are not remembered, so a
+         * transient one such as an upstream timeout only fails the items that hit it; a
+         * pair that keeps failing is answered in memory or by the open circuit.
+         */
+        private PairRate rateFor(String fromCurrency, String toCurrency) {
+            String pair = fromCurrency + '>' + toCurrency;
+            BigDecimal rate = ratesByPair.get(pair);
+            if (rate == null) {
+                try {
+                    rate = currencyService.getExchangeRate(fromCurrency, toCurrency);
+                } catch (RuntimeException e) {
+                    return new PairRate(null, e);
+                }
+                if (ratesByPair.size() >= MAX_CACHED_PAIRS) {
+                    ratesByPair.clear();
+                }
+                ratesByPair.put(pair, rate);
+            }
+            return new PairRate(rate, null);
+        }
+
+        void write(ConversionResponse response) {
+            items++;
+            if (response.getConvertedAmount() == null) {
+                failures++;
+            }
+            responseWriter.writeValue(generator, response);
+            generator.writeRaw('\n');
+            if (items % FLUSH_EVERY == 0) {
+                generator.flush();
+            }
+        }
+
+        void finish() {
+            generator.flush();
+            log.info("Batch conversion finished: {} items, {} failed, {} distinct pairs",
+                    items, failures, ratesByPair.size());
+        }
+
+        BatchSummary summary() {
+            return new BatchSummary(items, failures, ratesByPair.size(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+        }
+    }
+}
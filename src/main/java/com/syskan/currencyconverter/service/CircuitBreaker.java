@@ -0,0 +1,180 @@
+package com.syskan.currencyconverter.service;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stops calling a failing dependency for a while instead of making every caller wait out
+ * its timeout.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the circuit opens and calls fail at
+ * once with {@link CircuitOpenException}. Once {@code openDuration} has passed a single
+ * probe call is let through: if it succeeds the circuit closes, otherwise it opens again.
+ * Only failures matching the given predicate count; anything else, such as a rejected
+ * request, leaves the state alone.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final Predicate<Throwable> recordFailure;
+    private final LongSupplier ticker;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private final Counter rejected;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration,
+            Predicate<Throwable> recordFailure, MeterRegistry meterRegistry) {
+        this(name, failureThreshold, openDuration, recordFailure, meterRegistry, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration,
+            Predicate<Throwable> recordFailure, MeterRegistry meterRegistry, LongSupplier ticker) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+        this.recordFailure = recordFailure;
+        this.ticker = ticker;
+        Gauge.builder("currency.circuit.state", this, breaker -> breaker.state().ordinal())
+            .description("Circuit state: 0 closed, 1 half-open, 2 open")
+            .tag("name", name)
+            .register(meterRegistry);
+        this.rejected = Counter.builder("currency.circuit.rejected")
+            .description("Calls failed fast because the circuit was open")
+            .tag("name", name)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes to the call if the circuit lets it through and records its outcome.
+     */
+    public <T> Mono<T> protect(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                rejected.increment();
+                return Mono.error(new CircuitOpenException("Circuit '" + name + "' is open"));
+            }
+            return Mono.defer(call)
+                .doOnSuccess(value -> onSuccess())
+                .doOnError(this::onError)
+                .doOnCancel(this::onCancel);
+        });
+    }
+
+    private boolean tryAcquire() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (ticker.getAsLong() - openedAt < openNanos) {
+                        return false;
+                    }
+                    transition(State.HALF_OPEN);
+                    probeInFlight = true;
+                    return true;
+                default:
+                    if (probeInFlight) {
+                        return false;
+                    }
+                    probeInFlight = true;
+                    return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSuccess() {
+        lock.lock();
+        try {
+            consecutiveFailures = 0;
+            if (state == State.HALF_OPEN) {
+                probeInFlight = false;
+                transition(State.CLOSED);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onError(Throwable failure) {
+        if (!recordFailure.test(failure)) {
+            onCancel();
+            return;
+        }
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                probeInFlight = false;
+                open();
+            } else if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+                open();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A probe that ended without a verdict frees the slot for the next caller
+    private void onCancel() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                probeInFlight = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() {
+        openedAt = ticker.getAsLong();
+        consecutiveFailures = 0;
+        transition(State.OPEN);
+    }
+
+    private void transition(State next) {
+        if (state != next) {
+            log.warn("Circuit '{}' {} -> {}", name, state, next);
+            state = next;
+        }
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static class CircuitOpenException extends RuntimeException {
+
+        public CircuitOpenException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.syskan.currencyconverter.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Service;
+
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.rates.CrossRateMatrix;
+import com.syskan.currencyconverter.rates.CurrencyCodes;
+import com.syskan.currencyconverter.rates.CurrencyRegistry;
+import com.syskan.currencyconverter.rates.FixedPointConverter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Converts CSV ledgers of any size in one pass.
+ * <p>
+ * The header must name {@code fromCurrency}, {@code toCurrency} and {@code amount} columns
+ * ({@code from} and {@code to} also work, in any case). Each row is written back as it was,
+ * followed by {@code exchangeRate}, {@code convertedAmount} and {@code error} columns, in
+ * input order. A job converts every row at the rates pinned when it started, so a ledger
+ * gets one consistent set of rates even if new ones arrive while it runs.
+ * <p>
+ * Rows are handed to a fork-join pool in chunks and the writer takes finished chunks in
+ * order. Reading pauses while {@code maxChunksInFlight} chunks are pending, so memory use
+ * is bounded by the chunk settings rather than the file size. Quoted fields may contain
+ * commas and doubled quotes but not line breaks.
+ */
+@Service
+@Slf4j
+public class CsvConversionService {
+
+    private static final String OUTPUT_COLUMNS = ",exchangeRate,convertedAmount,error\n";
+
+    private final CurrencyService currencyService;
+    private final FixedPointConverter converter;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final long progressInterval;
+    private final Counter convertedRows;
+    private final Counter failedRows;
+
+    public CsvConversionService(CurrencyService currencyService, CurrencyProperties properties,
+            MeterRegistry meterRegistry) {
+        CurrencyProperties.Csv config = properties.getCsv();
+        int parallelism = Math.max(1, config.getParallelism());
+        this.currencyService = currencyService;
+        this.converter = new FixedPointConverter(properties.getConversion().getRoundingMode());
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("csv-convert-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.chunkSize = Math.max(1, config.getChunkSize());
+        this.maxChunksInFlight = config.getMaxChunksInFlight() > 0 ? config.getMaxChunksInFlight() : 2 * parallelism;
+        this.progressInterval = Math.max(1, config.getProgressInterval());
+        this.convertedRows = Counter.builder("currency.csv.rows")
+            .description("CSV ledger rows converted")
+            .tag("result", "success")
+            .register(meterRegistry);
+        this.failedRows = Counter.builder("currency.csv.rows")
+            .description("CSV ledger rows converted")
+            .tag("result", "failure")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * The rates a job started now would use, loading them if needed. Resolving them before
+     * any output is written lets callers report a failure cleanly.
+     */
+    public CrossRateMatrix pinRates() {
+        CrossRateMatrix rates = currencyService.getCrossRatesReactive().block();
+        if (rates == null) {
+            throw new IllegalStateException("No exchange rates available");
+        }
+        return rates;
+    }
+
+    public Progress convert(InputStream input, OutputStream output) {
+        return convert(pinRates(), input, output, progress -> log.info("CSV conversion: {} rows, {} failed, {} rows/s",
+                progress.rows(), progress.failures(), progress.rowsPerSecond()));
+    }
+
+    /**
+     * Converts {@code input} into {@code output} at {@code rates}, reporting progress every
+     * {@code progressInterval} rows. Neither stream is closed, but the output is flushed.
+     *
+     * @throws IllegalArgumentException if the header lacks a required column
+     */
+    public Progress convert(CrossRateMatrix rates, InputStream input, OutputStream output,
+            Consumer<Progress> onProgress) {
+        Job job = new Job(rates, onProgress);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        ArrayDeque<ForkJoinTask<Chunk>> pending = new ArrayDeque<>();
+        try {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV input is empty");
+            }
+            Columns columns = Columns.of(header);
+            writer.write(header);
+            writer.write(OUTPUT_COLUMNS);
+
+            List<String> lines = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                lines.add(line);
+                if (lines.size() == chunkSize) {
+                    pending.add(pool.submit(convertChunk(job, columns, lines)));
+                    lines = new ArrayList<>(chunkSize);
+                    if (pending.size() >= maxChunksInFlight) {
+                        job.write(pending.poll().join(), writer);
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                pending.add(pool.submit(convertChunk(job, columns, lines)));
+            }
+            while (!pending.isEmpty()) {
+                job.write(pending.poll().join(), writer);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            pending.forEach(task -> task.cancel(true));
+        }
+
+        Progress done = job.progress();
+        log.info("CSV conversion finished: {} rows, {} failed, {} rows/s, rates version {}",
+                done.rows(), done.failures(), done.rowsPerSecond(), done.snapshotVersion());
+        return done;
+    }
+
+    private Callable<Chunk> convertChunk(Job job, Columns columns, List<String> lines) {
+        return () -> {
+            StringBuilder text = new StringBuilder(lines.size() * 96);
+            int failures = 0;
+            for (String line : lines) {
+                if (!job.convertRow(line, columns, text)) {
+                    failures++;
+                }
+            }
+            return new Chunk(text, lines.size(), failures);
+        };
+    }
+
+    /**
+     * Splits the first {@code count} fields of a CSV line; missing fields are {@code null}.
+     */
+    static String[] fields(String line, int count) {
+        String[] fields = new String[count];
+        int length = line.length();
+        int i = 0;
+        for (int field = 0; field < count && i <= length; field++) {
+            if (i < length && line.charAt(i) == '"') {
+                StringBuilder value = new StringBuilder();
+                i++;
+                while (i < length) {
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        value.append(c);
+                    } else if (i < length && line.charAt(i) == '"') {
+                        value.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                fields[field] = value.toString();
+                int comma = line.indexOf(',', i);
+                i = comma < 0 ? length + 1 : comma + 1;
+            } else {
+                int comma = line.indexOf(',', i);
+                int end = comma < 0 ? length : comma;
+                fields[field] = line.substring(i, end);
+                i = end + 1;
+            }
+        }
+        return fields;
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Totals written so far; {@code snapshotVersion} identifies the rates the job uses.
+     */
+    public record Progress(long rows, long failures, long elapsedMillis, long snapshotVersion) {
+
+        public long rowsPerSecond() {
+            return elapsedMillis == 0 ? rows : rows * 1000 / elapsedMillis;
+        }
+    }
+
+    private record Chunk(StringBuilder text, int rows, int failures) {
+    }
+
+    private record Columns(int from, int to, int amount, int count) {
+
+        static Columns of(String header) {
+            // Enough slots for every field, since quoted names may themselves hold commas
+            String[] names = fields(header, (int) header.chars().filter(c -> c == ',').count() + 1);
+            int from = -1;
+            int to = -1;
+            int amount = -1;
+            for (int i = 0; i < names.length && names[i] != null; i++) {
+                String name = names[i].trim().toLowerCase(Locale.ROOT);
+                switch (name) {
+                    case "fromcurrency", "from" -> from = from < 0 ? i : from;
+                    case "tocurrency", "to" -> to = to < 0 ? i : to;
+                    case "amount" -> amount = amount < 0 ? i : amount;
+                    default -> {
+                    }
+                }
+            }
+            if (from < 0 || to < 0 || amount < 0) {
+                throw new IllegalArgumentException(
+                    "CSV header must name fromCurrency, toCurrency and amount columns: " + header);
+            }
+            return new Columns(from, to, amount, Math.max(from, Math.max(to, amount)) + 1);
+        }
+    }
+
+    /**
+     * One conversion run. Rates are memoized per pair by matrix ordinal; workers may race
+     * to fill a slot, which only repeats an identical lookup.
+     */
+    private final class Job {
+
+        private final CrossRateMatrix rates;
+        private final CurrencyRegistry registry = currencyService.getCurrencyRegistry();
+        private final BigDecimal[] memo;
+        private final Consumer<Progress> onProgress;
+        private final long startedAt = System.nanoTime();
+        private long rows;
+        private long failures;
+        private long nextReport = progressInterval;
+
+        Job(CrossRateMatrix rates, Consumer<Progress> onProgress) {
+            this.rates = rates;
+            this.memo = new BigDecimal[rates.size() * rates.size()];
+            this.onProgress = onProgress;
+        }
+
+        /**
+         * Appends the output line for one input row and returns whether it converted.
+         */
+        boolean convertRow(String line, Columns columns, StringBuilder out) {
+            out.append(line);
+            String[] fields = fields(line, columns.count());
+            String error;
+            try {
+                String from = currencyCode(fields[columns.from()]);
+                String to = currencyCode(fields[columns.to()]);
+                BigDecimal amount = amount(fields[columns.amount()]);
+                BigDecimal rate = rate(from, to);
+                BigDecimal converted = converter.convert(amount, rate, to);
+                out.append(',').append(rate.toPlainString())
+                    .append(',').append(converted.toPlainString())
+                    .append(",\n");
+                return true;
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                error = e.getMessage();
+            }
+            out.append(",,,").append(quote("Error: " + error)).append('\n');
+            return false;
+        }
+
+        private BigDecimal rate(String from, String to) {
+            int fromOrdinal = rates.ordinal(from);
+            int toOrdinal = rates.ordinal(to);
+            if (fromOrdinal < 0 || toOrdinal < 0) {
+                throw new IllegalArgumentException(
+                    "Exchange rate not found for currency: " + (fromOrdinal < 0 ? from : to));
+            }
+            int slot = fromOrdinal * rates.size() + toOrdinal;
+            BigDecimal rate = memo[slot];
+            if (rate == null) {
+                rate = rates.rate(from, to);
+                memo[slot] = rate;
+            }
+            return rate;
+        }
+
+        private String currencyCode(String value) {
+            if (value == null) {
+                throw new IllegalArgumentException("Missing currency code");
+            }
+            String code = value.trim().toUpperCase(Locale.ROOT);
+            if (!CurrencyCodes.isWellFormed(code)) {
+                throw new IllegalArgumentException("Invalid currency code: " + value);
+            }
+            if (!registry.isSupported(code)) {
+                throw new IllegalArgumentException("Exchange rate not found for currency: " + code);
+            }
+            // Supported codes are already registered, so this only swaps in the shared instance
+            return CurrencyCodes.intern(code);
+        }
+
+        private static BigDecimal amount(String value) {
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException("Amount is required");
+            }
+            BigDecimal amount;
+            try {
+                amount = new BigDecimal(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid amount: " + value);
+            }
+            if (amount.signum() <= 0) {
+                throw new IllegalArgumentException("Amount must be positive");
+            }
+            return amount;
+        }
+
+        // Only the writing thread calls this
+        void write(Chunk chunk, Writer writer) throws IOException {
+            writer.append(chunk.text());
+            rows += chunk.rows();
+            failures += chunk.failures();
+            convertedRows.increment(chunk.rows() - chunk.failures());
+            failedRows.increment(chunk.failures());
+            if (rows >= nextReport) {
+                nextReport = (rows / progressInterval + 1) * progressInterval;
+                onProgress.accept(progress());
+            }
+        }
+
+        Progress progress() {
+            return new Progress(rows, failures, (System.nanoTime() - startedAt) / 1_000_000,
+                rates.snapshot().version());
+        }
+    }
+}
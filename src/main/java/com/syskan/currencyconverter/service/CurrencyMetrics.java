@@ -0,0 +1,135 @@
+package com.syskan.currencyconverter.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Meters for upstream fetches and conversions.
+ * <p>
+ * Currency codes come from requests, so every tag built from one is bounded: the first
+ * {@code maxTaggedBases} bases and {@code maxTaggedPairs} pairs seen get their own series
+ * and the rest share {@value #OTHER}. Pair counters are cached per code so counting a
+ * conversion is two map reads and an increment.
+ */
+public class CurrencyMetrics {
+
+    static final String OTHER = "other";
+
+    private final MeterRegistry registry;
+    private final int maxTaggedBases;
+    private final int maxTaggedPairs;
+
+    private final Map<String, String> taggedBases = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Counter>> conversionsByPair = new ConcurrentHashMap<>();
+    private final AtomicLong taggedPairs = new AtomicLong();
+    private final Counter otherConversions;
+    private final Counter failedConversions;
+
+    public CurrencyMetrics(MeterRegistry registry, int maxTaggedBases, int maxTaggedPairs) {
+        this.registry = registry;
+        this.maxTaggedBases = maxTaggedBases;
+        this.maxTaggedPairs = maxTaggedPairs;
+        this.otherConversions = conversionCounter(OTHER, OTHER);
+        this.failedConversions = Counter.builder("currency.conversions.failed")
+            .description("Conversions that could not be completed")
+            .register(registry);
+    }
+
+    /**
+     * Times a fetch from subscription to completion, tagged by base and outcome
+     * ({@code success}, {@code timeout} or {@code error}).
+     */
+    public <T> Mono<T> timeFetch(String baseCurrency, Mono<T> fetch) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return fetch
+                .doOnSuccess(value -> recordFetch(baseCurrency, "success", start))
+                .doOnError(failure -> recordFetch(baseCurrency,
+                    failure instanceof TimeoutException ? "timeout" : "error", start));
+        });
+    }
+
+    private void recordFetch(String baseCurrency, String outcome, long start) {
+        Timer.builder("currency.upstream.fetch")
+            .description("Upstream rate table fetches")
+            .tag("base", boundedBase(baseCurrency))
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts the bytes of every upstream response body as it streams through.
+     */
+    public static ExchangeFilterFunction payloadSizeFilter(MeterRegistry registry) {
+        DistributionSummary payloadSize = DistributionSummary.builder("currency.upstream.payload")
+            .description("Size of upstream rate table responses")
+            .baseUnit("bytes")
+            .register(registry);
+        return (request, next) -> next.exchange(request).map(response -> {
+            AtomicLong bytes = new AtomicLong();
+            return response.mutate()
+                .body(body -> body
+                    .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                    .doOnComplete(() -> payloadSize.record(bytes.get())))
+                .build();
+        });
+    }
+
+    public void conversionSucceeded(String fromCurrency, String toCurrency) {
+        Map<String, Counter> byTarget = conversionsByPair.get(fromCurrency);
+        Counter counter = byTarget == null ? null : byTarget.get(toCurrency);
+        if (counter == null) {
+            counter = registerPair(fromCurrency, toCurrency);
+        }
+        counter.increment();
+    }
+
+    public void conversionFailed() {
+        failedConversions.increment();
+    }
+
+    private Counter registerPair(String fromCurrency, String toCurrency) {
+        if (fromCurrency == null || toCurrency == null || taggedPairs.get() >= maxTaggedPairs) {
+            return otherConversions;
+        }
+        Map<String, Counter> byTarget = conversionsByPair.computeIfAbsent(fromCurrency, from -> new ConcurrentHashMap<>());
+        return byTarget.computeIfAbsent(toCurrency, to -> {
+            if (taggedPairs.incrementAndGet() > maxTaggedPairs) {
+                return otherConversions;
+            }
+            return conversionCounter(fromCurrency, toCurrency);
+        });
+    }
+
+    private Counter conversionCounter(String fromCurrency, String toCurrency) {
+        return Counter.builder("currency.conversions")
+            .description("Completed conversions by currency pair")
+            .tag("from", fromCurrency)
+            .tag("to", toCurrency)
+            .register(registry);
+    }
+
+    private String boundedBase(String baseCurrency) {
+        String tagged = taggedBases.get(baseCurrency);
+        if (tagged != null) {
+            return tagged;
+        }
+        if (taggedBases.size() >= maxTaggedBases) {
+            return OTHER;
+        }
+        return taggedBases.computeIfAbsent(baseCurrency, base -> base);
+    }
+}
@@ -1,35 +1,119 @@
 package com.syskan.currencyconverter.service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.syskan.currencyconverter.cache.RateCache;
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.cache.SharedSnapshotStore;
+import com.syskan.currencyconverter.config.CurrencyProperties;
 import com.syskan.currencyconverter.dto.ConversionRequest;
 import com.syskan.currencyconverter.dto.ConversionResponse;
 import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+import com.syskan.currencyconverter.provider.RateProvider;
+import com.syskan.currencyconverter.rates.CrossRateEngine;
+import com.syskan.currencyconverter.rates.CrossRateMatrix;
+import com.syskan.currencyconverter.rates.CurrencyRegistry;
+import com.syskan.currencyconverter.rates.FixedPointConverter;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 
 @Service
 @Slf4j
 public class CurrencyService {
 
-    private final WebClient webClient;
-    
-    @Value("${currency.api.base-url}")
-    private String baseUrl;
-    
-    @Value("${currency.api.timeout}")
-    private int timeout;
+    private final RateProvider rateProvider;
+    private final RateCache rateCache;
+    private final UpstreamLimiter upstreamLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final SharedSnapshotStore sharedStore;
+    private final RateHistoryService rateHistory;
+    private final Duration cacheTtl;
+    private final CrossRateEngine crossRates;
+    private final CurrencyRegistry currencyRegistry;
+    private final FixedPointConverter converter;
+    private final CurrencyMetrics metrics;
+    private final RenderedRateTables renderedRates;
+    private final AccessFrequencies accessFrequencies;
+    private final boolean triangulate;
 
-    public CurrencyService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.build();
+    public CurrencyService(RateProvider rateProvider, CurrencyProperties properties,
+            SharedSnapshotStore sharedStore, RateHistoryService rateHistory, MeterRegistry meterRegistry) {
+        this.metrics = new CurrencyMetrics(meterRegistry, properties.getMetrics().getMaxTaggedBases(),
+            properties.getMetrics().getMaxTaggedPairs());
+        this.rateProvider = rateProvider;
+        this.upstreamLimiter = new UpstreamLimiter(properties.getUpstream().getMaxConcurrency(),
+            properties.getUpstream().getMaxWaiting(), meterRegistry);
+        this.circuitBreaker = new CircuitBreaker("rate-provider", properties.getUpstream().getFailureThreshold(),
+            properties.getUpstream().getOpenDuration(), CurrencyService::isProviderFailure, meterRegistry);
+        this.sharedStore = sharedStore;
+        this.rateHistory = rateHistory;
+        this.cacheTtl = properties.getCache().getTtl();
+        this.rateCache = new RateCache(this::loadExchangeRates, properties.getCache(), meterRegistry);
+        this.crossRates = new CrossRateEngine(properties.getRates().getAnchor());
+        this.currencyRegistry = new CurrencyRegistry(properties.getRates().getAnchor());
+        this.triangulate = properties.getRates().isTriangulate();
+        this.converter = new FixedPointConverter(properties.getConversion().getRoundingMode());
+        this.renderedRates = new RenderedRateTables(this::renderedBases, this::getAllRates, meterRegistry);
+        this.accessFrequencies = new AccessFrequencies(properties.getPrefetch().getSketchSize());
+        rateCache.addListener(crossRates);
+        rateCache.addListener(currencyRegistry);
+        rateCache.addListener(renderedRates);
+
+        TimeGauge.builder("currency.snapshot.age", this, TimeUnit.MILLISECONDS, CurrencyService::anchorSnapshotAgeMillis)
+            .description("Age of the anchor rate snapshot held by this node")
+            .tag("base", crossRates.anchor())
+            .register(meterRegistry);
+        Gauge.builder("currency.supported", currencyRegistry, CurrencyRegistry::supportedCount)
+            .description("Currencies the current anchor snapshot can convert")
+            .register(meterRegistry);
+    }
+
+    private double anchorSnapshotAgeMillis() {
+        RateSnapshot snapshot = rateCache.peek(crossRates.anchor());
+        return snapshot == null ? Double.NaN : snapshot.age().toMillis();
+    }
+
+    /**
+     * Timeouts, connection errors and 5xx responses mean the provider is unhealthy; a 4xx
+     * for one base or a call our own limiter rejected says nothing about it.
+     */
+    private static boolean isProviderFailure(Throwable failure) {
+        if (failure instanceof UpstreamLimiter.UpstreamRejectedException) {
+            return false;
+        }
+        return !(failure instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError());
+    }
+
+    private Iterable<String> renderedBases(RateSnapshot snapshot) {
+        if (!triangulate) {
+            return List.of(snapshot.base());
+        }
+        CrossRateMatrix matrix = crossRates.current();
+        if (matrix == null || matrix.snapshot() != snapshot) {
+            return List.of();
+        }
+        return Arrays.asList(matrix.currencies());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rateCache.close();
+        renderedRates.close();
     }
 
     public ConversionResponse convertCurrency(ConversionRequest request) {
@@ -37,63 +121,330 @@ public class CurrencyService {
                 request.getAmount(), request.getFromCurrency(), request.getToCurrency());
 
         try {
-            ExchangeRateResponse rateResponse = fetchExchangeRates(request.getFromCurrency());
-            
-            BigDecimal rate = rateResponse.getRates().get(request.getToCurrency());
-            if (rate == null) {
-                throw new IllegalArgumentException(
-                    "Exchange rate not found for currency: " + request.getToCurrency());
-            }
-
-            BigDecimal convertedAmount = request.getAmount()
-                .multiply(rate)
-                .setScale(2, RoundingMode.HALF_UP);
+            Quote quote = quote(request.getFromCurrency(), request.getToCurrency());
+            ConversionResponse response = convert(request, quote);
 
             log.info("Conversion successful: {} {} = {} {}", 
                     request.getAmount(), request.getFromCurrency(),
-                    convertedAmount, request.getToCurrency());
-
-            return ConversionResponse.builder()
-                .fromCurrency(request.getFromCurrency())
-                .toCurrency(request.getToCurrency())
-                .amount(request.getAmount())
-                .convertedAmount(convertedAmount)
-                .exchangeRate(rate)
-                .timestamp(LocalDateTime.now())
-                .message("Conversion successful")
-                .build();
+                    response.getConvertedAmount(), request.getToCurrency());
+
+            return response;
 
         } catch (Exception e) {
             log.error("Error converting currency", e);
+            metrics.conversionFailed();
             throw new RuntimeException("Failed to convert currency: " + e.getMessage(), e);
         }
     }
 
-    private ExchangeRateResponse fetchExchangeRates(String baseCurrency) {
-        String url = baseUrl + "/" + baseCurrency;
-        
-        log.debug("Fetching exchange rates from: {}", url);
-        
-        return webClient.get()
-            .uri(url)
-            .retrieve()
-            .bodyToMono(ExchangeRateResponse.class)
-            .timeout(Duration.ofMillis(timeout))
-            .block();
+    /**
+     * Rate for converting one unit of {@code fromCurrency} into {@code toCurrency}.
+     *
+     * @throws IllegalArgumentException if either currency is not quoted
+     */
+    public BigDecimal getExchangeRate(String fromCurrency, String toCurrency) {
+        return quote(fromCurrency, toCurrency).rate();
+    }
+
+    private Quote quote(String fromCurrency, String toCurrency) {
+        accessFrequencies.recordPair(fromCurrency, toCurrency);
+        Quote quote = lookupQuote(fromCurrency, toCurrency);
+        if (quote.rate() == null) {
+            throw new IllegalArgumentException(
+                "Exchange rate not found for currency: " + toCurrency);
+        }
+        return quote;
+    }
+
+    /**
+     * Applies an already resolved rate to a request without any further lookups or logging.
+     * The result has the target currency's minor-unit scale.
+     */
+    public ConversionResponse convert(ConversionRequest request, BigDecimal rate) {
+        BigDecimal convertedAmount = converter.convert(request.getAmount(), rate, request.getToCurrency());
+        metrics.conversionSucceeded(request.getFromCurrency(), request.getToCurrency());
+
+        return ConversionResponse.builder()
+            .fromCurrency(request.getFromCurrency())
+            .toCurrency(request.getToCurrency())
+            .amount(request.getAmount())
+            .convertedAmount(convertedAmount)
+            .exchangeRate(rate)
+            .timestamp(LocalDateTime.now())
+            .message("Conversion successful")
+            .build();
+    }
+
+    private ConversionResponse convert(ConversionRequest request, Quote quote) {
+        ConversionResponse response = convert(request, quote.rate());
+        Duration age = quote.snapshot().age();
+        response.setRatesAgeSeconds(age.toSeconds());
+        response.setStale(age.compareTo(cacheTtl) >= 0);
+        return response;
+    }
+
+    private Quote lookupQuote(String fromCurrency, String toCurrency) {
+        if (triangulate) {
+            return quote(currentMatrix(), fromCurrency, toCurrency);
+        }
+        return quote(rateCache.getSnapshot(fromCurrency), toCurrency);
+    }
+
+    private static Quote quote(CrossRateMatrix matrix, String fromCurrency, String toCurrency) {
+        return new Quote(crossRate(matrix, fromCurrency, toCurrency), matrix.snapshot());
+    }
+
+    private static Quote quote(RateSnapshot snapshot, String toCurrency) {
+        return new Quote(snapshot.rates().getRates().get(toCurrency), snapshot);
+    }
+
+    private static BigDecimal crossRate(CrossRateMatrix matrix, String fromCurrency, String toCurrency) {
+        if (!matrix.contains(fromCurrency)) {
+            throw new IllegalArgumentException(
+                "Exchange rate not found for currency: " + fromCurrency);
+        }
+        return matrix.rate(fromCurrency, toCurrency);
+    }
+
+    /**
+     * Ensures the anchor snapshot is loaded and fresh, then returns the matrix built from it.
+     */
+    private CrossRateMatrix currentMatrix() {
+        return matrixFor(rateCache.getSnapshot(crossRates.anchor()));
+    }
+
+    private Mono<CrossRateMatrix> currentMatrixReactive() {
+        return Mono.fromFuture(() -> rateCache.getSnapshotAsync(crossRates.anchor())).map(this::matrixFor);
+    }
+
+    private CrossRateMatrix matrixFor(RateSnapshot anchorSnapshot) {
+        CrossRateMatrix matrix = crossRates.current();
+        if (matrix == null) {
+            crossRates.install(anchorSnapshot);
+            matrix = crossRates.current();
+        }
+        return matrix;
+    }
+
+    /**
+     * Local cache miss: take the snapshot another node already shared if it is still within
+     * the TTL, otherwise fetch from upstream and share the result.
+     */
+    private CompletableFuture<RateSnapshot> loadExchangeRates(String baseCurrency) {
+        return sharedStore.get(baseCurrency)
+            .filter(snapshot -> snapshot.age().compareTo(cacheTtl) < 0)
+            .doOnNext(snapshot -> log.debug("Loaded {} rates from the shared cache (version {})",
+                    baseCurrency, snapshot.version()))
+            .switchIfEmpty(Mono.defer(() -> fetchSnapshot(baseCurrency)
+                .flatMap(snapshot -> sharedStore.put(snapshot, cacheTtl).thenReturn(snapshot))))
+            .toFuture();
+    }
+
+    /**
+     * Fetches a new snapshot from upstream, bypassing both cache tiers. Only snapshots
+     * fetched here are recorded in rate history, so a snapshot shared between nodes is
+     * recorded once.
+     */
+    public Mono<RateSnapshot> fetchSnapshot(String baseCurrency) {
+        return fetchExchangeRates(baseCurrency)
+            .map(rates -> RateSnapshot.fetched(baseCurrency, rates))
+            .doOnNext(rateHistory::record);
+    }
+
+    // Timed inside the breaker: calls it fails fast are counted by currency.circuit.rejected
+    // and would only drag the fetch latencies towards zero
+    private Mono<ExchangeRateResponse> fetchExchangeRates(String baseCurrency) {
+        return circuitBreaker.protect(() -> metrics.timeFetch(baseCurrency, upstreamLimiter.limit(
+                () -> rateProvider.fetch(baseCurrency))
+            .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                "Empty exchange rate response for " + baseCurrency)))));
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public RateCache getRateCache() {
+        return rateCache;
     }
 
     public Map<String, BigDecimal> getAllRates(String baseCurrency) {
-        ExchangeRateResponse response = fetchExchangeRates(baseCurrency);
+        accessFrequencies.recordBase(baseCurrency);
+        if (triangulate) {
+            return ratesFor(currentMatrix(), baseCurrency);
+        }
+        ExchangeRateResponse response = rateCache.get(baseCurrency);
         return response.getRates();
     }
 
+    /**
+     * The snapshot that rates for {@code baseCurrency} are currently served from: the
+     * anchor snapshot when triangulating, otherwise the base's own.
+     */
+    public RateSnapshot getRatesSnapshot(String baseCurrency) {
+        accessFrequencies.recordBase(baseCurrency);
+        if (triangulate) {
+            return currentMatrix().snapshot();
+        }
+        return rateCache.getSnapshot(baseCurrency);
+    }
+
+    /**
+     * Rates for {@code baseCurrency} taken from a snapshot returned by
+     * {@link #getRatesSnapshot}, so they match that snapshot's version even if a newer one
+     * was installed since.
+     */
+    public Map<String, BigDecimal> getAllRates(String baseCurrency, RateSnapshot snapshot) {
+        if (triangulate) {
+            return ratesFor(getCrossRates(snapshot), baseCurrency);
+        }
+        return snapshot.rates().getRates();
+    }
+
+    /**
+     * The cross-rate matrix for a snapshot, sharing the installed matrix when it was built
+     * from that same snapshot.
+     */
+    public CrossRateMatrix getCrossRates(RateSnapshot snapshot) {
+        CrossRateMatrix matrix = crossRates.current();
+        return matrix != null && matrix.snapshot() == snapshot ? matrix : CrossRateMatrix.from(snapshot);
+    }
+
+    /**
+     * The matrix derived from the current anchor snapshot, loading it if needed, whatever
+     * the triangulation setting.
+     */
+    public Mono<CrossRateMatrix> getCrossRatesReactive() {
+        return currentMatrixReactive();
+    }
+
+    public String getAnchorCurrency() {
+        return crossRates.anchor();
+    }
+
+    /**
+     * The base whose cached snapshot serves requests for {@code baseCurrency}: the anchor
+     * when triangulating, otherwise the base itself.
+     */
+    public String snapshotBaseFor(String baseCurrency) {
+        return triangulate ? crossRates.anchor() : baseCurrency;
+    }
+
+    public AccessFrequencies getAccessFrequencies() {
+        return accessFrequencies;
+    }
+
+    /**
+     * Rates for {@code baseCurrency} from a snapshot returned by {@link #getRatesSnapshot},
+     * already serialized; rendered once per base and snapshot version.
+     */
+    public RenderedRates getRenderedRates(String baseCurrency, RateSnapshot snapshot) {
+        return renderedRates.get(baseCurrency, snapshot);
+    }
+
+    /**
+     * How much longer a snapshot is served before it is reloaded; zero once it is stale.
+     */
+    public Duration freshFor(RateSnapshot snapshot) {
+        Duration remaining = cacheTtl.minus(snapshot.age());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private static Map<String, BigDecimal> ratesFor(CrossRateMatrix matrix, String baseCurrency) {
+        Map<String, BigDecimal> rates = matrix.ratesFor(baseCurrency);
+        if (rates == null) {
+            throw new IllegalArgumentException("Unsupported base currency: " + baseCurrency);
+        }
+        return rates;
+    }
+
+    /**
+     * Answered in memory from the {@link CurrencyRegistry}; only the first call on a node
+     * may have to load the anchor snapshot.
+     */
     public boolean isCurrencySupported(String currencyCode) {
-        try {
-            Map<String, BigDecimal> rates = getAllRates("USD");
-            return rates.containsKey(currencyCode) || currencyCode.equals("USD");
-        } catch (Exception e) {
-            log.error("Error checking currency support", e);
-            return false;
+        if (!currencyRegistry.isLoaded()) {
+            try {
+                currencyRegistry.install(rateCache.getSnapshot(crossRates.anchor()));
+            } catch (Exception e) {
+                log.error("Error checking currency support", e);
+                return false;
+            }
         }
+        return currencyRegistry.isSupported(currencyCode);
+    }
+
+    public CurrencyRegistry getCurrencyRegistry() {
+        return currencyRegistry;
+    }
+
+    // Non-blocking variants: a cache miss parks no thread while the upstream fetch is in flight
+
+    public Mono<ConversionResponse> convertCurrencyReactive(ConversionRequest request) {
+        log.info("Converting {} {} to {}", 
+                request.getAmount(), request.getFromCurrency(), request.getToCurrency());
+
+        return quoteReactive(request.getFromCurrency(), request.getToCurrency())
+            .map(quote -> convert(request, quote))
+            .doOnNext(response -> log.info("Conversion successful: {} {} = {} {}",
+                    request.getAmount(), request.getFromCurrency(),
+                    response.getConvertedAmount(), request.getToCurrency()))
+            .onErrorMap(e -> {
+                log.error("Error converting currency", e);
+                metrics.conversionFailed();
+                return new RuntimeException("Failed to convert currency: " + e.getMessage(), e);
+            });
+    }
+
+    public Mono<BigDecimal> getExchangeRateReactive(String fromCurrency, String toCurrency) {
+        return quoteReactive(fromCurrency, toCurrency).map(Quote::rate);
+    }
+
+    private Mono<Quote> quoteReactive(String fromCurrency, String toCurrency) {
+        accessFrequencies.recordPair(fromCurrency, toCurrency);
+        Mono<Quote> quote = triangulate
+            ? currentMatrixReactive().map(matrix -> quote(matrix, fromCurrency, toCurrency))
+            : Mono.fromFuture(() -> rateCache.getSnapshotAsync(fromCurrency))
+                .map(snapshot -> quote(snapshot, toCurrency));
+        return quote.filter(found -> found.rate() != null)
+            .switchIfEmpty(Mono.error(() -> new IllegalArgumentException(
+                "Exchange rate not found for currency: " + toCurrency)));
+    }
+
+    public Mono<Map<String, BigDecimal>> getAllRatesReactive(String baseCurrency) {
+        accessFrequencies.recordBase(baseCurrency);
+        if (triangulate) {
+            return currentMatrixReactive().map(matrix -> ratesFor(matrix, baseCurrency));
+        }
+        return Mono.fromFuture(() -> rateCache.getAsync(baseCurrency)).map(ExchangeRateResponse::getRates);
+    }
+
+    public Mono<RateSnapshot> getRatesSnapshotReactive(String baseCurrency) {
+        accessFrequencies.recordBase(baseCurrency);
+        if (triangulate) {
+            return currentMatrixReactive().map(CrossRateMatrix::snapshot);
+        }
+        return Mono.fromFuture(() -> rateCache.getSnapshotAsync(baseCurrency));
+    }
+
+    public Mono<Boolean> isCurrencySupportedReactive(String currencyCode) {
+        if (currencyRegistry.isLoaded()) {
+            return Mono.just(currencyRegistry.isSupported(currencyCode));
+        }
+        return Mono.fromFuture(() -> rateCache.getSnapshotAsync(crossRates.anchor()))
+            .map(snapshot -> {
+                currencyRegistry.install(snapshot);
+                return currencyRegistry.isSupported(currencyCode);
+            })
+            .onErrorResume(e -> {
+                log.error("Error checking currency support", e);
+                return Mono.just(false);
+            });
+    }
+
+    /**
+     * A resolved rate together with the snapshot it was taken from.
+     */
+    private record Quote(BigDecimal rate, RateSnapshot snapshot) {
     }
 }
@@ -0,0 +1,161 @@
+package com.syskan.currencyconverter.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.syskan.currencyconverter.cache.RateCache;
+import com.syskan.currencyconverter.config.CurrencyProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the most requested bases warm instead of every base that was read.
+ * <p>
+ * Every interval the bases in {@link AccessFrequencies} are ranked, each of the top
+ * {@code k} is mapped to the base whose snapshot serves it, and those snapshots are
+ * prefetched if they are missing or about to expire, hottest first and at most
+ * {@code budget} per round. While running, the cache no longer reloads bases just because
+ * they were read, so cold bases expire and cost no upstream quota. When triangulating,
+ * every base is served from the anchor snapshot, so that is the only base kept warm.
+ */
+@Component
+@ConditionalOnProperty(name = "currency.prefetch.enabled", havingValue = "true")
+@Slf4j
+public class HotBasePrefetcher implements SmartLifecycle {
+
+    private final CurrencyService currencyService;
+    private final AccessFrequencies frequencies;
+    private final RateCache rateCache;
+    private final int topK;
+    private final Duration interval;
+    private final int budget;
+
+    private final Counter started;
+    private final Counter deferred;
+
+    private volatile Round lastRound;
+    private ScheduledExecutorService scheduler;
+
+    public HotBasePrefetcher(CurrencyService currencyService, CurrencyProperties properties,
+            MeterRegistry meterRegistry) {
+        this.currencyService = currencyService;
+        this.frequencies = currencyService.getAccessFrequencies();
+        this.rateCache = currencyService.getRateCache();
+        this.topK = properties.getPrefetch().getTopK();
+        this.interval = properties.getPrefetch().getInterval();
+        this.budget = properties.getPrefetch().getBudget();
+
+        if (interval.compareTo(properties.getCache().getRefreshAhead()) >= 0) {
+            log.warn("currency.prefetch.interval {} is not below currency.cache.refresh-ahead; "
+                    + "hot bases may expire between prefetch rounds", interval);
+        }
+
+        this.started = Counter.builder("currency.prefetch.loads")
+            .description("Snapshots for hot bases the prefetcher loaded, or left for a later round over budget")
+            .tag("result", "started")
+            .register(meterRegistry);
+        this.deferred = Counter.builder("currency.prefetch.loads")
+            .description("Snapshots for hot bases the prefetcher loaded, or left for a later round over budget")
+            .tag("result", "deferred")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        rateCache.setRefreshOnAccess(false);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::safePrefetch, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        log.info("Keeping the {} most requested bases warm (every {}, up to {} loads a round)", topK, interval,
+                budget);
+    }
+
+    private void safePrefetch() {
+        try {
+            prefetch();
+        } catch (RuntimeException e) {
+            log.warn("Prefetch round failed", e);
+        }
+    }
+
+    /**
+     * Ranks the bases and prefetches the hottest ones that are due, within the budget.
+     */
+    Round prefetch() {
+        List<AccessFrequencies.Ranked> hotBases = frequencies.topBases(topK);
+        Set<String> keepWarm = new LinkedHashSet<>();
+        for (AccessFrequencies.Ranked base : hotBases) {
+            keepWarm.add(currencyService.snapshotBaseFor(base.key()));
+        }
+
+        List<String> loaded = new ArrayList<>();
+        List<String> overBudget = new ArrayList<>();
+        for (String base : keepWarm) {
+            if (!rateCache.isDueForPrefetch(base)) {
+                continue;
+            }
+            if (loaded.size() >= budget) {
+                overBudget.add(base);
+            } else if (rateCache.prefetch(base)) {
+                loaded.add(base);
+            }
+        }
+        started.increment(loaded.size());
+        deferred.increment(overBudget.size());
+        if (!loaded.isEmpty()) {
+            log.debug("Prefetched {}; over budget {}", loaded, overBudget);
+        }
+
+        Round round = new Round(Instant.now(), hotBases, frequencies.topPairs(topK, hotBases),
+            List.copyOf(keepWarm), loaded, overBudget, budget, interval);
+        lastRound = round;
+        return round;
+    }
+
+    /**
+     * The outcome of the latest prefetch round, or {@code null} before the first.
+     */
+    public Round lastRound() {
+        return lastRound;
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        rateCache.setRefreshOnAccess(true);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * @param keepWarm the bases whose snapshots serve the hot bases, hottest first
+     * @param prefetched the bases this round started a load for
+     * @param deferred due bases left for a later round because the budget was spent
+     */
+    public record Round(Instant at, List<AccessFrequencies.Ranked> hotBases, List<AccessFrequencies.Ranked> hotPairs,
+            List<String> keepWarm, List<String> prefetched, List<String> deferred, int budget, Duration interval) {
+    }
+}
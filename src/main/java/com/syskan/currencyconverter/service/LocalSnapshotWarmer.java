@@ -0,0 +1,106 @@
+package com.syskan.currencyconverter.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.syskan.currencyconverter.cache.RateCache;
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.cache.RateUpdateListener;
+import com.syskan.currencyconverter.cache.SnapshotFile;
+import com.syskan.currencyconverter.config.CurrencyProperties;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the latest anchor snapshot in a {@link SnapshotFile} and restores it on startup.
+ * <p>
+ * The file is read once all singletons exist, which is before the web server starts, and
+ * installed with {@link RateCache#putWarm}, so the first requests are answered from it
+ * while a background reload fetches current rates. Files older than the configured max
+ * age, for another anchor, or that fail their checksum are ignored. Only the anchor is
+ * persisted; every other base is derived from it.
+ */
+@Component
+@ConditionalOnProperty(name = "currency.cache.local.enabled", havingValue = "true")
+@Slf4j
+public class LocalSnapshotWarmer implements RateUpdateListener, SmartInitializingSingleton {
+
+    private final CurrencyService currencyService;
+    private final Path path;
+    private final Duration maxAge;
+    private final ExecutorService writer;
+
+    public LocalSnapshotWarmer(CurrencyService currencyService, CurrencyProperties properties) {
+        this.currencyService = currencyService;
+        this.path = properties.getCache().getLocal().getPath();
+        this.maxAge = properties.getCache().getLocal().getMaxAge();
+        // Only the newest snapshot is worth writing; anything still queued is superseded
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(1), r -> {
+            Thread thread = new Thread(r, "rate-snapshot-file");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        RateCache rateCache = currencyService.getRateCache();
+        RateSnapshot snapshot = restore();
+        if (snapshot != null && rateCache.putWarm(snapshot)) {
+            log.info("Warm-started {} rates from {} (version {}, {}s old)", snapshot.base(), path,
+                    snapshot.version(), snapshot.age().toSeconds());
+        }
+        rateCache.addListener(this);
+    }
+
+    private RateSnapshot restore() {
+        RateSnapshot snapshot;
+        try {
+            snapshot = SnapshotFile.read(path);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring unreadable rate snapshot file {}: {}", path, e.getMessage());
+            return null;
+        }
+        if (snapshot == null) {
+            return null;
+        }
+        if (!snapshot.base().equals(currencyService.getAnchorCurrency())) {
+            log.info("Ignoring rate snapshot file {} for base {}", path, snapshot.base());
+            return null;
+        }
+        if (snapshot.age().compareTo(maxAge) > 0) {
+            log.info("Ignoring rate snapshot file {}: {}s old", path, snapshot.age().toSeconds());
+            return null;
+        }
+        return snapshot;
+    }
+
+    @Override
+    public void onRatesLoaded(String baseCurrency, RateSnapshot snapshot) {
+        if (!baseCurrency.equals(currencyService.getAnchorCurrency())) {
+            return;
+        }
+        writer.execute(() -> {
+            try {
+                SnapshotFile.write(path, snapshot);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not write rate snapshot file {}: {}", path, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+}
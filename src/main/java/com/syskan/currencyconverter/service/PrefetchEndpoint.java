@@ -0,0 +1,34 @@
+package com.syskan.currencyconverter.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/prefetch}: the bases and pairs the prefetcher currently ranks hottest,
+ * and what its latest round loaded or deferred.
+ */
+@Component
+@Endpoint(id = "prefetch")
+@ConditionalOnProperty(name = "currency.prefetch.enabled", havingValue = "true")
+public class PrefetchEndpoint {
+
+    private final HotBasePrefetcher prefetcher;
+
+    public PrefetchEndpoint(HotBasePrefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+    }
+
+    @ReadOperation
+    public Map<String, Object> prefetch() {
+        HotBasePrefetcher.Round round = prefetcher.lastRound();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("running", prefetcher.isRunning());
+        body.put("lastRound", round);
+        return body;
+    }
+}
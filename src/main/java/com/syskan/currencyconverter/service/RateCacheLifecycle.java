@@ -0,0 +1,47 @@
+package com.syskan.currencyconverter.service;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.syskan.currencyconverter.cache.RateCache;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pauses background rate refreshes while the context is stopped and resumes them when it
+ * starts again. Spring stops and restarts the context around a CRaC checkpoint, so after a
+ * restore every cached snapshot is re-aged by the wall clock and reloaded instead of being
+ * trusted for however long the image sat on disk. Runs in the last phase: it stops before,
+ * and starts after, the HTTP client connector it refreshes through.
+ */
+@Component
+@Slf4j
+public class RateCacheLifecycle implements SmartLifecycle {
+
+    private final RateCache rateCache;
+    private volatile boolean running;
+
+    public RateCacheLifecycle(CurrencyService currencyService) {
+        this.rateCache = currencyService.getRateCache();
+    }
+
+    @Override
+    public void start() {
+        if (rateCache.size() > 0) {
+            log.info("Reloading {} cached rate tables after start", rateCache.size());
+        }
+        rateCache.resume();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        rateCache.pause();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,224 @@
+package com.syskan.currencyconverter.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.model.RateHistory;
+import com.syskan.currencyconverter.repository.RateHistoryRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps every snapshot fetched from upstream as {@link RateHistory} rows and answers
+ * "what was the rate at" queries.
+ * <p>
+ * {@link #record} only enqueues, so the fetch path never waits on the database. A
+ * background writer drains the queue with JDBC batch inserts; if the database falls so
+ * far behind that the queue fills up, snapshots are dropped and counted instead.
+ */
+@Service
+@Slf4j
+public class RateHistoryService {
+
+    private static final String INSERT_SQL = "INSERT INTO rate_history "
+        + "(base_currency, quote_currency, rate, effective_at, snapshot_version) VALUES (?, ?, ?, ?, ?)";
+
+    private static final MathContext RATE_CONTEXT = new MathContext(10, RoundingMode.HALF_EVEN);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RateHistoryRepository repository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final String anchor;
+    private final BlockingQueue<RateSnapshot> pending;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ScheduledExecutorService writer;
+
+    private final Counter rowsWritten;
+    private final Counter snapshotsDropped;
+    private final Counter writeFailures;
+    private final Timer writeTime;
+
+    public RateHistoryService(JdbcTemplate jdbcTemplate, RateHistoryRepository repository,
+            CurrencyProperties properties, MeterRegistry meterRegistry) {
+        CurrencyProperties.History config = properties.getHistory();
+        this.jdbcTemplate = jdbcTemplate;
+        this.repository = repository;
+        this.enabled = config.isEnabled();
+        this.batchSize = Math.max(1, config.getBatchSize());
+        this.anchor = properties.getRates().isTriangulate() ? properties.getRates().getAnchor() : null;
+        this.pending = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-history-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            warnIfInMemory();
+            long period = Math.max(config.getFlushInterval().toMillis(), 10);
+            writer.scheduleWithFixedDelay(this::flush, period, period, TimeUnit.MILLISECONDS);
+        }
+
+        Gauge.builder("currency.history.pending", pending, BlockingQueue::size)
+            .description("Fetched snapshots waiting to be written to rate history")
+            .register(meterRegistry);
+        this.rowsWritten = Counter.builder("currency.history.rows")
+            .description("Rate history rows written")
+            .register(meterRegistry);
+        this.snapshotsDropped = Counter.builder("currency.history.dropped")
+            .description("Snapshots not recorded because the write queue was full")
+            .register(meterRegistry);
+        this.writeFailures = Counter.builder("currency.history.failures")
+            .description("Rate history batches that could not be written")
+            .register(meterRegistry);
+        this.writeTime = Timer.builder("currency.history.write")
+            .description("Time to write one drain of the queue")
+            .register(meterRegistry);
+    }
+
+    // History kept in an in-memory database is gone on every restart, so as-of
+    // conversions silently lose everything before the last start
+    private void warnIfInMemory() {
+        try {
+            String url = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getURL());
+            if (url != null && url.contains(":mem:")) {
+                log.warn("currency.history is enabled but {} is an in-memory database; rate history will "
+                        + "be lost on restart. Set spring.datasource.url to a file or server database.", url);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not determine the rate history database", e);
+        }
+    }
+
+    /**
+     * Queues a snapshot for persistence without blocking.
+     */
+    public void record(RateSnapshot snapshot) {
+        if (!enabled) {
+            return;
+        }
+        if (!pending.offer(snapshot)) {
+            snapshotsDropped.increment();
+            log.warn("Rate history queue full, dropped {} snapshot version {}", snapshot.base(), snapshot.version());
+        }
+    }
+
+    /**
+     * Writes everything queued so far. Called by the background writer, and on shutdown.
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            List<RateSnapshot> snapshots = new ArrayList<>();
+            pending.drainTo(snapshots);
+            if (snapshots.isEmpty()) {
+                return;
+            }
+            List<Object[]> rows = new ArrayList<>();
+            for (RateSnapshot snapshot : snapshots) {
+                OffsetDateTime effectiveAt = OffsetDateTime.ofInstant(snapshot.fetchedAt(), ZoneOffset.UTC);
+                for (Map.Entry<String, BigDecimal> rate : snapshot.rates().getRates().entrySet()) {
+                    rows.add(new Object[] {snapshot.base(), rate.getKey(), rate.getValue(), effectiveAt,
+                        snapshot.version()});
+                }
+            }
+            writeTime.record(() -> write(rows));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void write(List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Object[]> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                rowsWritten.increment(batch.size());
+            } catch (DataAccessException e) {
+                writeFailures.increment();
+                log.error("Could not write {} rate history rows", batch.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Rate for converting one unit of {@code fromCurrency} into {@code toCurrency} as it
+     * was at {@code asOf}: the pair's own history if it was ever fetched directly,
+     * otherwise crossed through the anchor's history.
+     */
+    public Optional<HistoricalRate> rateAsOf(String fromCurrency, String toCurrency, Instant asOf) {
+        if (fromCurrency.equals(toCurrency)) {
+            return Optional.of(new HistoricalRate(BigDecimal.ONE, asOf));
+        }
+        Optional<RateHistory> direct = latest(fromCurrency, toCurrency, asOf);
+        if (direct.isPresent()) {
+            return direct.map(row -> new HistoricalRate(row.getRate().stripTrailingZeros(), row.getEffectiveAt()));
+        }
+        if (anchor == null) {
+            return Optional.empty();
+        }
+        Optional<HistoricalRate> fromLeg = anchorLeg(fromCurrency, asOf);
+        Optional<HistoricalRate> toLeg = anchorLeg(toCurrency, asOf);
+        if (fromLeg.isEmpty() || toLeg.isEmpty() || fromLeg.get().rate().signum() == 0) {
+            return Optional.empty();
+        }
+        BigDecimal rate = toLeg.get().rate().divide(fromLeg.get().rate(), RATE_CONTEXT).stripTrailingZeros();
+        Instant effectiveAt = fromLeg.get().effectiveAt().isBefore(toLeg.get().effectiveAt())
+            ? fromLeg.get().effectiveAt()
+            : toLeg.get().effectiveAt();
+        return Optional.of(new HistoricalRate(rate, effectiveAt));
+    }
+
+    private Optional<HistoricalRate> anchorLeg(String currency, Instant asOf) {
+        if (anchor.equals(currency)) {
+            return Optional.of(new HistoricalRate(BigDecimal.ONE, asOf));
+        }
+        return latest(anchor, currency, asOf)
+            .map(row -> new HistoricalRate(row.getRate(), row.getEffectiveAt()));
+    }
+
+    private Optional<RateHistory> latest(String baseCurrency, String quoteCurrency, Instant asOf) {
+        return repository.findFirstByBaseCurrencyAndQuoteCurrencyAndEffectiveAtLessThanEqualOrderByEffectiveAtDesc(
+            baseCurrency, quoteCurrency, asOf);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+        flush();
+    }
+
+    /**
+     * @param effectiveAt when the oldest snapshot the rate was derived from was fetched
+     */
+    public record HistoricalRate(BigDecimal rate, Instant effectiveAt) {
+    }
+}
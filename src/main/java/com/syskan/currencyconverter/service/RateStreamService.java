@@ -0,0 +1,368 @@
+package com.syskan.currencyconverter.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Service;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.cache.RateUpdateListener;
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.dto.RateUpdate;
+import com.syskan.currencyconverter.rates.CrossRateMatrix;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Pushes rate changes to subscribers of bases or currency pairs.
+ * <p>
+ * Each base somebody subscribed to, directly or through one of its pairs, has one channel.
+ * When an anchor snapshot is installed, the row of every such base and the rates in it that
+ * changed are worked out once and published to that base's sink, so the cost of an install
+ * grows with the bases watched rather than with the subscribers. A subscriber only filters
+ * the changed rates down to its own pairs. One that falls behind holds at most
+ * {@code maxBuffered} pending rows and loses the oldest first, never the initial rates; when
+ * it sees a row that does
+ * not follow the last one it got for that base, it is sent whatever differs from what it
+ * was last sent instead, so it misses intermediate versions but no changes. Publishing
+ * never waits on a subscriber.
+ */
+@Service
+@Slf4j
+public class RateStreamService implements RateUpdateListener {
+
+    private final CurrencyService currencyService;
+    private final int maxSubscribers;
+    private final int maxBuffered;
+    private final Duration subscribeTimeout;
+
+    // Guarded by emitLock, which also serializes emission into the sinks
+    private final Map<String, Channel> channels = new HashMap<>();
+    private final ReentrantLock emitLock = new ReentrantLock();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter dropped;
+
+    public RateStreamService(CurrencyService currencyService, CurrencyProperties properties,
+            MeterRegistry meterRegistry) {
+        this.currencyService = currencyService;
+        this.maxSubscribers = properties.getStream().getMaxSubscribers();
+        this.maxBuffered = Math.max(1, properties.getStream().getMaxBuffered());
+        this.subscribeTimeout = properties.getStream().getSubscribeTimeout();
+        currencyService.getRateCache().addListener(this);
+
+        Gauge.builder("currency.stream.subscribers", subscribers, AtomicInteger::get)
+            .description("Open rate update streams")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("currency.stream.dropped")
+            .description("Pending updates dropped for subscribers that were not keeping up")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void onRatesLoaded(String baseCurrency, RateSnapshot snapshot) {
+        if (!currencyService.getAnchorCurrency().equals(baseCurrency)) {
+            return;
+        }
+        CrossRateMatrix matrix = currencyService.getCrossRates(snapshot);
+        // Loads can complete on several threads at once; the sinks need serialized emission
+        emitLock.lock();
+        try {
+            channels.values().forEach(channel -> channel.publish(matrix));
+        } finally {
+            emitLock.unlock();
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.get();
+    }
+
+    /**
+     * Opens a stream that starts with the current rates for every pair of the given bases
+     * and the given pairs, then carries the pairs of one base that changed with each new
+     * snapshot. The subscriber slot is taken here rather than on subscription, so callers
+     * can refuse the request before answering it, and is given back when the stream ends,
+     * or after {@code subscribeTimeout} if it was never subscribed; the stream then fails
+     * when subscribed. It can be subscribed once.
+     *
+     * @param bases base currencies whose whole rate row is wanted
+     * @param pairs pairs such as {@code EUR/GBP}
+     * @return the stream, or empty if {@code maxSubscribers} streams are already open
+     */
+    public Optional<Flux<RateUpdate>> open(Set<String> bases, Set<String> pairs) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            return Optional.empty();
+        }
+        Slot slot = new Slot();
+        slot.expiry = Schedulers.parallel().schedule(slot::expire, subscribeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        Subscriber subscriber = new Subscriber(bases, pairs);
+        return Optional.of(Flux.defer(() -> {
+            if (!slot.claim()) {
+                return Flux.<RateUpdate>error(new IllegalStateException(
+                    "Rate stream was already subscribed or not subscribed within " + subscribeTimeout));
+            }
+            List<Flux<Row>> rows = new ArrayList<>();
+            for (String base : subscriber.bases()) {
+                rows.add(channel(base).sink.asFlux());
+            }
+            // Live rows are subscribed before the current matrix is read, so none are
+            // missed; the version checks discard whatever the two have in common. Only
+            // rows are buffered and dropped, so the matrix always reaches the subscriber.
+            Flux<Row> live = Flux.merge(rows)
+                .onBackpressureBuffer(maxBuffered, row -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST);
+            return Flux.<Object>merge(live, currencyService.getCrossRatesReactive())
+                .concatMapIterable(subscriber::next)
+                .doFinally(signal -> {
+                    subscriber.bases().forEach(this::release);
+                    slot.release();
+                });
+        }));
+    }
+
+    private Channel channel(String base) {
+        emitLock.lock();
+        try {
+            Channel channel = channels.computeIfAbsent(base, Channel::new);
+            channel.subscribers++;
+            return channel;
+        } finally {
+            emitLock.unlock();
+        }
+    }
+
+    private void release(String base) {
+        emitLock.lock();
+        try {
+            Channel channel = channels.get(base);
+            if (channel != null && --channel.subscribers == 0) {
+                channels.remove(base);
+            }
+        } finally {
+            emitLock.unlock();
+        }
+    }
+
+    /**
+     * A subscriber slot taken by {@link #open}: claimed by the first subscription, and
+     * given back when that ends or when nobody subscribed in time, whichever comes first.
+     */
+    private final class Slot {
+
+        private static final int RESERVED = 0;
+        private static final int CLAIMED = 1;
+        private static final int RELEASED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(RESERVED);
+        private volatile Disposable expiry;
+
+        boolean claim() {
+            if (!state.compareAndSet(RESERVED, CLAIMED)) {
+                return false;
+            }
+            expiry.dispose();
+            return true;
+        }
+
+        void expire() {
+            if (state.compareAndSet(RESERVED, RELEASED)) {
+                subscribers.decrementAndGet();
+                log.debug("Rate stream was not subscribed within {}; slot released", subscribeTimeout);
+            }
+        }
+
+        void release() {
+            if (state.compareAndSet(CLAIMED, RELEASED)) {
+                subscribers.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * The row of one base for one snapshot.
+     *
+     * @param previousVersion the version of the row published before on the same channel,
+     *                        or -1 for the first
+     * @param changed         the rates that differ from that previous row
+     */
+    record Row(String base, long version, long previousVersion, Instant fetchedAt,
+            Map<String, BigDecimal> rates, Map<String, BigDecimal> changed) {
+    }
+
+    /**
+     * One base's sink and the row last published to it. Guarded by {@code emitLock}.
+     */
+    private static final class Channel {
+
+        private final String base;
+        private final Sinks.Many<Row> sink = Sinks.many().multicast().directBestEffort();
+        private Map<String, BigDecimal> rates = Map.of();
+        private long version = -1;
+        private int subscribers;
+
+        Channel(String base) {
+            this.base = base;
+        }
+
+        void publish(CrossRateMatrix matrix) {
+            Map<String, BigDecimal> row = matrix.ratesFor(base);
+            long matrixVersion = matrix.snapshot().version();
+            if (row == null || matrixVersion <= version) {
+                return;
+            }
+            Map<String, BigDecimal> changed = new LinkedHashMap<>();
+            row.forEach((quote, rate) -> {
+                BigDecimal previous = rates.get(quote);
+                if (rate != null && (previous == null || previous.compareTo(rate) != 0)) {
+                    changed.put(quote, rate);
+                }
+            });
+            Row published = new Row(base, matrixVersion, version, matrix.snapshot().fetchedAt(), row, changed);
+            rates = row;
+            version = matrixVersion;
+            sink.tryEmitNext(published);
+        }
+    }
+
+    /**
+     * What one subscriber wants and what it was last sent. Its methods are called one at a
+     * time by the stream.
+     */
+    static final class Subscriber {
+
+        // Quotes wanted per base; null for the whole row
+        private final Map<String, Set<String>> quotes = new LinkedHashMap<>();
+        private final Map<String, BigDecimal> sent = new HashMap<>();
+        private final Map<String, Long> versions = new HashMap<>();
+        private final List<Row> pending = new ArrayList<>();
+        private long snapshotVersion = -1;
+
+        Subscriber(Set<String> bases, Set<String> pairs) {
+            for (String base : bases) {
+                quotes.put(base, null);
+            }
+            for (String pair : pairs) {
+                String[] codes = pair.split("/");
+                if (!bases.contains(codes[0])) {
+                    quotes.computeIfAbsent(codes[0], base -> new LinkedHashSet<>()).add(codes[1]);
+                }
+            }
+        }
+
+        Set<String> bases() {
+            return quotes.keySet();
+        }
+
+        /**
+         * The updates this subscriber needs for the current matrix or a published row:
+         * none if it is not newer than what was sent or changes none of its pairs. Rows
+         * that arrive before the first snapshot wait for it.
+         */
+        List<RateUpdate> next(Object update) {
+            if (update instanceof CrossRateMatrix matrix) {
+                return snapshot(matrix);
+            }
+            Row row = (Row) update;
+            if (snapshotVersion < 0) {
+                pending.add(row);
+                return List.of();
+            }
+            RateUpdate delta = delta(row);
+            return delta == null ? List.of() : List.of(delta);
+        }
+
+        private List<RateUpdate> snapshot(CrossRateMatrix matrix) {
+            if (snapshotVersion >= 0) {
+                return List.of();
+            }
+            snapshotVersion = matrix.snapshot().version();
+            Map<String, BigDecimal> rates = new LinkedHashMap<>();
+            quotes.forEach((base, wanted) -> {
+                versions.put(base, snapshotVersion);
+                if (wanted == null) {
+                    Map<String, BigDecimal> row = matrix.ratesFor(base);
+                    if (row != null) {
+                        row.forEach((quote, rate) -> offer(rates, base, quote, rate));
+                    }
+                } else {
+                    wanted.forEach(quote -> offer(rates, base, quote, matrix.rate(base, quote)));
+                }
+            });
+            List<RateUpdate> updates = new ArrayList<>();
+            updates.add(RateUpdate.builder()
+                .type(RateUpdate.SNAPSHOT)
+                .version(snapshotVersion)
+                .fetchedAt(matrix.snapshot().fetchedAt())
+                .rates(rates)
+                .build());
+            for (Row row : pending) {
+                RateUpdate delta = delta(row);
+                if (delta != null) {
+                    updates.add(delta);
+                }
+            }
+            pending.clear();
+            return updates;
+        }
+
+        private RateUpdate delta(Row row) {
+            long last = versions.getOrDefault(row.base(), -1L);
+            if (row.version() <= last) {
+                return null;
+            }
+            versions.put(row.base(), row.version());
+            // A row that does not follow the last one means rows were dropped or this
+            // subscriber joined between two; the whole row is compared instead
+            Map<String, BigDecimal> candidates = row.previousVersion() == last ? row.changed() : row.rates();
+            Set<String> wanted = quotes.get(row.base());
+            Map<String, BigDecimal> changed = new LinkedHashMap<>();
+            if (wanted == null) {
+                candidates.forEach((quote, rate) -> offer(changed, row.base(), quote, rate));
+            } else {
+                for (String quote : wanted) {
+                    offer(changed, row.base(), quote, candidates.get(quote));
+                }
+            }
+            if (changed.isEmpty()) {
+                return null;
+            }
+            return RateUpdate.builder()
+                .type(RateUpdate.DELTA)
+                .version(row.version())
+                .fetchedAt(row.fetchedAt())
+                .rates(changed)
+                .build();
+        }
+
+        private void offer(Map<String, BigDecimal> changed, String from, String to, BigDecimal rate) {
+            if (rate == null) {
+                return;
+            }
+            String key = from + "/" + to;
+            BigDecimal previous = sent.put(key, rate);
+            if (previous == null || previous.compareTo(rate) != 0) {
+                changed.put(key, rate);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.syskan.currencyconverter.service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.cache.RateUpdateListener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serialized rate tables for every base, rendered when a snapshot is installed rather
+ * than on each request.
+ * <p>
+ * Installing a snapshot renders every base it quotes on a background thread and then
+ * publishes the new tables with a single volatile write, so a reader sees either the old
+ * set or the new one. A table missing for a version, because rendering has not finished
+ * or the base is cold, is rendered on demand by the request and kept.
+ */
+@Slf4j
+public class RenderedRateTables implements RateUpdateListener, AutoCloseable {
+
+    private final Function<RateSnapshot, Iterable<String>> basesOf;
+    private final BiFunction<String, RateSnapshot, Map<String, BigDecimal>> ratesOf;
+    private final ExecutorService renderer;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Map<String, RenderedRates> tables = Map.of();
+
+    /**
+     * @param basesOf the bases a snapshot quotes rates for
+     * @param ratesOf the rate map for a base taken from a snapshot
+     */
+    public RenderedRateTables(Function<RateSnapshot, Iterable<String>> basesOf,
+            BiFunction<String, RateSnapshot, Map<String, BigDecimal>> ratesOf, MeterRegistry meterRegistry) {
+        this.basesOf = basesOf;
+        this.ratesOf = ratesOf;
+        // One pending render is enough: a newer snapshot supersedes anything still queued
+        this.renderer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(1), r -> {
+            Thread thread = new Thread(r, "rate-render");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardOldestPolicy());
+
+        Gauge.builder("currency.rates.rendered.bytes", this, RenderedRateTables::sizeInBytes)
+            .description("Memory held by pre-rendered rate tables, JSON and gzip")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("currency.rates.rendered.tables", this, tables -> tables.tables.size())
+            .description("Bases with a pre-rendered rate table")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void onRatesLoaded(String baseCurrency, RateSnapshot snapshot) {
+        renderer.execute(() -> {
+            try {
+                renderAll(snapshot);
+            } catch (RuntimeException e) {
+                log.warn("Rendering rate tables for version {} failed", snapshot.version(), e);
+            }
+        });
+    }
+
+    private void renderAll(RateSnapshot snapshot) {
+        Map<String, RenderedRates> rendered = new HashMap<>();
+        for (String base : basesOf.apply(snapshot)) {
+            Map<String, BigDecimal> rates = ratesOf.apply(base, snapshot);
+            if (rates != null) {
+                rendered.put(base, RenderedRates.render(base, snapshot.version(), rates));
+            }
+        }
+        lock.lock();
+        try {
+            Map<String, RenderedRates> next = new HashMap<>(tables);
+            // Tables of other snapshots stay; only ones older than this snapshot are replaced
+            rendered.forEach((base, table) -> next.merge(base, table,
+                (current, offered) -> offered.version() >= current.version() ? offered : current));
+            tables = Map.copyOf(next);
+        } finally {
+            lock.unlock();
+        }
+        log.debug("Rendered {} rate tables for version {}", rendered.size(), snapshot.version());
+    }
+
+    /**
+     * The rendered table for a base at the snapshot's version, rendering it now if it is
+     * not ready yet.
+     */
+    public RenderedRates get(String baseCurrency, RateSnapshot snapshot) {
+        RenderedRates table = tables.get(baseCurrency);
+        if (table != null && table.version() == snapshot.version()) {
+            return table;
+        }
+        Map<String, BigDecimal> rates = ratesOf.apply(baseCurrency, snapshot);
+        if (rates == null) {
+            return null;
+        }
+        RenderedRates rendered = RenderedRates.render(baseCurrency, snapshot.version(), rates);
+        if (table == null || table.version() < snapshot.version()) {
+            keep(rendered);
+        }
+        return rendered;
+    }
+
+    private void keep(RenderedRates rendered) {
+        lock.lock();
+        try {
+            RenderedRates current = tables.get(rendered.base());
+            if (current == null || current.version() < rendered.version()) {
+                Map<String, RenderedRates> next = new HashMap<>(tables);
+                next.put(rendered.base(), rendered);
+                tables = Map.copyOf(next);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return tables.size();
+    }
+
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (RenderedRates table : tables.values()) {
+            bytes += table.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        renderer.shutdownNow();
+    }
+}
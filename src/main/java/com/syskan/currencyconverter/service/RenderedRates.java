@@ -0,0 +1,39 @@
+package com.syskan.currencyconverter.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * The rate table for one base at one snapshot version, serialized to JSON once and
+ * gzipped once. The arrays are never modified after rendering and are written to
+ * responses as they are; callers must not modify them either.
+ */
+public record RenderedRates(String base, long version, byte[] json, byte[] gzip) {
+
+    private static final JsonMapper JSON = JsonMapper.builder().build();
+
+    public static RenderedRates render(String base, long version, Map<String, BigDecimal> rates) {
+        byte[] json = JSON.writeValueAsBytes(rates);
+        return new RenderedRates(base, version, json, gzip(json));
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, bytes.length / 3));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    public long sizeInBytes() {
+        return json.length + gzip.length;
+    }
+}
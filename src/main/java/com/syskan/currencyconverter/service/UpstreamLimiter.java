@@ -0,0 +1,145 @@
+package com.syskan.currencyconverter.service;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caps the number of upstream calls in flight at once. Calls over the cap wait in a
+ * bounded FIFO queue without holding a thread, and are rejected once the queue is full.
+ * <p>
+ * A {@link ReentrantLock} rather than {@code synchronized} guards the permit count so a
+ * virtual thread that releases a permit is never pinned to its carrier.
+ */
+public class UpstreamLimiter {
+
+    private final int maxConcurrency;
+    private final int maxWaiting;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Queue<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int active;
+
+    private final Counter rejected;
+
+    public UpstreamLimiter(int maxConcurrency, int maxWaiting, MeterRegistry meterRegistry) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxWaiting = Math.max(0, maxWaiting);
+        Gauge.builder("currency.upstream.active", this, UpstreamLimiter::activeCount)
+            .description("Upstream calls currently in flight")
+            .register(meterRegistry);
+        Gauge.builder("currency.upstream.waiting", this, UpstreamLimiter::waitingCount)
+            .description("Upstream calls waiting for a permit")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("currency.upstream.rejected")
+            .description("Upstream calls rejected because the wait queue was full")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes to the call once a permit is available and releases the permit when the
+     * call terminates or is cancelled.
+     */
+    public <T> Mono<T> limit(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            CompletableFuture<Void> permit = acquire();
+            if (permit == null) {
+                return Mono.defer(call).doFinally(signal -> release());
+            }
+            return Mono.fromFuture(permit, true)
+                .then(Mono.defer(call))
+                .doFinally(signal -> {
+                    // Withdraw from the queue, or give back a permit that was handed over
+                    if (permit.cancel(false)) {
+                        withdraw(permit);
+                    } else if (!permit.isCancelled()) {
+                        release();
+                    }
+                });
+        });
+    }
+
+    /**
+     * Returns {@code null} if a permit was taken immediately, otherwise a future that
+     * completes when a permit is handed over.
+     */
+    private CompletableFuture<Void> acquire() {
+        lock.lock();
+        try {
+            if (active < maxConcurrency) {
+                active++;
+                return null;
+            }
+            if (waiters.size() >= maxWaiting) {
+                rejected.increment();
+                throw new UpstreamRejectedException(
+                    "Too many concurrent upstream requests (limit " + maxConcurrency + ")");
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void withdraw(CompletableFuture<Void> waiter) {
+        lock.lock();
+        try {
+            waiters.remove(waiter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        while (true) {
+            CompletableFuture<Void> next;
+            lock.lock();
+            try {
+                next = waiters.poll();
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            // Hand the permit over outside the lock; a waiter that already gave up refuses it
+            if (next.complete(null)) {
+                return;
+            }
+        }
+    }
+
+    public int activeCount() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int waitingCount() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static class UpstreamRejectedException extends RuntimeException {
+
+        public UpstreamRejectedException(String message) {
+            super(message);
+        }
+    }
+}
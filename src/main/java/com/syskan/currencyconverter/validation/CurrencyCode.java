@@ -0,0 +1,28 @@
+package com.syskan.currencyconverter.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+/**
+ * A currency code registered in {@link com.syskan.currencyconverter.rates.CurrencyCodes}:
+ * an ISO 4217 code or one a rate provider has quoted. {@code null} is valid; combine with
+ * {@code @NotNull} where the code is required.
+ */
+@Documented
+@Constraint(validatedBy = CurrencyCodeValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrencyCode {
+
+    String message() default "Unknown currency code";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
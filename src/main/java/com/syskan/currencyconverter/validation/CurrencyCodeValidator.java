@@ -0,0 +1,14 @@
+package com.syskan.currencyconverter.validation;
+
+import com.syskan.currencyconverter.rates.CurrencyCodes;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class CurrencyCodeValidator implements ConstraintValidator<CurrencyCode, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || CurrencyCodes.isRegistered(value);
+    }
+}
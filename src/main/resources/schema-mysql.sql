@@ -0,0 +1,12 @@
+-- Rate history for as-of conversions (RateHistoryService), MySQL flavour of schema-h2.sql.
+-- MySQL has no CREATE INDEX IF NOT EXISTS, so the index is declared with the table.
+-- DATETIME(6) has no zone; Connector/J converts instants to and from the connection time zone.
+CREATE TABLE IF NOT EXISTS rate_history (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    base_currency VARCHAR(3) NOT NULL,
+    quote_currency VARCHAR(3) NOT NULL,
+    rate DECIMAL(30, 12) NOT NULL,
+    effective_at DATETIME(6) NOT NULL,
+    snapshot_version BIGINT NOT NULL,
+    INDEX idx_rate_history_pair_time (base_currency, quote_currency, effective_at)
+);
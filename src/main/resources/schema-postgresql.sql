@@ -0,0 +1,12 @@
+-- Rate history for as-of conversions (RateHistoryService), PostgreSQL flavour of schema-h2.sql.
+CREATE TABLE IF NOT EXISTS rate_history (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    base_currency VARCHAR(3) NOT NULL,
+    quote_currency VARCHAR(3) NOT NULL,
+    rate NUMERIC(30, 12) NOT NULL,
+    effective_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    snapshot_version BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_rate_history_pair_time
+    ON rate_history (base_currency, quote_currency, effective_at);
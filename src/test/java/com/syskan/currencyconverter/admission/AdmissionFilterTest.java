@@ -0,0 +1,85 @@
+package com.syskan.currencyconverter.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.syskan.currencyconverter.config.CurrencyProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdmissionFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdmissionFilter filter(int maxInFlight) {
+        CurrencyProperties properties = new CurrencyProperties();
+        CurrencyProperties.Admission admission = properties.getAdmission();
+        CurrencyProperties.Tier anonymous = new CurrencyProperties.Tier();
+        anonymous.setRate(1);
+        anonymous.setBurst(2);
+        CurrencyProperties.Tier partner = new CurrencyProperties.Tier();
+        partner.setRate(0);
+        admission.getTiers().put("anonymous", anonymous);
+        admission.getTiers().put("partner", partner);
+        admission.getApiKeys().put("acme", "partner");
+        admission.setMaxInFlight(maxInFlight);
+        admission.setStandardShare(0.5);
+        admission.setBulkShare(0.25);
+        return new AdmissionFilter(properties, meterRegistry);
+    }
+
+    private MockHttpServletResponse send(AdmissionFilter filter, String path, String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr("10.0.0.1");
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void testFilter_RefusesClientOverItsTierWithRetryAfter() throws Exception {
+        AdmissionFilter filter = filter(100);
+
+        assertEquals(200, send(filter, "/api/currency/convert", null).getStatus());
+        assertEquals(200, send(filter, "/convert", null).getStatus());
+        MockHttpServletResponse refused = send(filter, "/api/currency/convert", null);
+
+        assertEquals(429, refused.getStatus());
+        assertEquals("1", refused.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("currency.admission.rejected")
+            .tag("reason", "rate-limited").tag("priority", "standard").counter().count());
+
+        // A known API key is limited by its own tier, and actuator is not limited at all
+        assertEquals(200, send(filter, "/api/currency/convert", "acme").getStatus());
+        assertEquals(200, send(filter, "/actuator/health", null).getStatus());
+        assertEquals(0, filter.shedder().inFlight());
+    }
+
+    @Test
+    void testFilter_ShedsLowerPrioritiesFirstWhenBusy() throws Exception {
+        AdmissionFilter filter = filter(4);
+        LoadShedder shedder = filter.shedder();
+        shedder.tryAcquire(Priority.INTERACTIVE);
+
+        MockHttpServletResponse bulk = send(filter, "/api/currency/convert/batch", "acme");
+        assertEquals(503, bulk.getStatus());
+        assertEquals("1", bulk.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, send(filter, "/api/currency/convert", "acme").getStatus());
+
+        shedder.tryAcquire(Priority.INTERACTIVE);
+        assertEquals(503, send(filter, "/api/currency/convert", "acme").getStatus());
+        MockHttpServletResponse web = send(filter, "/", "acme");
+        assertEquals(200, web.getStatus());
+        assertNull(web.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(2, shedder.inFlight());
+    }
+}
@@ -0,0 +1,68 @@
+package com.syskan.currencyconverter.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void testTryAcquire_AdmitsBurstThenRefillsAtRate() {
+        ClientRateLimiter limiter = new ClientRateLimiter("test", 10, 3, 100, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        }
+        long wait = limiter.tryAcquire("10.0.0.1");
+        assertEquals(Duration.ofMillis(100).toNanos(), wait);
+        assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+
+        advance(Duration.ofMillis(100));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+
+        advance(Duration.ofSeconds(5));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        }
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+    }
+
+    @Test
+    void testTryAcquire_UnlimitedTierIsNeverRefused() {
+        ClientRateLimiter limiter = new ClientRateLimiter("internal", 0, 0, 100, clock::get);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        }
+        assertEquals(0, limiter.clientCount());
+    }
+
+    @Test
+    void testTryAcquire_ForgetsIdleClientsAndSharesOverflowBucketWhenFull() {
+        ClientRateLimiter limiter = new ClientRateLimiter("test", 10, 3, 2, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        // Both buckets still refilling, so new clients share one
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("client-" + i));
+        }
+        assertTrue(limiter.tryAcquire("client-3") > 0);
+        assertEquals(3, limiter.clientCount());
+
+        advance(Duration.ofSeconds(1));
+        assertEquals(0, limiter.tryAcquire("c"));
+        assertEquals(1, limiter.clientCount());
+    }
+}
@@ -0,0 +1,45 @@
+package com.syskan.currencyconverter.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Clients behind the load balancer, here loopback, are limited by their forwarded address
+ * rather than all sharing the balancer's.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "currency.admission.tiers.anonymous.rate=0.01",
+    "currency.admission.tiers.anonymous.burst=1",
+    "currency.cache.local.enabled=false"
+})
+class ForwardedClientAddressTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private int status(String forwardedFor) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/currency/health"))
+            .header("X-Forwarded-For", forwardedFor)
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Test
+    void testAdmission_LimitsEachForwardedClientSeparately() throws Exception {
+        assertEquals(200, status("203.0.113.1"));
+        assertEquals(429, status("203.0.113.1"));
+        assertEquals(200, status("203.0.113.2"));
+    }
+}
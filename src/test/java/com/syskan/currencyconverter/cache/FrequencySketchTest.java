@@ -0,0 +1,67 @@
+package com.syskan.currencyconverter.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+class FrequencySketchTest {
+
+    @Test
+    void testFrequency_NeverUnderestimatesWithinSample() {
+        FrequencySketch sketch = new FrequencySketch(256);
+        for (long key = 0; key < 200; key++) {
+            for (int i = 0; i <= key % 7; i++) {
+                sketch.increment(key);
+            }
+        }
+
+        for (long key = 0; key < 200; key++) {
+            assertTrue(sketch.frequency(key) >= key % 7 + 1);
+        }
+        assertEquals(0, sketch.frequency(1_000_000L));
+    }
+
+    @Test
+    void testIncrement_HalvesCountersOnceSampleIsFull() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        int sampleSize = sketch.sampleSize();
+        for (int i = 0; i < sampleSize - 1; i++) {
+            sketch.increment(i % 2 == 0 ? 1 : 2);
+        }
+        int hot = sketch.frequency(1);
+        assertTrue(hot >= sampleSize / 2);
+
+        sketch.increment(3);
+
+        assertTrue(sketch.frequency(1) <= hot / 2 + 1);
+        assertTrue(sketch.frequency(1) >= hot / 2 - 1);
+    }
+
+    @Test
+    void testIncrement_KeepsDecayingUnderConcurrentIncrements() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        int sampleSize = sketch.sampleSize();
+        int threads = 8;
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                workers.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 20 * sampleSize; i++) {
+                        sketch.increment(1);
+                    }
+                }, executor));
+            }
+            workers.forEach(CompletableFuture::join);
+        }
+
+        // Without decays the counter would saturate far above this
+        assertTrue(sketch.frequency(1) < 4 * sampleSize);
+    }
+}
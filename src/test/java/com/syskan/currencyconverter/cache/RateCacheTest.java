@@ -0,0 +1,274 @@
+package com.syskan.currencyconverter.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        CurrencyProperties.Cache config = new CurrencyProperties.Cache();
+        config.setTtl(Duration.ofMinutes(10));
+        config.setRefreshAhead(Duration.ofMinutes(2));
+        config.setMaxSize(2);
+        config.setMaxStale(Duration.ZERO);
+        cache = new RateCache(base -> CompletableFuture.completedFuture(RateSnapshot.fetched(base, load(base))),
+            config, meterRegistry, clock::get);
+    }
+
+    private RateCache staleServingCache(AtomicBoolean upstreamDown) {
+        CurrencyProperties.Cache config = new CurrencyProperties.Cache();
+        config.setTtl(Duration.ofMinutes(10));
+        config.setRefreshAhead(Duration.ZERO);
+        config.setMaxStale(Duration.ofMinutes(30));
+        return new RateCache(base -> upstreamDown.get()
+                ? CompletableFuture.failedFuture(new IllegalStateException("upstream down"))
+                : CompletableFuture.completedFuture(RateSnapshot.fetched(base, load(base))),
+            config, meterRegistry, clock::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    private ExchangeRateResponse load(String base) {
+        loads.computeIfAbsent(base, b -> new AtomicInteger()).incrementAndGet();
+        return ExchangeRateResponse.builder()
+            .base(base)
+            .rates(Map.of("EUR", new BigDecimal("0.85")))
+            .build();
+    }
+
+    private int loadCount(String base) {
+        return loads.getOrDefault(base, new AtomicInteger()).get();
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void testGet_ServesFromCacheWithinTtl() {
+        ExchangeRateResponse first = cache.get("USD");
+        advance(Duration.ofMinutes(5));
+        ExchangeRateResponse second = cache.get("USD");
+
+        assertSame(first, second);
+        assertEquals(1, loadCount("USD"));
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(1.0, meterRegistry.get("currency.cache.requests").tag("result", "hit")
+            .functionCounter().count());
+    }
+
+    @Test
+    void testGet_ReloadsAfterTtl() {
+        cache.get("USD");
+        advance(Duration.ofMinutes(11));
+        cache.get("USD");
+
+        assertEquals(2, loadCount("USD"));
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    void testGet_EvictsLeastRecentlyUsedWhenFull() {
+        cache.get("USD");
+        advance(Duration.ofSeconds(1));
+        cache.get("EUR");
+        advance(Duration.ofSeconds(1));
+        cache.get("USD");
+        advance(Duration.ofSeconds(1));
+        cache.get("GBP");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+
+        cache.get("USD");
+        assertEquals(1, loadCount("USD"));
+        cache.get("EUR");
+        assertEquals(2, loadCount("EUR"));
+    }
+
+    @Test
+    void testMaintain_RefreshesHotEntriesAheadOfExpiry() {
+        cache.get("USD");
+        cache.get("EUR");
+        advance(Duration.ofMinutes(1));
+        cache.get("USD");
+
+        advance(Duration.ofMinutes(8));
+        cache.maintain();
+
+        assertEquals(2, loadCount("USD"));
+        assertEquals(1, loadCount("EUR"));
+
+        advance(Duration.ofMinutes(5));
+        cache.get("USD");
+        assertEquals(2, loadCount("USD"));
+    }
+
+    @Test
+    void testMaintain_DropsExpiredColdEntries() {
+        cache.get("EUR");
+        advance(Duration.ofMinutes(11));
+        cache.maintain();
+
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void testGet_ServesStaleSnapshotWhenReloadFails() {
+        AtomicBoolean upstreamDown = new AtomicBoolean();
+        try (RateCache staleCache = staleServingCache(upstreamDown)) {
+            RateSnapshot loaded = staleCache.getSnapshot("USD");
+            upstreamDown.set(true);
+            advance(Duration.ofMinutes(20));
+
+            assertSame(loaded, staleCache.getSnapshot("USD"));
+            assertSame(loaded, staleCache.getSnapshotAsync("USD").join());
+            assertEquals(2, staleCache.staleServedCount());
+
+            upstreamDown.set(false);
+            RateSnapshot reloaded = staleCache.getSnapshot("USD");
+            assertEquals(2, loadCount("USD"));
+            assertEquals(2, staleCache.staleServedCount());
+            assertSame(reloaded, staleCache.peek("USD"));
+        }
+    }
+
+    @Test
+    void testGet_FailsOnceSnapshotIsPastMaxStale() {
+        AtomicBoolean upstreamDown = new AtomicBoolean();
+        try (RateCache staleCache = staleServingCache(upstreamDown)) {
+            staleCache.getSnapshot("USD");
+            upstreamDown.set(true);
+            advance(Duration.ofMinutes(41));
+
+            assertThrows(IllegalStateException.class, () -> staleCache.getSnapshot("USD"));
+
+            staleCache.maintain();
+            assertEquals(0, staleCache.size());
+        }
+    }
+
+    @Test
+    void testPutWarm_ServesRestoredSnapshotPastTtlUntilReloaded() {
+        AtomicBoolean upstreamDown = new AtomicBoolean(true);
+        try (RateCache staleCache = staleServingCache(upstreamDown)) {
+            RateSnapshot restored = new RateSnapshot("USD", load("USD"), 1,
+                Instant.now().minus(Duration.ofMinutes(15)));
+            loads.clear();
+
+            assertTrue(staleCache.putWarm(restored));
+            assertSame(restored, staleCache.getSnapshot("USD"));
+            assertEquals(0, loadCount("USD"));
+            assertEquals(1, staleCache.staleServedCount());
+
+            upstreamDown.set(false);
+            staleCache.maintain();
+            assertEquals(1, loadCount("USD"));
+            RateSnapshot reloaded = staleCache.peek("USD");
+            assertTrue(reloaded.version() > restored.version());
+
+            // The reloaded entry is an ordinary one again
+            advance(Duration.ofMinutes(11));
+            staleCache.maintain();
+            assertEquals(1, loadCount("USD"));
+        }
+    }
+
+    @Test
+    void testResume_ServesAndReloadsEntriesAgedWhilePaused() {
+        AtomicBoolean upstreamDown = new AtomicBoolean(true);
+        try (RateCache staleCache = staleServingCache(upstreamDown)) {
+            RateSnapshot restored = new RateSnapshot("USD", load("USD"), 1,
+                Instant.now().minus(Duration.ofMinutes(15)));
+            loads.clear();
+            staleCache.put(restored);
+
+            staleCache.resume();
+            assertSame(restored, staleCache.getSnapshot("USD"));
+
+            staleCache.pause();
+            upstreamDown.set(false);
+            staleCache.maintain();
+            assertEquals(0, loadCount("USD"));
+
+            staleCache.resume();
+            assertEquals(1, loadCount("USD"));
+            assertTrue(staleCache.peek("USD").version() > restored.version());
+        }
+    }
+
+    @Test
+    void testPrefetch_LoadsHotBasesDueForRefreshWithoutAccessRefresh() {
+        cache.setRefreshOnAccess(false);
+        cache.get("USD");
+        cache.get("EUR");
+        advance(Duration.ofMinutes(1));
+        cache.get("USD");
+
+        assertFalse(cache.isDueForPrefetch("USD"));
+        assertTrue(cache.isDueForPrefetch("GBP"));
+        assertFalse(cache.prefetch("USD"));
+        assertTrue(cache.prefetch("GBP"));
+        assertEquals(1, loadCount("GBP"));
+
+        advance(Duration.ofMinutes(8));
+        cache.maintain();
+        assertEquals(1, loadCount("USD"));
+
+        assertTrue(cache.isDueForPrefetch("USD"));
+        assertTrue(cache.prefetch("USD"));
+        assertEquals(2, loadCount("USD"));
+        assertEquals(1, loadCount("EUR"));
+    }
+
+    @Test
+    void testGet_SlowLoadDoesNotOverwriteNewerSnapshotPutMeanwhile() {
+        CompletableFuture<RateSnapshot> slowFetch = new CompletableFuture<>();
+        CurrencyProperties.Cache config = new CurrencyProperties.Cache();
+        try (RateCache followerCache = new RateCache(base -> slowFetch, config, meterRegistry, clock::get)) {
+            CompletableFuture<RateSnapshot> read = followerCache.getSnapshotAsync("USD");
+            RateSnapshot older = RateSnapshot.fetched("USD", load("USD"));
+            RateSnapshot broadcast = RateSnapshot.fetched("USD", load("USD"));
+
+            assertTrue(followerCache.put(broadcast));
+            slowFetch.complete(older);
+
+            assertSame(broadcast, read.join());
+            assertSame(broadcast, followerCache.peek("USD"));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.syskan.currencyconverter.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+/**
+ * The store against a real Redis: key layout, TTLs and codec bytes as Redis holds them.
+ */
+@Tag("redis")
+@Testcontainers(disabledWithoutDocker = true)
+class RedisSnapshotStoreTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+        .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private RedisSnapshotStore store;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+            new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.serverCommands().flushAll();
+        }
+        CurrencyProperties properties = new CurrencyProperties();
+        properties.getCache().getRedis().setKeyPrefix("test:rates:");
+        store = new RedisSnapshotStore(connectionFactory, properties);
+    }
+
+    private static RateSnapshot snapshot(String base) {
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        rates.put("EUR", new BigDecimal("0.85"));
+        rates.put("JPY", new BigDecimal("110.500"));
+        return RateSnapshot.fetched(base, ExchangeRateResponse.builder()
+            .base(base)
+            .date("2024-12-09")
+            .rates(rates)
+            .build());
+    }
+
+    private static byte[] key(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testPut_StoresCodecBytesUnderPrefixedKeyWithTtl() {
+        RateSnapshot snapshot = snapshot("USD");
+
+        store.put(snapshot, Duration.ofMinutes(5)).block(WAIT);
+
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            assertEquals(Set.of("test:rates:USD"),
+                connection.keyCommands().keys(key("*")).stream()
+                    .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+                    .collect(Collectors.toSet()));
+            assertArrayEquals(SnapshotCodec.encode(snapshot), connection.stringCommands().get(key("test:rates:USD")));
+            long ttl = connection.keyCommands().pTtl(key("test:rates:USD"));
+            assertTrue(ttl > 0 && ttl <= Duration.ofMinutes(5).toMillis(), "TTL was " + ttl);
+        }
+    }
+
+    @Test
+    void testGet_RoundTripsStoredSnapshot() {
+        RateSnapshot snapshot = snapshot("EUR");
+        store.put(snapshot, Duration.ofMinutes(5)).block(WAIT);
+
+        RateSnapshot read = store.get("EUR").block(WAIT);
+
+        assertEquals("EUR", read.base());
+        assertEquals(snapshot.version(), read.version());
+        assertEquals(snapshot.fetchedAt().toEpochMilli(), read.fetchedAt().toEpochMilli());
+        assertEquals("2024-12-09", read.rates().getDate());
+        assertEquals(snapshot.rates().getRates(), read.rates().getRates());
+        assertNull(store.get("GBP").block(WAIT));
+    }
+
+    @Test
+    void testGet_EmptyOnceTtlHasPassed() throws InterruptedException {
+        store.put(snapshot("USD"), Duration.ofMillis(200)).block(WAIT);
+
+        Thread.sleep(500);
+
+        assertNull(store.get("USD").block(WAIT));
+    }
+
+    @Test
+    void testGet_EmptyForUndecodableValue() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.stringCommands().set(key("test:rates:USD"), key("{\"base\":\"USD\"}"));
+        }
+
+        assertNull(store.get("USD").block(WAIT));
+    }
+}
@@ -0,0 +1,89 @@
+package com.syskan.currencyconverter.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+    @Test
+    void testExecute_ConcurrentCallersShareOneExecution() throws Exception {
+        int callers = 8;
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<Object> upstream = new CompletableFuture<>();
+        CountDownLatch started = new CountDownLatch(callers);
+        Object result = new Object();
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    CompletableFuture<Object> call = singleFlight.execute("USD", key -> {
+                        executions.incrementAndGet();
+                        return upstream;
+                    });
+                    started.countDown();
+                    return SingleFlight.await(call);
+                }));
+            }
+            started.await(5, TimeUnit.SECONDS);
+            upstream.complete(result);
+
+            for (Future<Object> future : futures) {
+                assertSame(result, future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlightCount());
+        assertEquals(callers, meterRegistry.get("currency.singleflight.callers").summary().max());
+        assertEquals(callers - 1, meterRegistry.get("currency.singleflight.coalesced").counter().count());
+    }
+
+    @Test
+    void testExecute_FailureIsSharedAndNotCached() {
+        CompletableFuture<Object> upstream = new CompletableFuture<>();
+        CompletableFuture<Object> first = singleFlight.execute("USD", key -> upstream);
+        CompletableFuture<Object> second = singleFlight.execute("USD", key -> upstream);
+
+        IllegalStateException failure = new IllegalStateException("upstream down");
+        upstream.completeExceptionally(failure);
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> SingleFlight.await(first)));
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> SingleFlight.await(second)));
+
+        Object value = SingleFlight.await(singleFlight.execute("USD",
+            key -> CompletableFuture.completedFuture("recovered")));
+        assertEquals("recovered", value);
+    }
+
+    @Test
+    void testExecute_SynchronousFailureOfFunction() {
+        IllegalArgumentException failure = new IllegalArgumentException("bad base");
+
+        CompletableFuture<Object> call = singleFlight.execute("USD", key -> { throw failure; });
+
+        assertSame(failure, assertThrows(IllegalArgumentException.class, () -> SingleFlight.await(call)));
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+}
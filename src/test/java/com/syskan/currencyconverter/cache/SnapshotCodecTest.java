@@ -0,0 +1,61 @@
+package com.syskan.currencyconverter.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+class SnapshotCodecTest {
+
+    @Test
+    void testDecode_RoundTripsEncodedSnapshot() {
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        rates.put("EUR", new BigDecimal("0.85"));
+        rates.put("JPY", new BigDecimal("110.500"));
+        rates.put("VES", new BigDecimal("123456789012345678901234567890.123456"));
+        RateSnapshot snapshot = RateSnapshot.fetched("USD", ExchangeRateResponse.builder()
+            .base("USD")
+            .date("2024-12-09")
+            .rates(rates)
+            .build());
+
+        RateSnapshot decoded = SnapshotCodec.decode(SnapshotCodec.encode(snapshot));
+
+        assertEquals("USD", decoded.base());
+        assertEquals(snapshot.version(), decoded.version());
+        assertEquals(snapshot.fetchedAt().toEpochMilli(), decoded.fetchedAt().toEpochMilli());
+        assertEquals("2024-12-09", decoded.rates().getDate());
+        // Scale is preserved exactly, not just the numeric value
+        assertEquals(rates, decoded.rates().getRates());
+    }
+
+    @Test
+    void testDecode_MissingDateStaysNull() {
+        RateSnapshot snapshot = RateSnapshot.fetched("EUR", ExchangeRateResponse.builder()
+            .base("EUR")
+            .rates(Map.of("USD", new BigDecimal("1.17")))
+            .build());
+
+        assertNull(SnapshotCodec.decode(SnapshotCodec.encode(snapshot)).rates().getDate());
+    }
+
+    @Test
+    void testDecode_RejectsForeignOrTruncatedBytes() {
+        byte[] encoded = SnapshotCodec.encode(RateSnapshot.fetched("USD", ExchangeRateResponse.builder()
+            .base("USD")
+            .rates(Map.of("EUR", new BigDecimal("0.85")))
+            .build()));
+
+        assertThrows(IllegalArgumentException.class, () -> SnapshotCodec.decode("{\"base\":\"USD\"}".getBytes()));
+        assertThrows(IllegalArgumentException.class,
+            () -> SnapshotCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+    }
+}
@@ -0,0 +1,76 @@
+package com.syskan.currencyconverter.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+class SnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    private static RateSnapshot snapshot(String eur) {
+        return RateSnapshot.fetched("USD", ExchangeRateResponse.builder()
+            .base("USD")
+            .date("2024-12-09")
+            .rates(Map.of("EUR", new BigDecimal(eur), "JPY", new BigDecimal("110.50")))
+            .build());
+    }
+
+    @Test
+    void testRead_RoundTripsLatestWrite() throws IOException {
+        Path file = dir.resolve("snapshots/rates.snapshot");
+        SnapshotFile.write(file, snapshot("0.85"));
+        RateSnapshot latest = snapshot("0.86");
+        SnapshotFile.write(file, latest);
+
+        RateSnapshot read = SnapshotFile.read(file);
+
+        assertEquals(latest.version(), read.version());
+        assertEquals(latest.fetchedAt().toEpochMilli(), read.fetchedAt().toEpochMilli());
+        assertEquals(latest.rates().getRates(), read.rates().getRates());
+        try (var files = Files.list(file.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testRead_MissingFileIsNull() throws IOException {
+        assertNull(SnapshotFile.read(dir.resolve("absent.snapshot")));
+    }
+
+    @Test
+    void testRead_RejectsCorruptOrTruncatedFiles() throws IOException {
+        Path file = dir.resolve("rates.snapshot");
+        SnapshotFile.write(file, snapshot("0.85"));
+        byte[] bytes = Files.readAllBytes(file);
+
+        byte[] flipped = bytes.clone();
+        flipped[flipped.length - 1] ^= 1;
+        Files.write(file, flipped);
+        assertThrows(IllegalArgumentException.class, () -> SnapshotFile.read(file));
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IllegalArgumentException.class, () -> SnapshotFile.read(file));
+
+        byte[] otherVersion = bytes.clone();
+        otherVersion[4] = 2;
+        Files.write(file, otherVersion);
+        assertThrows(IllegalArgumentException.class, () -> SnapshotFile.read(file));
+
+        Files.write(file, "{\"base\":\"USD\"}".getBytes());
+        assertThrows(IllegalArgumentException.class, () -> SnapshotFile.read(file));
+    }
+}
@@ -0,0 +1,210 @@
+package com.syskan.currencyconverter.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.syskan.currencyconverter.cache.NoSharedSnapshotStore;
+import com.syskan.currencyconverter.cache.RateCache;
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+import com.syskan.currencyconverter.service.CurrencyService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ClusterRateCoordinatorTest {
+
+    private final InMemoryTransport transport = new InMemoryTransport();
+    private final Node first = new Node();
+    private final Node second = new Node();
+
+    @AfterEach
+    void tearDown() {
+        first.cache.close();
+        second.cache.close();
+    }
+
+    @Test
+    void testTick_OnlyLeaderFetchesAndEveryNodeAppliesTheBroadcast() {
+        first.coordinator.tick();
+        second.coordinator.tick();
+
+        assertTrue(first.coordinator.isLeader());
+        assertFalse(second.coordinator.isLeader());
+        verify(first.service, times(1)).fetchSnapshot("USD");
+        verify(second.service, times(0)).fetchSnapshot("USD");
+        assertEquals(new BigDecimal("0.85"), second.cache.peek("USD").rates().getRates().get("EUR"));
+        assertEquals(first.cache.peek("USD").version(), second.cache.peek("USD").version());
+    }
+
+    @Test
+    void testTick_FollowerTakesOverOnceLeaseLapses() {
+        first.coordinator.tick();
+        second.coordinator.tick();
+
+        // The leader stops renewing and its lease expires
+        transport.expireLease();
+        second.coordinator.tick();
+
+        assertTrue(second.coordinator.isLeader());
+        verify(second.service, times(1)).fetchSnapshot("USD");
+        first.coordinator.tick();
+        assertFalse(first.coordinator.isLeader());
+    }
+
+    @Test
+    void testTick_NewLeaderWithSlowerClockStillPublishesNewerVersions() {
+        first.coordinator.tick();
+        long published = first.cache.peek("USD").version();
+
+        // The next leader stamps its fetches from a clock an hour behind
+        when(second.service.fetchSnapshot("USD")).thenAnswer(invocation -> Mono.fromSupplier(
+            () -> new RateSnapshot("USD", rates("0.90"), published - 3_600_000, Instant.now())));
+        transport.expireLease();
+        second.coordinator.tick();
+
+        assertTrue(first.cache.peek("USD").version() > published);
+        assertEquals(new BigDecimal("0.90"), first.cache.peek("USD").rates().getRates().get("EUR"));
+        assertEquals(first.cache.peek("USD").version(), second.cache.peek("USD").version());
+    }
+
+    @Test
+    void testTick_SkipsBasesRefreshedWithinInterval() {
+        Node patient = new Node(Duration.ofMinutes(5));
+        try {
+            patient.coordinator.tick();
+            patient.coordinator.tick();
+
+            verify(patient.service, times(1)).fetchSnapshot("USD");
+        } finally {
+            patient.cache.close();
+        }
+    }
+
+    @Test
+    void testApply_IgnoresOlderVersion() {
+        first.coordinator.tick();
+        RateSnapshot current = second.cache.peek("USD");
+
+        transport.publish(new RateSnapshot("USD", rates("0.10"), current.version() - 1, Instant.now())).block();
+
+        assertEquals(current.version(), second.cache.peek("USD").version());
+        assertEquals(new BigDecimal("0.85"), second.cache.peek("USD").rates().getRates().get("EUR"));
+    }
+
+    @Test
+    void testStop_ReleasesLeaseForImmediateTakeover() {
+        first.coordinator.tick();
+        first.coordinator.stop();
+
+        second.coordinator.tick();
+
+        assertTrue(second.coordinator.isLeader());
+        assertNotEquals(first.coordinator.nodeId(), second.coordinator.nodeId());
+    }
+
+    private static ExchangeRateResponse rates(String eur) {
+        return ExchangeRateResponse.builder()
+            .base("USD")
+            .rates(Map.of("EUR", new BigDecimal(eur)))
+            .build();
+    }
+
+    private final class Node {
+
+        final CurrencyService service = mock(CurrencyService.class);
+        final RateCache cache;
+        final ClusterRateCoordinator coordinator;
+
+        Node() {
+            this(Duration.ZERO);
+        }
+
+        Node(Duration refreshInterval) {
+            CurrencyProperties properties = new CurrencyProperties();
+            properties.getCluster().setRefreshInterval(refreshInterval);
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            cache = new RateCache(base -> CompletableFuture.failedFuture(new IllegalStateException("no upstream")),
+                properties.getCache(), meterRegistry);
+            when(service.getRateCache()).thenReturn(cache);
+            when(service.fetchSnapshot("USD"))
+                .thenAnswer(invocation -> Mono.fromSupplier(() -> RateSnapshot.fetched("USD", rates("0.85"))));
+            coordinator = new ClusterRateCoordinator(transport, service, new NoSharedSnapshotStore(),
+                properties, meterRegistry);
+            coordinator.listen();
+        }
+    }
+
+    /**
+     * Lease and broadcast semantics of the Redis transport, with an expiry the test controls.
+     */
+    private static final class InMemoryTransport implements ClusterTransport {
+
+        private final Sinks.Many<RateSnapshot> channel = Sinks.many().multicast().directBestEffort();
+        private String holder;
+        private long version;
+
+        void expireLease() {
+            holder = null;
+        }
+
+        @Override
+        public synchronized Mono<Boolean> tryAcquire(String nodeId, Duration ttl) {
+            if (holder == null) {
+                holder = nodeId;
+                return Mono.just(true);
+            }
+            return Mono.just(false);
+        }
+
+        @Override
+        public synchronized Mono<Boolean> renew(String nodeId, Duration ttl) {
+            return Mono.just(nodeId.equals(holder));
+        }
+
+        @Override
+        public synchronized Mono<Void> release(String nodeId) {
+            if (nodeId.equals(holder)) {
+                holder = null;
+            }
+            return Mono.empty();
+        }
+
+        @Override
+        public synchronized Mono<Long> nextVersion(String nodeId, long floor) {
+            if (!nodeId.equals(holder)) {
+                return Mono.empty();
+            }
+            version = Math.max(version + 1, floor);
+            return Mono.just(version);
+        }
+
+        @Override
+        public Mono<Void> publish(RateSnapshot snapshot) {
+            return Mono.fromRunnable(() -> channel.tryEmitNext(snapshot));
+        }
+
+        @Override
+        public Flux<RateSnapshot> snapshots() {
+            return channel.asFlux();
+        }
+    }
+}
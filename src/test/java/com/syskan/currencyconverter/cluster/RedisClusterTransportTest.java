@@ -0,0 +1,175 @@
+package com.syskan.currencyconverter.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.syskan.currencyconverter.config.CurrencyProperties;
+
+/**
+ * The lease and version scripts against a real Redis: only one node holds the lease, only
+ * the holder can renew, release or take versions, and versions never go backwards.
+ */
+@Tag("redis")
+@Testcontainers(disabledWithoutDocker = true)
+class RedisClusterTransportTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+        .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private final CurrencyProperties properties = new CurrencyProperties();
+    private RedisClusterTransport transport;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+            new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.serverCommands().flushAll();
+        }
+        transport = new RedisClusterTransport(connectionFactory, properties);
+    }
+
+    private String leaseHolder() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            byte[] holder = connection.stringCommands()
+                .get(properties.getCluster().getLeaseKey().getBytes(StandardCharsets.UTF_8));
+            return holder == null ? null : new String(holder, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testTryAcquire_ExactlyOneOfManyContendingNodesWins() {
+        int nodes = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> attempts = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(nodes)) {
+            for (int i = 0; i < nodes; i++) {
+                String nodeId = "node-" + i;
+                attempts.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return transport.tryAcquire(nodeId, LEASE).block(WAIT);
+                }, executor));
+            }
+            start.countDown();
+            List<Boolean> won = attempts.stream().map(CompletableFuture::join).toList();
+
+            assertEquals(1, won.stream().filter(Boolean::booleanValue).count());
+            assertEquals("node-" + won.indexOf(true), leaseHolder());
+        }
+    }
+
+    @Test
+    void testLease_OnlyHolderCanRenewReleaseOrTakeVersions() {
+        assertTrue(transport.tryAcquire("leader", Duration.ofSeconds(2)).block(WAIT));
+
+        assertFalse(transport.renew("follower", LEASE).block(WAIT));
+        assertNull(transport.nextVersion("follower", 0).block(WAIT));
+        transport.release("follower").block(WAIT);
+        assertEquals("leader", leaseHolder());
+
+        assertTrue(transport.renew("leader", LEASE).block(WAIT));
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            long ttl = connection.keyCommands()
+                .pTtl(properties.getCluster().getLeaseKey().getBytes(StandardCharsets.UTF_8));
+            assertTrue(ttl > Duration.ofSeconds(2).toMillis(), "TTL was " + ttl);
+        }
+
+        transport.release("leader").block(WAIT);
+        assertNull(leaseHolder());
+        assertTrue(transport.tryAcquire("follower", LEASE).block(WAIT));
+    }
+
+    @Test
+    void testLease_StalledLeaderCannotActAfterExpiry() throws InterruptedException {
+        assertTrue(transport.tryAcquire("stalled", Duration.ofMillis(200)).block(WAIT));
+
+        Thread.sleep(500);
+        assertTrue(transport.tryAcquire("successor", LEASE).block(WAIT));
+
+        assertFalse(transport.renew("stalled", LEASE).block(WAIT));
+        assertNull(transport.nextVersion("stalled", 0).block(WAIT));
+        transport.release("stalled").block(WAIT);
+        assertEquals("successor", leaseHolder());
+    }
+
+    @Test
+    void testNextVersion_IncreasesAndHonoursFloorAcrossFailover() {
+        assertTrue(transport.tryAcquire("first", LEASE).block(WAIT));
+        long v1 = transport.nextVersion("first", 0).block(WAIT);
+        long v2 = transport.nextVersion("first", 0).block(WAIT);
+        long raised = transport.nextVersion("first", 1_000_000).block(WAIT);
+        long afterRaise = transport.nextVersion("first", 0).block(WAIT);
+
+        assertTrue(v2 > v1);
+        assertEquals(1_000_000, raised);
+        assertTrue(afterRaise > raised);
+
+        transport.release("first").block(WAIT);
+        assertTrue(transport.tryAcquire("second", LEASE).block(WAIT));
+        long afterFailover = transport.nextVersion("second", 0).block(WAIT);
+        assertTrue(afterFailover > afterRaise);
+    }
+
+    @Test
+    void testNextVersion_ConcurrentCallsGetDistinctVersions() {
+        assertTrue(transport.tryAcquire("leader", LEASE).block(WAIT));
+        int calls = 200;
+        List<CompletableFuture<Long>> versions = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < calls; i++) {
+                versions.add(CompletableFuture.supplyAsync(
+                    () -> transport.nextVersion("leader", 0).block(WAIT), executor));
+            }
+            TreeSet<Long> distinct = new TreeSet<>(versions.stream().map(CompletableFuture::join).toList());
+
+            assertEquals(calls, distinct.size());
+            assertEquals(1L, distinct.first());
+            assertEquals((long) calls, distinct.last());
+        }
+    }
+}
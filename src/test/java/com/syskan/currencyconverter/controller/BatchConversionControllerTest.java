@@ -0,0 +1,184 @@
+package com.syskan.currencyconverter.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.syskan.currencyconverter.dto.ConversionRequest;
+import com.syskan.currencyconverter.dto.ConversionResponse;
+import com.syskan.currencyconverter.service.BatchConversionService;
+import com.syskan.currencyconverter.service.CsvConversionService;
+import com.syskan.currencyconverter.service.CurrencyService;
+
+@WebMvcTest(controllers = BatchConversionController.class, properties = "currency.admission.enabled=false")
+@Import(BatchConversionService.class)
+class BatchConversionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CurrencyService currencyService;
+
+    @MockitoBean
+    private CsvConversionService csvConversionService;
+
+    @BeforeEach
+    void setUp() {
+        when(currencyService.getExchangeRate("USD", "EUR")).thenReturn(new BigDecimal("0.85"));
+        when(currencyService.getExchangeRate("USD", "XAU"))
+            .thenThrow(new IllegalArgumentException("Exchange rate not found for currency: XAU"));
+        when(currencyService.convert(any(ConversionRequest.class), any(BigDecimal.class)))
+            .thenAnswer(invocation -> {
+                ConversionRequest request = invocation.getArgument(0);
+                BigDecimal rate = invocation.getArgument(1);
+                return ConversionResponse.builder()
+                    .fromCurrency(request.getFromCurrency())
+                    .toCurrency(request.getToCurrency())
+                    .amount(request.getAmount())
+                    .convertedAmount(request.getAmount().multiply(rate).setScale(2, RoundingMode.HALF_UP))
+                    .exchangeRate(rate)
+                    .message("Conversion successful")
+                    .build();
+            });
+    }
+
+    private String perform(MediaType contentType, String body) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/currency/convert/batch")
+                .contentType(contentType)
+                .content(body))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        return mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    void testConvertBatch_JsonArray() throws Exception {
+        String body = """
+            [
+              {"fromCurrency": "USD", "toCurrency": "EUR", "amount": 100.00},
+              {"fromCurrency": "USD", "toCurrency": "EUR", "amount": 10},
+              {"fromCurrency": "USD", "toCurrency": "XAU", "amount": 5},
+              {"fromCurrency": "USD", "toCurrency": "XYZ", "amount": 5}
+            ]
+            """;
+
+        String[] lines = perform(MediaType.APPLICATION_JSON, body).split("\n");
+
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].contains("\"convertedAmount\":85.00"));
+        assertTrue(lines[1].contains("\"convertedAmount\":8.50"));
+        assertTrue(lines[2].contains("Error: Exchange rate not found for currency: XAU"));
+        // Rejected by validation without a rate lookup
+        assertTrue(lines[3].contains("Error: Unknown currency code"));
+        verify(currencyService, never()).getExchangeRate("USD", "XYZ");
+        verify(currencyService, times(1)).getExchangeRate("USD", "EUR");
+    }
+
+    @Test
+    void testConvertBatch_NdjsonWithInvalidItems() throws Exception {
+        String body = """
+            {"fromCurrency": "USD", "toCurrency": "EUR", "amount": 100.00}
+            {"fromCurrency": "USD", "toCurrency": "EUR", "amount": -1}
+            not json
+
+            {"fromCurrency": "USD", "toCurrency": "EUR", "amount": 1}
+            """;
+
+        String[] lines = perform(MediaType.APPLICATION_NDJSON, body).split("\n");
+
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].contains("\"convertedAmount\":85.00"));
+        assertTrue(lines[1].contains("Error: Amount must be positive"));
+        assertTrue(lines[2].contains("Error: Malformed request"));
+        assertTrue(lines[3].contains("\"convertedAmount\":0.85"));
+    }
+
+    @Test
+    void testConvertBatch_TransientFailureOnlyFailsItemsThatHitIt() throws Exception {
+        when(currencyService.getExchangeRate("USD", "GBP"))
+            .thenThrow(new IllegalStateException("Upstream timed out"))
+            .thenReturn(new BigDecimal("0.75"));
+        String body = """
+            {"fromCurrency": "USD", "toCurrency": "GBP", "amount": 100}
+            {"fromCurrency": "USD", "toCurrency": "GBP", "amount": 10}
+            {"fromCurrency": "USD", "toCurrency": "GBP", "amount": 20}
+            """;
+
+        String[] lines = perform(MediaType.APPLICATION_NDJSON, body).split("\n");
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("Error: Upstream timed out"));
+        assertTrue(lines[1].contains("\"convertedAmount\":7.50"));
+        assertTrue(lines[2].contains("\"convertedAmount\":15.00"));
+        // Only the successful lookup is remembered
+        verify(currencyService, times(2)).getExchangeRate("USD", "GBP");
+    }
+
+    @Test
+    void testConvertBatch_NonObjectElementsDoNotEndTheBatch() throws Exception {
+        String body = """
+            [
+              {"fromCurrency": "USD", "toCurrency": "EUR", "amount": 100.00},
+              5,
+              ["USD", "EUR", 1],
+              null,
+              {"fromCurrency": "USD", "toCurrency": "EUR", "amount": 10}
+            ]
+            """;
+
+        String[] lines = perform(MediaType.APPLICATION_JSON, body).split("\n");
+
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].contains("\"convertedAmount\":85.00"));
+        assertTrue(lines[1].contains("Error: Expected a conversion request object but found 5"));
+        assertTrue(lines[2].contains("Error: Expected a conversion request object but found an array"));
+        assertTrue(lines[3].contains("Error: Expected a conversion request object but found null"));
+        assertTrue(lines[4].contains("\"convertedAmount\":8.50"));
+    }
+
+    @Test
+    void testConvertBatch_NotAnArray() throws Exception {
+        String response = perform(MediaType.APPLICATION_JSON, "{\"fromCurrency\": \"USD\"}");
+
+        assertThat(response, containsString("Expected a JSON array"));
+    }
+
+    @Test
+    void testConvertCsv_NoRatesIsServiceUnavailable() throws Exception {
+        when(csvConversionService.pinRates()).thenThrow(new IllegalStateException("No exchange rates available"));
+
+        mockMvc.perform(post("/api/currency/convert/csv")
+                .contentType("text/csv")
+                .content("from,to,amount\nUSD,EUR,1\n"))
+            .andExpect(status().isServiceUnavailable());
+    }
+}
@@ -1,35 +1,51 @@
 package com.syskan.currencyconverter.controller;
 
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.syskan.currencyconverter.cache.RateSnapshot;
 import com.syskan.currencyconverter.dto.ConversionRequest;
 import com.syskan.currencyconverter.dto.ConversionResponse;
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
 import com.syskan.currencyconverter.service.CurrencyService;
+import com.syskan.currencyconverter.service.RenderedRates;
 
 import tools.jackson.databind.ObjectMapper;
 //import com.fasterxml.jackson.databind.ObjectMapper;
 
 
 
-@WebMvcTest(CurrencyController.class)
+@WebMvcTest(controllers = CurrencyController.class, properties = "currency.admission.enabled=false")
 class CurrencyControllerTest {
 
     @Autowired
@@ -88,6 +104,23 @@ class CurrencyControllerTest {
             .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void testConvertCurrency_UnknownCurrencyCode() throws Exception {
+        // Arrange
+        ConversionRequest request = ConversionRequest.builder()
+            .fromCurrency("USD")
+            .toCurrency("XYZ")
+            .amount(new BigDecimal("100.00"))
+            .build();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/currency/convert")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest());
+        verify(currencyService, never()).convertCurrency(any());
+    }
+
     @Test
     void testConvertCurrency_NegativeAmount() throws Exception {
         // Arrange
@@ -112,16 +145,79 @@ class CurrencyControllerTest {
         rates.put("GBP", new BigDecimal("0.73"));
         rates.put("JPY", new BigDecimal("110.50"));
 
-        when(currencyService.getAllRates("USD")).thenReturn(rates);
+        RateSnapshot snapshot = snapshot(rates);
+        when(currencyService.getRatesSnapshot("USD")).thenReturn(snapshot);
+        when(currencyService.freshFor(snapshot)).thenReturn(Duration.ofMinutes(4));
+        when(currencyService.getRenderedRates("USD", snapshot))
+            .thenReturn(RenderedRates.render("USD", snapshot.version(), rates));
 
         // Act & Assert
         mockMvc.perform(get("/api/currency/rates/USD"))
             .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"USD-ff\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=240, public"))
+            .andExpect(result -> assertTrue(
+                result.getResponse().getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING)))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
             .andExpect(jsonPath("$.EUR").value(0.85))
             .andExpect(jsonPath("$.GBP").value(0.73))
             .andExpect(jsonPath("$.JPY").value(110.50));
     }
 
+    @Test
+    void testGetExchangeRates_NotModified() throws Exception {
+        // Arrange
+        RateSnapshot snapshot = snapshot(Map.of("EUR", new BigDecimal("0.85")));
+        when(currencyService.getRatesSnapshot("USD")).thenReturn(snapshot);
+        when(currencyService.freshFor(snapshot)).thenReturn(Duration.ofMinutes(4));
+        when(currencyService.getRenderedRates("USD", snapshot))
+            .thenReturn(RenderedRates.render("USD", snapshot.version(), snapshot.rates().getRates()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/currency/rates/USD")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"USD-fe\", W/\"USD-ff\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"USD-ff\""))
+            .andExpect(content().string(""));
+        mockMvc.perform(get("/api/currency/rates/USD")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"EUR-ff\""))
+            .andExpect(status().isOk());
+
+        verify(currencyService, times(1)).getRenderedRates("USD", snapshot);
+    }
+
+    @Test
+    void testGetExchangeRates_GzipWhenAccepted() throws Exception {
+        // Arrange
+        Map<String, BigDecimal> rates = Map.of("EUR", new BigDecimal("0.85"));
+        RateSnapshot snapshot = snapshot(rates);
+        RenderedRates rendered = RenderedRates.render("USD", snapshot.version(), rates);
+        when(currencyService.getRatesSnapshot("USD")).thenReturn(snapshot);
+        when(currencyService.freshFor(snapshot)).thenReturn(Duration.ofMinutes(4));
+        when(currencyService.getRenderedRates("USD", snapshot)).thenReturn(rendered);
+
+        // Act
+        byte[] body = mockMvc.perform(get("/api/currency/rates/USD")
+                .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"USD-ff-gz\""))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("{\"EUR\":0.85}", new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        mockMvc.perform(get("/api/currency/rates/USD").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(content().json("{\"EUR\":0.85}"));
+    }
+
+    private static RateSnapshot snapshot(Map<String, BigDecimal> rates) {
+        return new RateSnapshot("USD", ExchangeRateResponse.builder().base("USD").rates(rates).build(),
+            0xff, Instant.parse("2024-12-09T08:00:00Z"));
+    }
+
     @Test
     void testCheckCurrencySupport_Supported() throws Exception {
         // Arrange
@@ -0,0 +1,82 @@
+package com.syskan.currencyconverter.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.syskan.currencyconverter.dto.ConversionResponse;
+import com.syskan.currencyconverter.service.CurrencyService;
+import com.syskan.currencyconverter.service.RateHistoryService;
+
+@WebMvcTest(controllers = RateHistoryController.class, properties = "currency.admission.enabled=false")
+class RateHistoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private RateHistoryService rateHistoryService;
+
+    @MockitoBean
+    private CurrencyService currencyService;
+
+    @Test
+    void testConvertAsOf_Success() throws Exception {
+        Instant at = Instant.parse("2024-12-09T12:00:00Z");
+        Instant effectiveAt = Instant.parse("2024-12-09T08:00:00Z");
+        when(rateHistoryService.rateAsOf("EUR", "GBP", at))
+            .thenReturn(Optional.of(new RateHistoryService.HistoricalRate(new BigDecimal("0.625"), effectiveAt)));
+        when(currencyService.convert(any(), any())).thenReturn(ConversionResponse.builder()
+            .fromCurrency("EUR")
+            .toCurrency("GBP")
+            .amount(new BigDecimal("100"))
+            .convertedAmount(new BigDecimal("62.50"))
+            .exchangeRate(new BigDecimal("0.625"))
+            .message("Conversion successful")
+            .build());
+
+        mockMvc.perform(get("/api/currency/convert/as-of")
+                .param("fromCurrency", "EUR")
+                .param("toCurrency", "GBP")
+                .param("amount", "100")
+                .param("at", "2024-12-09T12:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.convertedAmount").value(62.50))
+            .andExpect(jsonPath("$.ratesAsOf").value("2024-12-09T08:00:00Z"));
+    }
+
+    @Test
+    void testConvertAsOf_NoHistory() throws Exception {
+        when(rateHistoryService.rateAsOf(any(), any(), any())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/currency/convert/as-of")
+                .param("fromCurrency", "EUR")
+                .param("toCurrency", "GBP")
+                .param("amount", "100")
+                .param("at", "2001-01-01T00:00:00Z"))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.message").value("Error: No rate history for EUR/GBP at 2001-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void testConvertAsOf_InvalidAmount() throws Exception {
+        mockMvc.perform(get("/api/currency/convert/as-of")
+                .param("fromCurrency", "EUR")
+                .param("toCurrency", "GBP")
+                .param("amount", "-5")
+                .param("at", "2024-12-09T12:00:00Z"))
+            .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,139 @@
+package com.syskan.currencyconverter.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.dto.ConversionRequest;
+import com.syskan.currencyconverter.dto.ConversionResponse;
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+import com.syskan.currencyconverter.service.CurrencyService;
+import com.syskan.currencyconverter.service.RenderedRates;
+
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.ObjectMapper;
+
+@WebMvcTest(controllers = ReactiveCurrencyController.class, properties = {"currency.execution.mode=reactive", "currency.admission.enabled=false"})
+class ReactiveCurrencyControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private CurrencyService currencyService;
+
+    @Test
+    void testConvertCurrency_Success() throws Exception {
+        // Arrange
+        ConversionRequest request = ConversionRequest.builder()
+            .fromCurrency("USD")
+            .toCurrency("EUR")
+            .amount(new BigDecimal("100.00"))
+            .build();
+
+        ConversionResponse response = ConversionResponse.builder()
+            .fromCurrency("USD")
+            .toCurrency("EUR")
+            .amount(new BigDecimal("100.00"))
+            .convertedAmount(new BigDecimal("85.00"))
+            .exchangeRate(new BigDecimal("0.85"))
+            .timestamp(LocalDateTime.now())
+            .message("Conversion successful")
+            .build();
+
+        when(currencyService.convertCurrencyReactive(any(ConversionRequest.class)))
+            .thenReturn(Mono.just(response).delayElement(Duration.ofMillis(50)));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/currency/convert")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.convertedAmount").value(85.00))
+            .andExpect(jsonPath("$.message").value("Conversion successful"));
+    }
+
+    @Test
+    void testConvertCurrency_ValidationError() throws Exception {
+        mockMvc.perform(post("/api/currency/convert")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ConversionRequest.builder().build())))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testConvertCurrency_UpstreamFailure() throws Exception {
+        when(currencyService.convertCurrencyReactive(any(ConversionRequest.class)))
+            .thenReturn(Mono.error(new RuntimeException("Failed to convert currency: timeout")));
+
+        MvcResult result = mockMvc.perform(post("/api/currency/convert")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":1}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isInternalServerError())
+            .andExpect(jsonPath("$.message").value("Conversion failed: Failed to convert currency: timeout"));
+    }
+
+    @Test
+    void testGetExchangeRates_Success() throws Exception {
+        Map<String, BigDecimal> rates = Map.of("EUR", new BigDecimal("0.85"));
+        RateSnapshot snapshot = new RateSnapshot("USD", ExchangeRateResponse.builder().base("USD").rates(rates).build(),
+            1, Instant.now());
+        when(currencyService.getRatesSnapshotReactive("USD")).thenReturn(Mono.just(snapshot));
+        when(currencyService.freshFor(snapshot)).thenReturn(Duration.ofMinutes(10));
+        when(currencyService.getRenderedRates("USD", snapshot))
+            .thenReturn(RenderedRates.render("USD", snapshot.version(), rates));
+
+        MvcResult result = mockMvc.perform(get("/api/currency/rates/USD"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.EUR").value(0.85));
+    }
+
+    @Test
+    void testCheckCurrencySupport() throws Exception {
+        when(currencyService.isCurrencySupportedReactive("EUR")).thenReturn(Mono.just(true));
+
+        MvcResult result = mockMvc.perform(get("/api/currency/supported/EUR"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.supported").value(true));
+    }
+}
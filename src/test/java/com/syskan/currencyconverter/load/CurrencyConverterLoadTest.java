@@ -0,0 +1,136 @@
+package com.syskan.currencyconverter.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Load run against the full application and an in-process fake provider. Excluded from
+ * the normal build; run with {@code mvn -Pload-test test}. Knobs are system properties:
+ * <ul>
+ * <li>{@code load.rate} requests per second across all scenarios (200)</li>
+ * <li>{@code load.duration} (20s) and {@code load.timeout} per request (10s)</li>
+ * <li>{@code load.upstream.latency} (50ms), {@code load.upstream.error-rate} (0) and
+ * {@code load.upstream.currencies} in each rate table (160)</li>
+ * <li>{@code load.max-p99} and {@code load.max-error-rate}, which fail the run when exceeded</li>
+ * </ul>
+ * Application properties can be overridden the same way, for example
+ * {@code -Dload.upstream.latency=4s -Dcurrency.cache.ttl=2s -Dcurrency.execution.mode=reactive}.
+ * The report is printed and written to {@code target/load-test/report.txt}.
+ */
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Slf4j
+class CurrencyConverterLoadTest {
+
+    private static final FakeRateServer upstream = startUpstream();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void upstreamProperties(DynamicPropertyRegistry registry) {
+        registry.add("currency.api.base-url", upstream::baseUrl);
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.close();
+    }
+
+    @Test
+    void loadTest() throws Exception {
+        int rate = Integer.getInteger("load.rate", 200);
+        Duration duration = duration("load.duration", "20s");
+        Duration timeout = duration("load.timeout", "10s");
+        upstream.latency(duration("load.upstream.latency", "50ms"))
+            .errorRate(Double.parseDouble(System.getProperty("load.upstream.error-rate", "0")))
+            .currencies(Integer.getInteger("load.upstream.currencies", 160));
+
+        String app = "http://localhost:" + port;
+        List<LoadGenerator.Scenario> scenarios = List.of(
+            new LoadGenerator.Scenario("api-convert", () -> HttpRequest.newBuilder(URI.create(app + "/api/currency/convert"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                    "{\"fromCurrency\":\"EUR\",\"toCurrency\":\"GBP\",\"amount\":125.50}"))
+                .build(), response -> response.statusCode() == 200),
+            new LoadGenerator.Scenario("api-rates", () -> HttpRequest.newBuilder(URI.create(app + "/api/currency/rates/EUR"))
+                .GET()
+                .build(), response -> response.statusCode() == 200),
+            new LoadGenerator.Scenario("web-convert", () -> HttpRequest.newBuilder(URI.create(app + "/convert"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("fromCurrency=USD&toCurrency=JPY&amount=99.99"))
+                .build(), response -> response.statusCode() == 200 && !response.body().contains("Conversion failed")));
+
+        LoadGenerator generator = new LoadGenerator(timeout);
+        List<LoadGenerator.ScenarioResult> results;
+        try {
+            results = generator.run(scenarios, rate, duration, timeout);
+        } finally {
+            generator.close();
+        }
+
+        String report = String.format("target rate %d req/s for %s, upstream latency %s, error rate %s, "
+                + "%d upstream calls (%d failed)%n", rate, duration, System.getProperty("load.upstream.latency", "50ms"),
+                System.getProperty("load.upstream.error-rate", "0"), upstream.requestCount(), upstream.failureCount())
+            + results.stream().map(LoadGenerator.ScenarioResult::format).collect(Collectors.joining(System.lineSeparator()));
+        log.info("Load test report:{}{}", System.lineSeparator(), report);
+        writeReport(report);
+
+        for (LoadGenerator.ScenarioResult result : results) {
+            long count = result.latency.getTotalCount();
+            assertTrue(count > 0, result.scenario.name() + " sent no requests");
+            String maxP99 = System.getProperty("load.max-p99");
+            if (maxP99 != null) {
+                long p99Micros = result.latency.getValueAtPercentile(99);
+                assertTrue(p99Micros <= DurationStyle.detectAndParse(maxP99).toNanos() / 1000,
+                    result.scenario.name() + " p99 above " + maxP99 + ": " + result.format());
+            }
+            String maxErrorRate = System.getProperty("load.max-error-rate");
+            if (maxErrorRate != null) {
+                double errorRate = (double) (result.errors.sum() + result.timeouts.sum()) / count;
+                assertTrue(errorRate <= Double.parseDouble(maxErrorRate),
+                    result.scenario.name() + " error rate above " + maxErrorRate + ": " + result.format());
+            }
+        }
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+
+    private static void writeReport(String report) throws IOException {
+        Path file = Path.of("target", "load-test", "report.txt");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, report + System.lineSeparator());
+    }
+
+    private static FakeRateServer startUpstream() {
+        try {
+            return new FakeRateServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.syskan.currencyconverter.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.syskan.currencyconverter.CurrencyConverterApplication;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Throughput of {@code currency.execution.mode=blocking} against {@code reactive} under the
+ * same load. Each mode gets its own application context on a small Tomcat pool, with
+ * refresh-ahead and stale serving off and a short TTL, so callers regularly wait on a slow
+ * upstream fetch: blocking handlers hold a request thread while they wait, reactive ones
+ * do not. Admission control is off, so neither mode sheds load. Excluded from the normal build; run with
+ * {@code mvn -Pload-test test -Dtest=ExecutionModeLoadTest}. Knobs are system properties:
+ * <ul>
+ * <li>{@code load.rate} requests per second (200), {@code load.duration} (20s) after a
+ * {@code load.warmup} (5s), and {@code load.timeout} per request (10s)</li>
+ * <li>{@code load.upstream.latency} (200ms) and {@code load.compare.cache-ttl} (1s)</li>
+ * <li>{@code load.compare.threads}, the Tomcat request threads in each mode (8)</li>
+ * </ul>
+ * The report is printed and written to {@code target/load-test/execution-modes.txt}.
+ */
+@Tag("load")
+@Slf4j
+class ExecutionModeLoadTest {
+
+    private static final List<String> MODES = List.of("blocking", "reactive");
+
+    private static final FakeRateServer upstream = startUpstream();
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.close();
+    }
+
+    @Test
+    void compareExecutionModes() throws Exception {
+        int rate = Integer.getInteger("load.rate", 200);
+        Duration warmup = duration("load.warmup", "5s");
+        Duration duration = duration("load.duration", "20s");
+        Duration timeout = duration("load.timeout", "10s");
+        upstream.latency(duration("load.upstream.latency", "200ms"));
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "target rate %d req/s for %s, upstream latency %s, cache TTL %s, "
+                + "%s Tomcat threads", rate, duration, System.getProperty("load.upstream.latency", "200ms"),
+                System.getProperty("load.compare.cache-ttl", "1s"), System.getProperty("load.compare.threads", "8")));
+        List<Double> throughputs = new ArrayList<>();
+        for (String mode : MODES) {
+            try (ConfigurableApplicationContext context = start(mode)) {
+                String app = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                List<LoadGenerator.Scenario> scenarios = scenarios(app);
+                LoadGenerator generator = new LoadGenerator(timeout);
+                List<LoadGenerator.ScenarioResult> results;
+                try {
+                    generator.run(scenarios, rate, warmup, timeout);
+                    results = generator.run(scenarios, rate, duration, timeout);
+                } finally {
+                    generator.close();
+                }
+
+                long succeeded = 0;
+                for (LoadGenerator.ScenarioResult result : results) {
+                    assertTrue(result.latency.getTotalCount() > 0, mode + " " + result.scenario.name() + " sent no requests");
+                    succeeded += result.latency.getTotalCount() - result.errors.sum() - result.timeouts.sum();
+                    lines.add(String.format(Locale.ROOT, "%-9s %s", mode, result.format()));
+                }
+                double throughput = succeeded / (results.get(0).elapsedNanos / 1e9);
+                throughputs.add(throughput);
+                lines.add(String.format(Locale.ROOT, "%-9s %.1f successful req/s", mode, throughput));
+            }
+        }
+        lines.add(String.format(Locale.ROOT, "reactive/blocking throughput %.2f", throughputs.get(1) / throughputs.get(0)));
+
+        String report = String.join(System.lineSeparator(), lines);
+        log.info("Execution mode comparison:{}{}", System.lineSeparator(), report);
+        writeReport(report);
+    }
+
+    private static ConfigurableApplicationContext start(String mode) {
+        return new SpringApplicationBuilder(CurrencyConverterApplication.class)
+            .profiles("test")
+            .run("--server.port=0",
+                "--server.tomcat.threads.max=" + System.getProperty("load.compare.threads", "8"),
+                "--currency.execution.mode=" + mode,
+                "--currency.api.base-url=" + upstream.baseUrl(),
+                "--currency.cache.ttl=" + System.getProperty("load.compare.cache-ttl", "1s"),
+                "--currency.cache.refresh-ahead=0s",
+                "--currency.cache.max-stale=0s",
+                "--currency.cache.local.enabled=false",
+                "--currency.admission.enabled=false");
+    }
+
+    // Only the /api/currency endpoints have a reactive controller
+    private static List<LoadGenerator.Scenario> scenarios(String app) {
+        return List.of(
+            new LoadGenerator.Scenario("api-convert", () -> HttpRequest.newBuilder(URI.create(app + "/api/currency/convert"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                    "{\"fromCurrency\":\"EUR\",\"toCurrency\":\"GBP\",\"amount\":125.50}"))
+                .build(), response -> response.statusCode() == 200),
+            new LoadGenerator.Scenario("api-rates", () -> HttpRequest.newBuilder(URI.create(app + "/api/currency/rates/EUR"))
+                .GET()
+                .build(), response -> response.statusCode() == 200));
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+
+    private static void writeReport(String report) throws IOException {
+        Path file = Path.of("target", "load-test", "execution-modes.txt");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, report + System.lineSeparator());
+    }
+
+    private static FakeRateServer startUpstream() {
+        try {
+            return new FakeRateServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.syskan.currencyconverter.load;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process stand-in for the exchange-rate provider. Answers {@code GET /latest/{base}}
+ * after an injected delay, fails a configurable share of requests with 500, and pads the
+ * rate table to a configurable number of currencies. Settings can be changed while a load
+ * run is in progress, for example to simulate the provider slowing down.
+ */
+class FakeRateServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Map<String, byte[]> bodies = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile double errorRate;
+    private volatile int currencies = 160;
+
+    FakeRateServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // One virtual thread per exchange, so injected latency never queues requests here
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/latest/", this::handle);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/latest";
+    }
+
+    FakeRateServer latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    FakeRateServer errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    FakeRateServer currencies(int currencies) {
+        this.currencies = Math.max(4, currencies);
+        bodies.clear();
+        return this;
+    }
+
+    long requestCount() {
+        return requests.get();
+    }
+
+    long failureCount() {
+        return failures.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            sleep(latency);
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                failures.incrementAndGet();
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            String base = path.substring(path.lastIndexOf('/') + 1);
+            byte[] body = bodies.computeIfAbsent(base, this::rateTable);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * The real currencies the app and the load scenarios use, padded with synthetic
+     * three-letter codes up to the configured size.
+     */
+    private byte[] rateTable(String base) {
+        StringBuilder json = new StringBuilder(32 + currencies * 20)
+            .append("{\"base\":\"").append(base).append("\",\"date\":\"2024-12-09\",\"rates\":{")
+            .append("\"USD\":1,\"EUR\":0.85,\"GBP\":0.73,\"JPY\":150.25,\"INR\":83.12,")
+            .append("\"AUD\":1.52,\"CAD\":1.36,\"CHF\":0.88");
+        for (int i = 8; i < currencies; i++) {
+            json.append(",\"X").append((char) ('A' + i / 26 % 26)).append((char) ('A' + i % 26))
+                .append("\":").append(1 + i % 97).append('.').append(1000 + i % 9000);
+        }
+        return json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void sleep(Duration delay) {
+        if (delay.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
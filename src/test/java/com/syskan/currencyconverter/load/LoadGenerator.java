@@ -0,0 +1,123 @@
+package com.syskan.currencyconverter.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Open-model load generator: requests start on a fixed schedule whatever the state of
+ * earlier requests, and latency is measured from each request's scheduled start. A
+ * server that stalls therefore shows up as queueing delay in the percentiles rather than
+ * as fewer requests sent (no coordinated omission).
+ */
+class LoadGenerator {
+
+    private final HttpClient client;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    LoadGenerator(Duration requestTimeout) {
+        this.client = HttpClient.newBuilder()
+            .executor(executor)
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(requestTimeout)
+            .build();
+    }
+
+    /**
+     * Runs the scenarios round-robin at {@code ratePerSecond} in total for {@code duration}.
+     */
+    List<ScenarioResult> run(List<Scenario> scenarios, int ratePerSecond, Duration duration, Duration requestTimeout)
+            throws InterruptedException {
+        List<ScenarioResult> results = scenarios.stream().map(ScenarioResult::new).toList();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, ratePerSecond);
+        long total = duration.toNanos() / intervalNanos;
+        List<CompletableFuture<?>> inFlight = new ArrayList<>((int) Math.min(total, Integer.MAX_VALUE));
+
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            long wait;
+            while ((wait = scheduledAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            ScenarioResult result = results.get((int) (i % results.size()));
+            HttpRequest request = result.scenario.request().get();
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((response, failure) -> result.record(scheduledAt, response, failure)));
+        }
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .get(requestTimeout.toMillis() + 1000, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Individual failures and timeouts are already counted per scenario
+        }
+        long elapsed = System.nanoTime() - start;
+        results.forEach(result -> result.elapsedNanos = elapsed);
+        return results;
+    }
+
+    void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param success whether a completed response counts as a success
+     */
+    record Scenario(String name, Supplier<HttpRequest> request, Predicate<HttpResponse<String>> success) {
+    }
+
+    static final class ScenarioResult {
+
+        final Scenario scenario;
+        // Microseconds, up to one minute at three significant digits
+        final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        long elapsedNanos;
+
+        ScenarioResult(Scenario scenario) {
+            this.scenario = scenario;
+        }
+
+        void record(long scheduledAt, HttpResponse<String> response, Throwable failure) {
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt),
+                latency.getHighestTrackableValue()));
+            if (failure instanceof TimeoutException) {
+                timeouts.increment();
+            } else if (failure != null || !scenario.success().test(response)) {
+                errors.increment();
+            }
+        }
+
+        String format() {
+            long count = latency.getTotalCount();
+            double seconds = elapsedNanos / 1e9;
+            return String.format(Locale.ROOT,
+                "%-16s %8d req %8.1f req/s  p50 %8.2f ms  p99 %8.2f ms  p999 %8.2f ms  max %8.2f ms  errors %d  timeouts %d",
+                scenario.name(), count, count / seconds, millis(50), millis(99), millis(99.9),
+                latency.getMaxValue() / 1000.0, errors.sum(), timeouts.sum());
+        }
+
+        private double millis(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
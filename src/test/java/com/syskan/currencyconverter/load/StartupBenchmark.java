@@ -0,0 +1,189 @@
+package com.syskan.currencyconverter.load;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+/**
+ * Measures time to first successful conversion, from launching the JVM to the first 200
+ * from {@code POST /api/currency/convert}, for each startup mode the build produced:
+ * <ul>
+ * <li>{@code jar}: the executable jar</li>
+ * <li>{@code extracted}: the extracted jar from the fast-startup profile</li>
+ * <li>{@code aot}: extracted, with {@code -Dspring.aot.enabled=true}</li>
+ * <li>{@code aot+cds}: as {@code aot}, with the trained CDS archive</li>
+ * <li>{@code crac}: restored from a checkpoint taken once the context is refreshed; only
+ * with {@code -Dstartup.crac=true} on a CRaC-enabled JDK</li>
+ * </ul>
+ * Each run starts a fresh JVM against an in-process fake provider, without a local
+ * snapshot file. Run with {@code mvn -Pfast-startup,startup-benchmark -DskipTests verify};
+ * the report is printed and written to {@code target/startup-benchmark/report.txt}.
+ */
+public final class StartupBenchmark {
+
+    private static final List<String> JVM_OPTIONS = List.of("-Xmx512m", "-Xms256m");
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Path jar = Path.of(System.getProperty("startup.jar"));
+    private final Path dir = Path.of(System.getProperty("startup.dir"));
+    private final int runs = Integer.getInteger("startup.runs", 5);
+    private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    private final Path logs = Path.of("target", "startup-benchmark");
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final FakeRateServer upstream;
+
+    private StartupBenchmark(FakeRateServer upstream) {
+        this.upstream = upstream;
+    }
+
+    public static void main(String[] args) throws Exception {
+        try (FakeRateServer upstream = new FakeRateServer()) {
+            new StartupBenchmark(upstream).run();
+        }
+    }
+
+    private void run() throws Exception {
+        Files.createDirectories(logs);
+        Path extracted = dir.resolve(jar.getFileName());
+        Path archive = dir.resolve("application.jsa");
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("jar", List.of("-jar", jar.toString()));
+        if (Files.isRegularFile(extracted)) {
+            modes.put("extracted", List.of("-jar", extracted.toString()));
+            if (hasAotClasses(extracted)) {
+                modes.put("aot", List.of("-Dspring.aot.enabled=true", "-jar", extracted.toString()));
+                // The JVM rejects an archive trained on an earlier extraction of the jar
+                if (Files.isRegularFile(archive)
+                        && Files.getLastModifiedTime(archive).compareTo(Files.getLastModifiedTime(extracted)) >= 0) {
+                    modes.put("aot+cds", List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+                        "-jar", extracted.toString()));
+                }
+            }
+        }
+
+        Map<String, long[]> results = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+            long[] millis = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                int port = freePort();
+                List<String> command = new ArrayList<>(List.of(java));
+                command.addAll(JVM_OPTIONS);
+                command.addAll(mode.getValue());
+                command.addAll(applicationArguments(port, run));
+                millis[run] = timeToFirstConversion(mode.getKey() + "-" + run, command, port);
+            }
+            results.put(mode.getKey(), millis);
+        }
+        if (Boolean.getBoolean("startup.crac") && Files.isRegularFile(extracted)) {
+            results.put("crac", crac(extracted));
+        }
+
+        StringBuilder report = new StringBuilder(String.format("%-10s %8s %8s %8s  (ms to first conversion, %d runs)%n",
+            "mode", "min", "median", "max", runs));
+        results.forEach((mode, millis) -> {
+            Arrays.sort(millis);
+            report.append(String.format("%-10s %8d %8d %8d%n", mode, millis[0], millis[millis.length / 2],
+                millis[millis.length - 1]));
+        });
+        System.out.print(report);
+        Files.writeString(logs.resolve("report.txt"), report);
+    }
+
+    private List<String> applicationArguments(int port, int run) {
+        return List.of(
+            "--server.port=" + port,
+            "--currency.api.base-url=" + upstream.baseUrl(),
+            "--currency.cache.local.path=" + logs.resolve("rates-" + run + "-" + System.nanoTime() + ".snapshot"));
+    }
+
+    /**
+     * Takes one checkpoint at context refresh, then times restores from it. The port and
+     * provider are those of the checkpointed run.
+     */
+    private long[] crac(Path extracted) throws Exception {
+        Path image = dir.resolve("crac");
+        int port = freePort();
+        List<String> checkpoint = new ArrayList<>(List.of(java));
+        checkpoint.addAll(JVM_OPTIONS);
+        checkpoint.addAll(List.of("-XX:CRaCCheckpointTo=" + image, "-Dspring.context.checkpoint=onRefresh",
+            "-jar", extracted.toString()));
+        checkpoint.addAll(applicationArguments(port, -1));
+        Process process = start("crac-checkpoint", checkpoint);
+        if (!process.waitFor(STARTUP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Checkpoint did not complete; see " + logs.resolve("crac-checkpoint.log"));
+        }
+
+        long[] millis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            millis[run] = timeToFirstConversion("crac-" + run, List.of(java, "-XX:CRaCRestoreFrom=" + image), port);
+        }
+        return millis;
+    }
+
+    private long timeToFirstConversion(String name, List<String> command, int port) throws Exception {
+        HttpRequest convert = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/currency/convert"))
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofSeconds(10))
+            .POST(HttpRequest.BodyPublishers.ofString("{\"fromCurrency\":\"EUR\",\"toCurrency\":\"GBP\",\"amount\":125.50}"))
+            .build();
+        long started = System.nanoTime();
+        Process process = start(name, command);
+        try {
+            while (System.nanoTime() - started < STARTUP_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(name + " exited with " + process.exitValue() + "; see "
+                        + logs.resolve(name + ".log"));
+                }
+                try {
+                    if (client.send(convert, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException(name + " did not convert within " + STARTUP_TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private Process start(String name, List<String> command) throws IOException {
+        return new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(logs.resolve(name + ".log").toFile())
+            .start();
+    }
+
+    private static boolean hasAotClasses(Path jar) throws IOException {
+        try (JarFile file = new JarFile(jar.toFile())) {
+            return file.getEntry("com/syskan/currencyconverter/CurrencyConverterApplication__ApplicationContextInitializer.class")
+                != null;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
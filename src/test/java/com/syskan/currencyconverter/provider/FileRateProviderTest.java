@@ -0,0 +1,36 @@
+package com.syskan.currencyconverter.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+class FileRateProviderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testFetch_ReadsTableForBase() throws IOException {
+        Files.writeString(directory.resolve("USD.json"),
+            "{\"base\":\"USD\",\"date\":\"2024-12-09\",\"rates\":{\"EUR\":0.85,\"GBP\":0.73}}");
+
+        ExchangeRateResponse response = new FileRateProvider("file", directory).fetch("USD").block();
+
+        assertEquals("USD", response.getBase());
+        assertEquals(new BigDecimal("0.85"), response.getRates().get("EUR"));
+    }
+
+    @Test
+    void testFetch_EmptyWhenBaseHasNoFile() {
+        assertNull(new FileRateProvider("file", directory).fetch("EUR").block());
+    }
+}
@@ -0,0 +1,169 @@
+package com.syskan.currencyconverter.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class HedgingRateRouterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static ExchangeRateResponse rates(String source) {
+        return ExchangeRateResponse.builder()
+            .base("USD")
+            .date(source)
+            .rates(Map.of("EUR", new BigDecimal("0.85")))
+            .build();
+    }
+
+    private static CurrencyProperties.Providers config() {
+        CurrencyProperties.Providers config = new CurrencyProperties.Providers();
+        config.setInitialHedgeDelay(Duration.ofMillis(50));
+        config.setMinHedgeDelay(Duration.ofMillis(10));
+        config.setMinSamples(2);
+        return config;
+    }
+
+    private HedgingRateRouter router(CurrencyProperties.Providers config, RateProvider... providers) {
+        return new HedgingRateRouter(List.of(providers), config, meterRegistry, System::nanoTime);
+    }
+
+    private static FakeProvider provider(String name, Supplier<Mono<ExchangeRateResponse>> reply) {
+        return new FakeProvider(name, reply);
+    }
+
+    @Test
+    void testFetch_HedgesToSecondaryWhenPrimaryIsSlow() {
+        FakeProvider primary = provider("primary", () -> Mono.delay(Duration.ofSeconds(5)).thenReturn(rates("primary")));
+        FakeProvider secondary = provider("secondary", () -> Mono.just(rates("secondary")));
+
+        long start = System.nanoTime();
+        ExchangeRateResponse response = router(config(), primary, secondary).fetch("USD").block();
+
+        assertEquals("secondary", response.getDate());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        assertEquals(1.0, meterRegistry.get("currency.provider.hedges").counter().count());
+        assertEquals(1, meterRegistry.get("currency.provider.fetch")
+            .tags("provider", "primary", "outcome", "cancelled").timer().count());
+        // The cancelled fetch says nothing about how long the primary takes
+        assertTrue(Double.isNaN(meterRegistry.get("currency.provider.latency.p95")
+            .tags("provider", "primary").timeGauge().value()));
+    }
+
+    @Test
+    void testFetch_PrimaryAnsweringInTimeIsNotHedged() {
+        FakeProvider primary = provider("primary", () -> Mono.just(rates("primary")));
+        FakeProvider secondary = provider("secondary", () -> Mono.just(rates("secondary")));
+
+        assertEquals("primary", router(config(), primary, secondary).fetch("USD").block().getDate());
+        assertEquals(0, secondary.calls.get());
+    }
+
+    @Test
+    void testFetch_FailsOverImmediatelyWithoutHedging() {
+        CurrencyProperties.Providers config = config();
+        config.setHedge(false);
+        FakeProvider primary = provider("primary", () -> Mono.error(new IllegalStateException("down")));
+        FakeProvider secondary = provider("secondary", () -> Mono.just(rates("secondary")));
+
+        assertEquals("secondary", router(config, primary, secondary).fetch("USD").block().getDate());
+    }
+
+    @Test
+    void testFetch_SurfacesProviderErrorWhenAllFail() {
+        IllegalStateException failure = new IllegalStateException("down");
+        FakeProvider primary = provider("primary", () -> Mono.error(failure));
+        FakeProvider secondary = provider("secondary", () -> Mono.error(new IllegalStateException("also down")));
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+            () -> router(config(), primary, secondary).fetch("USD").block());
+        assertTrue(thrown.getMessage().contains("down"));
+    }
+
+    @Test
+    void testFetch_EmptyWhenNoProviderQuotesBase() {
+        FakeProvider primary = provider("primary", Mono::empty);
+        FakeProvider secondary = provider("secondary", Mono::empty);
+
+        assertNull(router(config(), primary, secondary).fetch("XYZ").block());
+    }
+
+    @Test
+    void testRanking_PromotesFasterProvider() {
+        FakeProvider slow = provider("slow", () -> Mono.delay(Duration.ofMillis(300)).thenReturn(rates("slow")));
+        FakeProvider fast = provider("fast", () -> Mono.just(rates("fast")));
+        HedgingRateRouter router = router(config(), slow, fast);
+
+        assertSame(slow, router.ranking().get(0));
+        router.fetch("USD").block();
+        router.fetch("USD").block();
+
+        assertSame(fast, router.ranking().get(0));
+        assertEquals("fast", router.fetch("USD").block().getDate());
+        assertEquals(2, slow.calls.get());
+    }
+
+    @Test
+    void testRanking_EmptyRepliesCountAsFailures() {
+        FakeProvider hollow = provider("hollow", Mono::empty);
+        FakeProvider solid = provider("solid", () -> Mono.delay(Duration.ofMillis(20)).thenReturn(rates("solid")));
+        HedgingRateRouter router = router(config(), hollow, solid);
+
+        assertEquals("solid", router.fetch("USD").block().getDate());
+        assertEquals("solid", router.fetch("USD").block().getDate());
+
+        assertSame(solid, router.ranking().get(0));
+    }
+
+    @Test
+    void testStaticProvider_RebasesTable() {
+        StaticRateProvider provider = new StaticRateProvider("static", "USD",
+            Map.of("EUR", new BigDecimal("0.80"), "GBP", new BigDecimal("0.50")));
+
+        ExchangeRateResponse eur = provider.fetch("EUR").block();
+
+        assertEquals("EUR", eur.getBase());
+        assertEquals(0, new BigDecimal("1.25").compareTo(eur.getRates().get("USD")));
+        assertEquals(0, new BigDecimal("0.625").compareTo(eur.getRates().get("GBP")));
+        assertNull(provider.fetch("XYZ").block());
+    }
+
+    private static final class FakeProvider implements RateProvider {
+        private final String name;
+        private final Supplier<Mono<ExchangeRateResponse>> reply;
+        final AtomicInteger calls = new AtomicInteger();
+
+        FakeProvider(String name, Supplier<Mono<ExchangeRateResponse>> reply) {
+            this.name = name;
+            this.reply = reply;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Mono<ExchangeRateResponse> fetch(String baseCurrency) {
+            calls.incrementAndGet();
+            return reply.get();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.syskan.currencyconverter.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+class RatePayloadDecoderTest {
+
+    private static final String PAYLOAD = """
+        {"provider":"https://www.exchangerate-api.com","base":"USD","date":"2024-12-09",
+         "time_last_updated":1733702401,"nested":{"a":[1,2,{"b":3}]},
+         "rates":{"USD":1,"EUR":0.85,"JPY":110.500,"XAU":0.000412,"BTC":-1.5,
+                  "BIG":123456789012345678901234567890.123456,"EXP":1.5E-3,"NIL":null}}
+        """;
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testDecode_MatchesDataBinding() {
+        ExchangeRateResponse decoded = RatePayloadDecoder.decode(bytes(PAYLOAD));
+        ExchangeRateResponse bound = JsonMapper.builder().build().readValue(PAYLOAD, ExchangeRateResponse.class);
+
+        assertEquals("USD", decoded.getBase());
+        assertEquals("2024-12-09", decoded.getDate());
+        // Same values and scales, minus the null entry binding keeps
+        bound.getRates().remove("NIL");
+        assertEquals(bound.getRates(), decoded.getRates());
+        assertEquals(new BigDecimal("110.500"), decoded.getRates().get("JPY"));
+        assertEquals(new BigDecimal("0.0015"), decoded.getRates().get("EXP"));
+    }
+
+    @Test
+    void testDecode_InternsCurrencyCodes() {
+        Map<String, BigDecimal> first = RatePayloadDecoder.decode(bytes(PAYLOAD)).getRates();
+        Map<String, BigDecimal> second = RatePayloadDecoder.decode(bytes(PAYLOAD)).getRates();
+
+        assertSame(first.keySet().iterator().next(), second.keySet().iterator().next());
+        assertSame("EUR", first.keySet().stream().filter("EUR"::equals).findFirst().orElseThrow());
+    }
+
+    @Test
+    void testDecode_RejectsMalformedPayloads() {
+        assertThrows(JacksonException.class, () -> RatePayloadDecoder.decode(bytes("[1,2]")));
+        assertThrows(JacksonException.class, () -> RatePayloadDecoder.decode(bytes("{\"rates\":{\"EUR\":\"x\"}}")));
+        assertThrows(JacksonException.class, () -> RatePayloadDecoder.decode(bytes("{\"rates\":{\"EUR\":0.8")));
+    }
+
+    @Test
+    void testFindRate_StopsAtTheRequestedQuote() {
+        // Everything after EUR is garbage, so this only passes if parsing stops there
+        byte[] truncated = bytes("{\"base\":\"USD\",\"rates\":{\"GBP\":[0.73],\"EUR\":0.85,\"JPY\":!!!");
+
+        assertEquals(new BigDecimal("0.85"), RatePayloadDecoder.findRate(truncated, "EUR"));
+        assertEquals(new BigDecimal("0.000412"), RatePayloadDecoder.findRate(bytes(PAYLOAD), "XAU"));
+        assertNull(RatePayloadDecoder.findRate(bytes(PAYLOAD), "CHF"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.syskan.currencyconverter.rates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class CompactRatesTest {
+
+    @Test
+    void testBuild_SortsCodesAndKeepsLastDuplicate() {
+        BigDecimal big = new BigDecimal("123456789012345678901234567890.5");
+        CompactRates rates = CompactRates.builder(2)
+            .put("JPY", 110500, 3)
+            .put("EUR", 85, 2)
+            .put("VES", big)
+            .put("EUR", 86, 2)
+            .build();
+
+        assertEquals(List.of("EUR", "JPY", "VES"), List.copyOf(rates.keySet()));
+        assertEquals(new BigDecimal("0.86"), rates.get("EUR"));
+        assertEquals(new BigDecimal("110.500"), rates.get("JPY"));
+        assertSame(big, rates.get("VES"));
+        assertEquals(110.5, rates.doubleValue(rates.indexOf("JPY")));
+        assertTrue(rates.containsKey("JPY"));
+        assertFalse(rates.containsKey("GBP"));
+        assertNull(rates.get("GBP"));
+    }
+
+    @Test
+    void testGet_ReusesDecimalAndEqualsOrdinaryMap() {
+        CompactRates rates = CompactRates.builder(1).put("EUR", 85, 2).build();
+
+        assertSame(rates.get("EUR"), rates.get("EUR"));
+        assertEquals(Map.of("EUR", new BigDecimal("0.85")), rates);
+        assertEquals(rates, Map.of("EUR", new BigDecimal("0.85")));
+    }
+}
@@ -0,0 +1,102 @@
+package com.syskan.currencyconverter.rates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+class CrossRateMatrixTest {
+
+    private CrossRateMatrix usdMatrix() {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        rates.put("EUR", new BigDecimal("0.80"));
+        rates.put("GBP", new BigDecimal("0.50"));
+        rates.put("JPY", new BigDecimal("150.00"));
+
+        return CrossRateMatrix.from(RateSnapshot.fetched("USD", ExchangeRateResponse.builder()
+            .base("USD")
+            .rates(rates)
+            .build()));
+    }
+
+    @Test
+    void testRate_AnchorPairsUseSnapshotValues() {
+        CrossRateMatrix matrix = usdMatrix();
+
+        assertEquals(new BigDecimal("0.80"), matrix.rate("USD", "EUR"));
+        assertEquals(4, matrix.size());
+    }
+
+    @Test
+    void testRate_DerivesCrossRatesFromAnchor() {
+        CrossRateMatrix matrix = usdMatrix();
+
+        assertEquals(new BigDecimal("0.625"), matrix.rate("EUR", "GBP"));
+        assertEquals(new BigDecimal("187.5"), matrix.rate("EUR", "JPY"));
+        assertEquals(new BigDecimal("2"), matrix.rate("GBP", "USD"));
+        assertEquals(new BigDecimal("1"), matrix.rate("JPY", "JPY"));
+    }
+
+    @Test
+    void testRate_UnknownCurrency() {
+        CrossRateMatrix matrix = usdMatrix();
+
+        assertNull(matrix.rate("EUR", "XYZ"));
+        assertNull(matrix.rate("XYZ", "EUR"));
+        assertFalse(matrix.contains("XYZ"));
+        assertTrue(matrix.contains("USD"));
+    }
+
+    @Test
+    void testRatesFor_NonAnchorBase() {
+        Map<String, BigDecimal> rates = usdMatrix().ratesFor("GBP");
+
+        assertEquals(4, rates.size());
+        assertEquals(new BigDecimal("2"), rates.get("USD"));
+        assertEquals(new BigDecimal("1.6"), rates.get("EUR"));
+        assertEquals(new BigDecimal("300"), rates.get("JPY"));
+        assertNull(usdMatrix().ratesFor("XYZ"));
+    }
+
+    @Test
+    void testRate_CrossRateMatchesDirectDivision() {
+        // The exact quotient is a tie at the eleventh digit; going through a double rounds it the wrong way
+        BigDecimal sek = new BigDecimal("9.83");
+        BigDecimal nok = new BigDecimal("1.2217572363405");
+        CrossRateMatrix matrix = CrossRateMatrix.from(RateSnapshot.fetched("USD", ExchangeRateResponse.builder()
+            .base("USD")
+            .rates(Map.of("SEK", sek, "NOK", nok))
+            .build()));
+
+        BigDecimal direct = nok.divide(sek, new MathContext(10, RoundingMode.HALF_EVEN));
+        assertEquals(new BigDecimal("0.1242886304"), direct);
+        assertEquals(direct, matrix.rate("SEK", "NOK"));
+        assertEquals(direct, matrix.ratesFor("SEK").get("NOK"));
+    }
+
+    @Test
+    void testEngineInstall_KeepsNewerMatrixOverOlderSnapshot() {
+        CrossRateEngine engine = new CrossRateEngine("USD");
+        engine.onRatesLoaded("USD", new RateSnapshot("USD", ExchangeRateResponse.builder()
+            .base("USD").rates(Map.of("EUR", new BigDecimal("0.90"))).build(), 2, Instant.now()));
+
+        // A slow load finishing after a newer broadcast was installed
+        engine.onRatesLoaded("USD", new RateSnapshot("USD", ExchangeRateResponse.builder()
+            .base("USD").rates(Map.of("EUR", new BigDecimal("0.80"))).build(), 1, Instant.now()));
+
+        assertEquals(2, engine.current().snapshot().version());
+        assertEquals(new BigDecimal("0.90"), engine.current().rate("USD", "EUR"));
+    }
+}
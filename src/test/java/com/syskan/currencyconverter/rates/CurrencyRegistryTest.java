@@ -0,0 +1,85 @@
+package com.syskan.currencyconverter.rates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+import com.syskan.currencyconverter.model.CurrencyInfo;
+
+class CurrencyRegistryTest {
+
+    private static RateSnapshot snapshot(String base, long version, Map<String, BigDecimal> rates) {
+        return new RateSnapshot(base, ExchangeRateResponse.builder().base(base).rates(rates).build(),
+            version, Instant.now());
+    }
+
+    @Test
+    void testCurrencyCodes_SlotsInternAndOrdinals() {
+        assertEquals(0, CurrencyCodes.slot("AAA"));
+        assertEquals(26 * 26 * 26 - 1, CurrencyCodes.slot("ZZZ"));
+        assertEquals(-1, CurrencyCodes.slot("usd"));
+        assertEquals(-1, CurrencyCodes.slot("US"));
+        assertEquals(-1, CurrencyCodes.slot(null));
+
+        assertTrue(CurrencyCodes.isRegistered("EUR"));
+        // Looking up an unknown code does not register it
+        int size = CurrencyCodes.size();
+        assertFalse(CurrencyCodes.isRegistered("QQQ"));
+        assertEquals(-1, CurrencyCodes.ordinal("QQQ"));
+        assertEquals(size, CurrencyCodes.size());
+        assertSame("EUR", CurrencyCodes.intern(new String("EUR")));
+        assertEquals("EUR", CurrencyCodes.code(CurrencyCodes.ordinal("EUR")));
+
+        // Codes outside ISO 4217 are registered when first seen, with a fresh ordinal
+        String code = CurrencyCodes.intern(new String("QQZ"));
+        assertSame(code, CurrencyCodes.intern("QQZ"));
+        assertTrue(CurrencyCodes.ordinal("QQZ") >= CurrencyCodes.ordinal("ZWL"));
+        assertEquals(new CurrencyInfo("QQZ", "QQZ", "QQZ"), CurrencyCodes.info("QQZ"));
+        assertEquals("Euro", CurrencyCodes.info("EUR").getName());
+    }
+
+    @Test
+    void testInstall_SupportsAnchorAndPositiveRates() {
+        CurrencyRegistry registry = new CurrencyRegistry("USD");
+        assertFalse(registry.isLoaded());
+        assertFalse(registry.isSupported("USD"));
+
+        registry.onRatesLoaded("USD", snapshot("USD", 1, Map.of(
+            "EUR", new BigDecimal("0.85"), "GGP", new BigDecimal("0.79"), "ZZZ", BigDecimal.ZERO)));
+
+        assertTrue(registry.isLoaded());
+        assertTrue(registry.isSupported("USD"));
+        assertTrue(registry.isSupported("EUR"));
+        assertTrue(registry.isSupported("GGP"));
+        assertFalse(registry.isSupported("ZZZ"));
+        assertFalse(registry.isSupported("JPY"));
+        assertFalse(registry.isSupported("eur"));
+        assertEquals(3, registry.supportedCount());
+        assertEquals(List.of("EUR", "USD", "GGP"),
+            registry.supportedCurrencies().stream().map(CurrencyInfo::getCode).toList());
+    }
+
+    @Test
+    void testInstall_IgnoresOtherBasesAndOlderVersions() {
+        CurrencyRegistry registry = new CurrencyRegistry("USD");
+        registry.install(snapshot("USD", 2, Map.of("EUR", new BigDecimal("0.85"))));
+
+        registry.onRatesLoaded("EUR", snapshot("EUR", 3, Map.of("JPY", new BigDecimal("160"))));
+        registry.install(snapshot("USD", 1, Map.of("JPY", new BigDecimal("150"))));
+        assertFalse(registry.isSupported("JPY"));
+
+        registry.install(snapshot("USD", 3, Map.of("JPY", new BigDecimal("150"))));
+        assertTrue(registry.isSupported("JPY"));
+        assertFalse(registry.isSupported("EUR"));
+    }
+}
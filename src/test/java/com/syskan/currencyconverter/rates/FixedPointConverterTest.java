@@ -0,0 +1,68 @@
+package com.syskan.currencyconverter.rates;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class FixedPointConverterTest {
+
+    private final FixedPointConverter halfUp = new FixedPointConverter(RoundingMode.HALF_UP);
+
+    @Test
+    void testConvert_MatchesBigDecimalForTwoDecimalCurrencies() {
+        Random random = new Random(42);
+        for (RoundingMode mode : RoundingMode.values()) {
+            if (mode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            FixedPointConverter converter = new FixedPointConverter(mode);
+            for (int i = 0; i < 10_000; i++) {
+                BigDecimal amount = BigDecimal.valueOf(random.nextLong(-100_000_000_00L, 100_000_000_00L),
+                    random.nextInt(0, 4));
+                BigDecimal rate = BigDecimal.valueOf(random.nextLong(1, 10_000_000_000L), random.nextInt(0, 11));
+
+                BigDecimal expected = amount.multiply(rate).setScale(2, mode);
+                assertEquals(expected, converter.convert(amount, rate, "EUR"), () -> amount + " x " + rate + " " + mode);
+            }
+        }
+    }
+
+    @Test
+    void testConvert_UsesTargetMinorUnits() {
+        BigDecimal amount = new BigDecimal("100.00");
+
+        assertEquals(new BigDecimal("15051"), halfUp.convert(amount, new BigDecimal("150.505"), "JPY"));
+        assertEquals(new BigDecimal("30.746"), halfUp.convert(amount, new BigDecimal("0.307455"), "KWD"));
+        assertEquals(new BigDecimal("85.00"), halfUp.convert(amount, new BigDecimal("0.85"), "EUR"));
+        // Codes the JDK does not know keep two decimals
+        assertEquals(new BigDecimal("12.35"), halfUp.convert(BigDecimal.ONE, new BigDecimal("12.345"), "XYZ"));
+    }
+
+    @Test
+    void testConvert_FallsBackToBigDecimalOnOverflow() {
+        BigDecimal amount = new BigDecimal("9000000000000000");
+        BigDecimal rate = new BigDecimal("12345.6789");
+
+        assertEquals(FixedPointConverter.OVERFLOW,
+            FixedPointConverter.multiplyAndRound(9_000_000_000_000_000L, 0, 123_456_789L, 4, 2, RoundingMode.HALF_UP));
+        assertEquals(amount.multiply(rate).setScale(2, RoundingMode.HALF_UP), halfUp.convert(amount, rate, "USD"));
+        BigDecimal wide = new BigDecimal("1234567890.1234567890123");
+        assertEquals(wide.multiply(rate).setScale(0, RoundingMode.HALF_UP), halfUp.convert(wide, rate, "JPY"));
+    }
+
+    @Test
+    void testMultiplyAndRound_HalfEvenAndUnnecessary() {
+        // 0.125 and 0.135 to two decimals
+        assertEquals(12, FixedPointConverter.multiplyAndRound(125, 3, 1, 0, 2, RoundingMode.HALF_EVEN));
+        assertEquals(14, FixedPointConverter.multiplyAndRound(135, 3, 1, 0, 2, RoundingMode.HALF_EVEN));
+        assertEquals(-13, FixedPointConverter.multiplyAndRound(-125, 3, 1, 0, 2, RoundingMode.HALF_UP));
+        assertEquals(120, FixedPointConverter.multiplyAndRound(12, 1, 1, 0, 2, RoundingMode.UNNECESSARY));
+        assertThrows(ArithmeticException.class,
+            () -> FixedPointConverter.multiplyAndRound(125, 3, 1, 0, 2, RoundingMode.UNNECESSARY));
+    }
+}
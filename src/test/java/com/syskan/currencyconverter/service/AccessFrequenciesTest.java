@@ -0,0 +1,47 @@
+package com.syskan.currencyconverter.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class AccessFrequenciesTest {
+
+    private final AccessFrequencies frequencies = new AccessFrequencies(1024);
+
+    @Test
+    void testTopBases_RanksMostRequestedFirst() {
+        record(30, "EUR", "GBP");
+        record(20, "USD", "JPY");
+        record(5, "CHF", "EUR");
+        frequencies.recordBase("XYZ");
+
+        List<AccessFrequencies.Ranked> top = frequencies.topBases(2);
+
+        assertEquals(List.of("EUR", "USD"), top.stream().map(AccessFrequencies.Ranked::key).toList());
+        assertTrue(top.get(0).frequency() >= 30);
+        assertEquals(0, frequencies.baseFrequency("XYZ"));
+    }
+
+    @Test
+    void testTopPairs_RanksPairsOfTheGivenBases() {
+        record(30, "EUR", "GBP");
+        record(10, "EUR", "USD");
+        record(20, "USD", "JPY");
+        record(50, "CHF", "EUR");
+
+        List<AccessFrequencies.Ranked> pairs = frequencies.topPairs(2,
+            List.of(new AccessFrequencies.Ranked("EUR", 40), new AccessFrequencies.Ranked("USD", 20)));
+
+        assertEquals(List.of("EUR/GBP", "USD/JPY"), pairs.stream().map(AccessFrequencies.Ranked::key).toList());
+        assertTrue(frequencies.pairFrequency("CHF", "EUR") >= 50);
+    }
+
+    private void record(int times, String from, String to) {
+        for (int i = 0; i < times; i++) {
+            frequencies.recordPair(from, to);
+        }
+    }
+}
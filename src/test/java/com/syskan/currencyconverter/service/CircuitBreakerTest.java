@@ -0,0 +1,99 @@
+package com.syskan.currencyconverter.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 2, Duration.ofSeconds(30),
+        failure -> !(failure instanceof IllegalArgumentException), meterRegistry, clock::get);
+
+    private Mono<String> call(Mono<String> outcome) {
+        return breaker.protect(() -> {
+            calls.incrementAndGet();
+            return outcome;
+        });
+    }
+
+    private void fail() {
+        assertThrows(IllegalStateException.class,
+            () -> call(Mono.error(new IllegalStateException("down"))).block());
+    }
+
+    @Test
+    void testProtect_OpensAfterConsecutiveFailuresAndFailsFast() {
+        fail();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        fail();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        assertThrows(CircuitBreaker.CircuitOpenException.class, () -> call(Mono.just("rates")).block());
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.get("currency.circuit.rejected").counter().count());
+        assertEquals(2.0, meterRegistry.get("currency.circuit.state").gauge().value());
+    }
+
+    @Test
+    void testProtect_SuccessResetsFailureCount() {
+        fail();
+        call(Mono.just("rates")).block();
+        fail();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void testProtect_IgnoredFailuresDoNotOpen() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalArgumentException.class,
+                () -> call(Mono.error(new IllegalArgumentException("bad base"))).block());
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void testProtect_SuccessfulProbeClosesCircuit() {
+        fail();
+        fail();
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertEquals("rates", call(Mono.just("rates")).block());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void testProtect_FailedProbeReopensCircuit() {
+        fail();
+        fail();
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        fail();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertThrows(CircuitBreaker.CircuitOpenException.class, () -> call(Mono.just("rates")).block());
+    }
+
+    @Test
+    void testProtect_LetsOneProbeThroughAtATime() {
+        fail();
+        fail();
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        call(Mono.never()).subscribe();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertThrows(CircuitBreaker.CircuitOpenException.class, () -> call(Mono.just("rates")).block());
+    }
+}
@@ -0,0 +1,127 @@
+package com.syskan.currencyconverter.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.provider.StaticRateProvider;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CsvConversionServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CurrencyService currencyService;
+    private CsvConversionService csv;
+
+    @BeforeEach
+    void setUp() {
+        CurrencyProperties properties = new CurrencyProperties();
+        properties.getCsv().setParallelism(4);
+        properties.getCsv().setChunkSize(3);
+        properties.getCsv().setMaxChunksInFlight(2);
+        properties.getCsv().setProgressInterval(10);
+        currencyService = new CurrencyService(
+            new StaticRateProvider("static", "USD", Map.of("EUR", new BigDecimal("0.85"), "JPY", new BigDecimal("150"))),
+            properties, new InMemorySnapshotStore(), mock(RateHistoryService.class), meterRegistry);
+        csv = new CsvConversionService(currencyService, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        csv.shutdown();
+        currencyService.shutdown();
+    }
+
+    private String convert(String input, List<CsvConversionService.Progress> progress) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        csv.convert(csv.pinRates(), new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output,
+            progress::add);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testConvert_KeepsRowsInOrderAcrossChunks() {
+        StringBuilder input = new StringBuilder("id,amount,fromCurrency,toCurrency\n");
+        for (int i = 1; i <= 100; i++) {
+            input.append(i).append(',').append(i).append(",USD,EUR\n");
+        }
+        List<CsvConversionService.Progress> progress = new ArrayList<>();
+
+        String[] lines = convert(input.toString(), progress).split("\n");
+
+        assertEquals(101, lines.length);
+        assertEquals("id,amount,fromCurrency,toCurrency,exchangeRate,convertedAmount,error", lines[0]);
+        for (int i = 1; i <= 100; i++) {
+            String expected = new BigDecimal(i).multiply(new BigDecimal("0.85")).setScale(2).toPlainString();
+            assertEquals(i + "," + i + ",USD,EUR,0.85," + expected + ",", lines[i]);
+        }
+        assertEquals(10, progress.size());
+        assertEquals(100, progress.get(progress.size() - 1).rows());
+        assertEquals(100.0, meterRegistry.get("currency.csv.rows").tag("result", "success").counter().count());
+    }
+
+    @Test
+    void testConvert_ReportsBadRowsWithoutStopping() {
+        String input = """
+            "memo, with comma",From,To,Amount
+            "say ""hi""\",eur,jpy,10
+            x,USD,XYZ,1
+            y,USD,EUR,-5
+            z,USD,EUR,abc
+            w,U5D,EUR,1
+            """;
+
+        String[] lines = convert(input, new ArrayList<>()).split("\n");
+
+        assertEquals(6, lines.length);
+        assertTrue(lines[1].startsWith("\"say \"\"hi\"\"\",eur,jpy,10,"), lines[1]);
+        assertTrue(lines[1].endsWith(",1765,"), lines[1]);
+        assertEquals("x,USD,XYZ,1,,,\"Error: Exchange rate not found for currency: XYZ\"", lines[2]);
+        assertTrue(lines[3].endsWith("\"Error: Amount must be positive\""));
+        assertTrue(lines[4].endsWith("\"Error: Invalid amount: abc\""));
+        assertEquals("w,U5D,EUR,1,,,\"Error: Invalid currency code: U5D\"", lines[5]);
+    }
+
+    @Test
+    void testConvert_RequiresColumns() {
+        assertThrows(IllegalArgumentException.class, () -> convert("from,to,value\nUSD,EUR,1\n", new ArrayList<>()));
+    }
+
+    @Test
+    void testConvert_UsesRatesPinnedAtStart() {
+        var rates = csv.pinRates();
+        RateSnapshot pinned = rates.snapshot();
+
+        currencyService.getRateCache().invalidateAll();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CsvConversionService.Progress done = csv.convert(rates,
+            new ByteArrayInputStream("from,to,amount\nUSD,EUR,1\n".getBytes(StandardCharsets.UTF_8)), output, p -> { });
+
+        assertEquals(pinned.version(), done.snapshotVersion());
+        assertEquals(1, done.rows());
+    }
+
+    @Test
+    void testFields_HandlesQuotesAndMissingFields() {
+        assertArrayEquals(new String[] {"a", "b,c", "d\"e", null},
+            CsvConversionService.fields("a,\"b,c\",\"d\"\"e\"", 4));
+        assertArrayEquals(new String[] {"", ""}, CsvConversionService.fields(",", 2));
+    }
+}
@@ -0,0 +1,64 @@
+package com.syskan.currencyconverter.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class CurrencyMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CurrencyMetrics metrics = new CurrencyMetrics(registry, 1, 2);
+
+    @Test
+    void testConversionSucceeded_PairsBeyondLimitShareOneSeries() {
+        metrics.conversionSucceeded("USD", "EUR");
+        metrics.conversionSucceeded("USD", "EUR");
+        metrics.conversionSucceeded("EUR", "GBP");
+        metrics.conversionSucceeded("GBP", "JPY");
+        metrics.conversionSucceeded("JPY", "INR");
+
+        assertEquals(2.0, registry.get("currency.conversions").tags("from", "USD", "to", "EUR").counter().count());
+        assertEquals(1.0, registry.get("currency.conversions").tags("from", "EUR", "to", "GBP").counter().count());
+        assertEquals(2.0, registry.get("currency.conversions").tags("from", "other", "to", "other").counter().count());
+        assertEquals(3, registry.find("currency.conversions").counters().size());
+    }
+
+    @Test
+    void testTimeFetch_TagsOutcomeAndBoundsBase() {
+        metrics.timeFetch("USD", Mono.just("rates")).block();
+        assertThrows(RuntimeException.class,
+            () -> metrics.timeFetch("EUR", Mono.error(new TimeoutException())).block());
+        assertThrows(IllegalStateException.class,
+            () -> metrics.timeFetch("USD", Mono.error(new IllegalStateException("boom"))).block());
+
+        assertEquals(1, registry.get("currency.upstream.fetch").tags("base", "USD", "outcome", "success").timer().count());
+        assertEquals(1, registry.get("currency.upstream.fetch").tags("base", "other", "outcome", "timeout").timer().count());
+        assertEquals(1, registry.get("currency.upstream.fetch").tags("base", "USD", "outcome", "error").timer().count());
+    }
+
+    @Test
+    void testPayloadSizeFilter_RecordsBodyBytes() {
+        WebClient webClient = WebClient.builder()
+            .filter(CurrencyMetrics.payloadSizeFilter(registry))
+            .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .body("{\"base\":\"USD\"}")
+                .build()))
+            .build();
+
+        webClient.get().uri("http://upstream/latest/USD").retrieve().bodyToMono(String.class)
+            .block(Duration.ofSeconds(5));
+
+        assertEquals(1, registry.get("currency.upstream.payload").summary().count());
+        assertEquals(14.0, registry.get("currency.upstream.payload").summary().totalAmount());
+    }
+}
@@ -5,59 +5,53 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.web.reactive.function.client.WebClient;
 
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.config.CurrencyProperties;
 import com.syskan.currencyconverter.dto.ConversionRequest;
 import com.syskan.currencyconverter.dto.ConversionResponse;
 import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+import com.syskan.currencyconverter.provider.RateProvider;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import reactor.core.publisher.Mono;
 
 @ExtendWith(MockitoExtension.class)
 class CurrencyServiceTest {
 
     @Mock
-    private WebClient.Builder webClientBuilder;
+    private RateProvider rateProvider;
 
     @Mock
-    private WebClient webClient;
+    private RateHistoryService rateHistory;
 
-    @Mock
-    private WebClient.RequestHeadersUriSpec requestHeadersUriSpec;
-
-    @Mock
-    private WebClient.RequestHeadersSpec requestHeadersSpec;
-
-    @Mock
-    private WebClient.ResponseSpec responseSpec;
+    private final InMemorySnapshotStore sharedStore = new InMemorySnapshotStore();
 
-    @InjectMocks
     private CurrencyService currencyService;
 
     @BeforeEach
     void setUp() {
-        when(webClientBuilder.build()).thenReturn(webClient);
-        currencyService = new CurrencyService(webClientBuilder);
-        
-        ReflectionTestUtils.setField(currencyService, "baseUrl", 
-            "https://api.exchangerate-api.com/v4/latest");
-        ReflectionTestUtils.setField(currencyService, "timeout", 5000);
+        currencyService = new CurrencyService(rateProvider, new CurrencyProperties(),
+            sharedStore, rateHistory, new SimpleMeterRegistry());
     }
 
     @Test
@@ -79,10 +73,7 @@ class CurrencyServiceTest {
             .rates(rates)
             .build();
 
-        when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(ExchangeRateResponse.class))
+        when(rateProvider.fetch(anyString()))
             .thenReturn(Mono.just(mockResponse));
 
         // Act
@@ -97,8 +88,129 @@ class CurrencyServiceTest {
         assertEquals(new BigDecimal("0.85"), response.getExchangeRate());
         assertEquals("Conversion successful", response.getMessage());
         assertNotNull(response.getTimestamp());
+        assertFalse(response.getStale());
+
+        verify(rateProvider, times(1)).fetch(anyString());
+    }
+
+    @Test
+    void testConvertCurrency_CrossPairUsesAnchorSnapshot() {
+        // Arrange
+        Map<String, BigDecimal> rates = new HashMap<>();
+        rates.put("EUR", new BigDecimal("0.80"));
+        rates.put("GBP", new BigDecimal("0.50"));
+
+        ExchangeRateResponse mockResponse = ExchangeRateResponse.builder()
+            .base("USD")
+            .rates(rates)
+            .build();
+
+        when(rateProvider.fetch(anyString()))
+            .thenReturn(Mono.just(mockResponse));
+
+        // Act
+        ConversionResponse eurToGbp = currencyService.convertCurrency(ConversionRequest.builder()
+            .fromCurrency("EUR").toCurrency("GBP").amount(new BigDecimal("100.00")).build());
+        ConversionResponse gbpToEur = currencyService.convertCurrency(ConversionRequest.builder()
+            .fromCurrency("GBP").toCurrency("EUR").amount(new BigDecimal("100.00")).build());
+
+        // Assert
+        assertEquals(new BigDecimal("62.50"), eurToGbp.getConvertedAmount());
+        assertEquals(new BigDecimal("160.00"), gbpToEur.getConvertedAmount());
+        verify(rateProvider, times(1)).fetch("USD");
+    }
+
+    @Test
+    void testGetAllRates_PublishesFetchedSnapshotToSharedStore() {
+        // Arrange
+        ExchangeRateResponse mockResponse = ExchangeRateResponse.builder()
+            .base("USD")
+            .rates(Map.of("EUR", new BigDecimal("0.85")))
+            .build();
+
+        when(rateProvider.fetch(anyString()))
+            .thenReturn(Mono.just(mockResponse));
+
+        // Act
+        currencyService.getAllRates("USD");
+
+        // Assert
+        assertTrue(sharedStore.contains("USD"));
+        verify(rateHistory, times(1)).record(any());
+    }
+
+    @Test
+    void testGetAllRates_ColdNodeLoadsFromSharedStore() {
+        // Arrange
+        ExchangeRateResponse shared = ExchangeRateResponse.builder()
+            .base("USD")
+            .date("2024-12-09")
+            .rates(Map.of("EUR", new BigDecimal("0.85"), "GBP", new BigDecimal("0.73")))
+            .build();
+        sharedStore.put(RateSnapshot.fetched("USD", shared), Duration.ofMinutes(10)).block();
+
+        // Act
+        Map<String, BigDecimal> result = currencyService.getAllRates("USD");
+
+        // Assert
+        assertEquals(new BigDecimal("0.85"), result.get("EUR"));
+        assertEquals(new BigDecimal("0.73"), result.get("GBP"));
+        verify(rateProvider, never()).fetch(anyString());
+    }
+
+    @Test
+    void testConvertCurrencyReactive_DoesNotBlockWhileUpstreamIsSlow() {
+        // Arrange
+        Map<String, BigDecimal> rates = new HashMap<>();
+        rates.put("EUR", new BigDecimal("0.85"));
+
+        ExchangeRateResponse mockResponse = ExchangeRateResponse.builder()
+            .base("USD")
+            .rates(rates)
+            .build();
+
+        when(rateProvider.fetch(anyString()))
+            .thenReturn(Mono.just(mockResponse).delayElement(Duration.ofMillis(200)));
+
+        ConversionRequest request = ConversionRequest.builder()
+            .fromCurrency("USD")
+            .toCurrency("EUR")
+            .amount(new BigDecimal("100.00"))
+            .build();
+
+        // Act
+        CompletableFuture<ConversionResponse> pending = currencyService.convertCurrencyReactive(request).toFuture();
+        CompletableFuture<ConversionResponse> coalesced = currencyService.convertCurrencyReactive(request).toFuture();
+
+        // Assert
+        assertFalse(pending.isDone());
+        assertEquals(new BigDecimal("85.00"), pending.join().getConvertedAmount());
+        assertEquals(new BigDecimal("85.00"), coalesced.join().getConvertedAmount());
+        verify(rateProvider, times(1)).fetch(anyString());
+    }
+
+    @Test
+    void testConvertCurrencyReactive_UnknownCurrency() {
+        // Arrange
+        ExchangeRateResponse mockResponse = ExchangeRateResponse.builder()
+            .base("USD")
+            .rates(Map.of("EUR", new BigDecimal("0.85")))
+            .build();
+
+        when(rateProvider.fetch(anyString()))
+            .thenReturn(Mono.just(mockResponse));
 
-        verify(webClient, times(1)).get();
+        ConversionRequest request = ConversionRequest.builder()
+            .fromCurrency("USD")
+            .toCurrency("XYZ")
+            .amount(new BigDecimal("100.00"))
+            .build();
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> currencyService.convertCurrencyReactive(request).block());
+        assertTrue(exception.getMessage().contains("Exchange rate not found for currency: XYZ"));
+        assertFalse(currencyService.isCurrencySupportedReactive("XYZ").block());
     }
 
     @Test
@@ -118,10 +230,7 @@ class CurrencyServiceTest {
             .rates(rates)
             .build();
 
-        when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(ExchangeRateResponse.class))
+        when(rateProvider.fetch(anyString()))
             .thenReturn(Mono.just(mockResponse));
 
         // Act & Assert
@@ -131,6 +240,85 @@ class CurrencyServiceTest {
         assertTrue(exception.getMessage().contains("Failed to convert currency"));
     }
 
+    @Test
+    void testConvertCurrency_ServesStaleSnapshotWhileCircuitIsOpen() {
+        // Arrange
+        CurrencyProperties properties = new CurrencyProperties();
+        properties.getUpstream().setFailureThreshold(1);
+        currencyService = new CurrencyService(rateProvider, properties,
+            sharedStore, rateHistory, new SimpleMeterRegistry());
+
+        ExchangeRateResponse lastGood = ExchangeRateResponse.builder()
+            .base("USD")
+            .rates(Map.of("EUR", new BigDecimal("0.85")))
+            .build();
+        currencyService.getRateCache().put(new RateSnapshot("USD", lastGood, 1,
+            Instant.now().minus(Duration.ofMinutes(15))));
+
+        when(rateProvider.fetch(anyString()))
+            .thenReturn(Mono.error(new IllegalStateException("provider down")));
+
+        ConversionRequest request = ConversionRequest.builder()
+            .fromCurrency("USD").toCurrency("EUR").amount(new BigDecimal("100.00")).build();
+
+        // Act
+        ConversionResponse first = currencyService.convertCurrency(request);
+        ConversionResponse second = currencyService.convertCurrency(request);
+
+        // Assert
+        assertEquals(new BigDecimal("85.00"), first.getConvertedAmount());
+        assertTrue(first.getStale());
+        assertTrue(first.getRatesAgeSeconds() >= 900);
+        assertEquals(new BigDecimal("85.00"), second.getConvertedAmount());
+        assertTrue(second.getStale());
+        assertEquals(CircuitBreaker.State.OPEN, currencyService.getCircuitBreaker().state());
+        verify(rateProvider, times(1)).fetch(anyString());
+    }
+
+    @Test
+    void testFetchSnapshot_CallsRejectedByOpenCircuitAreNotTimed() {
+        // Arrange
+        CurrencyProperties properties = new CurrencyProperties();
+        properties.getUpstream().setFailureThreshold(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        currencyService = new CurrencyService(rateProvider, properties, sharedStore, rateHistory, meterRegistry);
+        when(rateProvider.fetch(anyString()))
+            .thenReturn(Mono.error(new IllegalStateException("provider down")));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> currencyService.fetchSnapshot("USD").block());
+        assertThrows(CircuitBreaker.CircuitOpenException.class, () -> currencyService.fetchSnapshot("USD").block());
+
+        // Assert
+        assertEquals(1, meterRegistry.get("currency.upstream.fetch")
+            .tags("base", "USD", "outcome", "error").timer().count());
+        assertEquals(1.0, meterRegistry.get("currency.circuit.rejected").counter().count());
+    }
+
+    @Test
+    void testGetAllRates_ServedFromCacheOnRepeatCalls() {
+        // Arrange
+        Map<String, BigDecimal> rates = new HashMap<>();
+        rates.put("EUR", new BigDecimal("0.85"));
+
+        ExchangeRateResponse mockResponse = ExchangeRateResponse.builder()
+            .base("USD")
+            .rates(rates)
+            .build();
+
+        when(rateProvider.fetch(anyString()))
+            .thenReturn(Mono.just(mockResponse));
+
+        // Act
+        currencyService.getAllRates("USD");
+        currencyService.getAllRates("USD");
+        boolean supported = currencyService.isCurrencySupported("EUR");
+
+        // Assert
+        assertTrue(supported);
+        verify(rateProvider, times(1)).fetch(anyString());
+    }
+
     @Test
     void testGetAllRates_Success() {
         // Arrange
@@ -144,10 +332,7 @@ class CurrencyServiceTest {
             .rates(rates)
             .build();
 
-        when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(ExchangeRateResponse.class))
+        when(rateProvider.fetch(anyString()))
             .thenReturn(Mono.just(mockResponse));
 
         // Act
@@ -161,6 +346,29 @@ class CurrencyServiceTest {
         assertEquals(new BigDecimal("110.50"), result.get("JPY"));
     }
 
+    @Test
+    void testGetRatesSnapshot_CrossBaseSharesAnchorVersion() {
+        // Arrange
+        ExchangeRateResponse mockResponse = ExchangeRateResponse.builder()
+            .base("USD")
+            .rates(Map.of("EUR", new BigDecimal("0.80"), "GBP", new BigDecimal("0.50")))
+            .build();
+
+        when(rateProvider.fetch(anyString()))
+            .thenReturn(Mono.just(mockResponse));
+
+        // Act
+        RateSnapshot snapshot = currencyService.getRatesSnapshot("EUR");
+        Map<String, BigDecimal> eurRates = currencyService.getAllRates("EUR", snapshot);
+
+        // Assert
+        assertEquals("USD", snapshot.base());
+        assertEquals(snapshot.version(), currencyService.getRatesSnapshot("GBP").version());
+        assertEquals(new BigDecimal("0.625"), eurRates.get("GBP"));
+        assertTrue(currencyService.freshFor(snapshot).compareTo(Duration.ofMinutes(10)) <= 0);
+        assertTrue(currencyService.freshFor(snapshot).compareTo(Duration.ofMinutes(9)) > 0);
+    }
+
     @Test
     void testIsCurrencySupported_True() {
         // Arrange
@@ -172,10 +380,7 @@ class CurrencyServiceTest {
             .rates(rates)
             .build();
 
-        when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(ExchangeRateResponse.class))
+        when(rateProvider.fetch(anyString()))
             .thenReturn(Mono.just(mockResponse));
 
         // Act
@@ -196,10 +401,7 @@ class CurrencyServiceTest {
             .rates(rates)
             .build();
 
-        when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(ExchangeRateResponse.class))
+        when(rateProvider.fetch(anyString()))
             .thenReturn(Mono.just(mockResponse));
 
         // Act
@@ -0,0 +1,56 @@
+package com.syskan.currencyconverter.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.syskan.currencyconverter.cache.RateCache;
+import com.syskan.currencyconverter.config.CurrencyProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HotBasePrefetcherTest {
+
+    private final CurrencyService currencyService = mock(CurrencyService.class);
+    private final RateCache rateCache = mock(RateCache.class);
+    private final AccessFrequencies frequencies = new AccessFrequencies(64);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testPrefetch_DefersOnlyDueBasesOverBudget() {
+        CurrencyProperties properties = new CurrencyProperties();
+        properties.getPrefetch().setTopK(3);
+        properties.getPrefetch().setBudget(1);
+        when(currencyService.getAccessFrequencies()).thenReturn(frequencies);
+        when(currencyService.getRateCache()).thenReturn(rateCache);
+        when(currencyService.snapshotBaseFor(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        record("USD", 3);
+        record("EUR", 2);
+        record("GBP", 1);
+        when(rateCache.isDueForPrefetch("USD")).thenReturn(true);
+        when(rateCache.isDueForPrefetch("EUR")).thenReturn(false);
+        when(rateCache.isDueForPrefetch("GBP")).thenReturn(true);
+        when(rateCache.prefetch("USD")).thenReturn(true);
+        HotBasePrefetcher prefetcher = new HotBasePrefetcher(currencyService, properties, meterRegistry);
+
+        HotBasePrefetcher.Round round = prefetcher.prefetch();
+
+        assertEquals(List.of("USD"), round.prefetched());
+        assertEquals(List.of("GBP"), round.deferred());
+        assertEquals(1.0, meterRegistry.get("currency.prefetch.loads").tag("result", "deferred").counter().count());
+        verify(rateCache, never()).prefetch("EUR");
+    }
+
+    private void record(String base, int times) {
+        for (int i = 0; i < times; i++) {
+            frequencies.recordBase(base);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.syskan.currencyconverter.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.cache.SharedSnapshotStore;
+import com.syskan.currencyconverter.cache.SnapshotCodec;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Stand-in for the Redis tier that keeps encoded snapshots in a map, so tests exercise the
+ * same wire format without a Redis server.
+ */
+class InMemorySnapshotStore implements SharedSnapshotStore {
+
+    private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<RateSnapshot> get(String baseCurrency) {
+        return Mono.justOrEmpty(values.get(baseCurrency)).map(SnapshotCodec::decode);
+    }
+
+    @Override
+    public Mono<Void> put(RateSnapshot snapshot, Duration ttl) {
+        return Mono.fromRunnable(() -> values.put(snapshot.base(), SnapshotCodec.encode(snapshot)));
+    }
+
+    boolean contains(String baseCurrency) {
+        return values.containsKey(baseCurrency);
+    }
+}
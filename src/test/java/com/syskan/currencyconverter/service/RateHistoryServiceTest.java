@@ -0,0 +1,99 @@
+package com.syskan.currencyconverter.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+import com.syskan.currencyconverter.repository.RateHistoryRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+class RateHistoryServiceTest {
+
+    private static final Instant MORNING = Instant.parse("2024-12-09T08:00:00Z");
+    private static final Instant EVENING = Instant.parse("2024-12-09T20:00:00Z");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RateHistoryRepository repository;
+
+    private RateHistoryService rateHistory;
+
+    @BeforeEach
+    void setUp() {
+        CurrencyProperties properties = new CurrencyProperties();
+        // Flushed explicitly so writes stay on the test's transaction
+        properties.getHistory().setFlushInterval(Duration.ofHours(1));
+        properties.getHistory().setBatchSize(2);
+        rateHistory = new RateHistoryService(jdbcTemplate, repository, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        rateHistory.shutdown();
+    }
+
+    @Test
+    void testFlush_WritesOneRowPerQuotedRate() {
+        rateHistory.record(snapshot(MORNING, "0.80", "0.50"));
+        rateHistory.record(snapshot(EVENING, "0.90", "0.60"));
+
+        rateHistory.flush();
+
+        assertEquals(4, repository.count());
+    }
+
+    @Test
+    void testRateAsOf_PicksLatestSnapshotAtOrBeforeInstant() {
+        rateHistory.record(snapshot(MORNING, "0.80", "0.50"));
+        rateHistory.record(snapshot(EVENING, "0.90", "0.60"));
+        rateHistory.flush();
+
+        RateHistoryService.HistoricalRate midday = rateHistory
+            .rateAsOf("USD", "EUR", Instant.parse("2024-12-09T12:00:00Z")).orElseThrow();
+        RateHistoryService.HistoricalRate night = rateHistory
+            .rateAsOf("USD", "EUR", Instant.parse("2024-12-09T23:00:00Z")).orElseThrow();
+
+        assertEquals(new BigDecimal("0.8"), midday.rate());
+        assertEquals(MORNING, midday.effectiveAt());
+        assertEquals(new BigDecimal("0.9"), night.rate());
+        assertTrue(rateHistory.rateAsOf("USD", "EUR", MORNING.minusSeconds(1)).isEmpty());
+    }
+
+    @Test
+    void testRateAsOf_CrossesThroughAnchorHistory() {
+        rateHistory.record(snapshot(MORNING, "0.80", "0.50"));
+        rateHistory.flush();
+
+        RateHistoryService.HistoricalRate eurToGbp = rateHistory
+            .rateAsOf("EUR", "GBP", Instant.parse("2024-12-09T12:00:00Z")).orElseThrow();
+
+        assertEquals(new BigDecimal("0.625"), eurToGbp.rate());
+        assertEquals(MORNING, eurToGbp.effectiveAt());
+    }
+
+    private static RateSnapshot snapshot(Instant fetchedAt, String eur, String gbp) {
+        ExchangeRateResponse rates = ExchangeRateResponse.builder()
+            .base("USD")
+            .rates(Map.of("EUR", new BigDecimal(eur), "GBP", new BigDecimal(gbp)))
+            .build();
+        return new RateSnapshot("USD", rates, fetchedAt.toEpochMilli(), fetchedAt);
+    }
+}
@@ -0,0 +1,254 @@
+package com.syskan.currencyconverter.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import com.syskan.currencyconverter.cache.RateCache;
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.config.CurrencyProperties;
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+import com.syskan.currencyconverter.dto.RateUpdate;
+import com.syskan.currencyconverter.rates.CrossRateMatrix;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class RateStreamServiceTest {
+
+    private final CurrencyService currencyService = mock(CurrencyService.class);
+    private final CurrencyProperties properties = new CurrencyProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RateStreamService streams;
+
+    @BeforeEach
+    void setUp() {
+        when(currencyService.getRateCache()).thenReturn(mock(RateCache.class));
+        when(currencyService.getAnchorCurrency()).thenReturn("USD");
+        when(currencyService.getCrossRates(any()))
+            .thenAnswer(invocation -> CrossRateMatrix.from(invocation.getArgument(0)));
+        when(currencyService.getCrossRatesReactive())
+            .thenReturn(Mono.just(CrossRateMatrix.from(snapshot(1, "0.85", "0.73"))));
+        properties.getStream().setMaxSubscribers(1);
+        streams = new RateStreamService(currencyService, properties, meterRegistry);
+    }
+
+    private static RateSnapshot snapshot(long version, String eur, String gbp) {
+        return new RateSnapshot("USD", ExchangeRateResponse.builder()
+            .base("USD")
+            .rates(Map.of("EUR", new BigDecimal(eur), "GBP", new BigDecimal(gbp), "JPY", new BigDecimal("150")))
+            .build(), version, Instant.now());
+    }
+
+    @Test
+    void testSubscribe_SendsSnapshotThenOnlyChangedPairs() throws InterruptedException {
+        BlockingQueue<RateUpdate> received = new LinkedBlockingQueue<>();
+        Disposable subscription = streams.open(Set.of(), Set.of("USD/GBP", "USD/JPY")).orElseThrow().subscribe(received::add);
+        try {
+            RateUpdate first = received.poll(5, TimeUnit.SECONDS);
+            assertEquals(RateUpdate.SNAPSHOT, first.getType());
+            assertEquals(1, first.getVersion());
+            assertEquals(Set.of("USD/GBP", "USD/JPY"), first.getRates().keySet());
+
+            // EUR is not subscribed and JPY did not move, so only GBP goes out
+            streams.onRatesLoaded("USD", snapshot(2, "0.86", "0.74"));
+            RateUpdate delta = received.poll(5, TimeUnit.SECONDS);
+            assertEquals(RateUpdate.DELTA, delta.getType());
+            assertEquals(2, delta.getVersion());
+            assertEquals(Map.of("USD/GBP", new BigDecimal("0.74")), delta.getRates());
+
+            // Nothing subscribed changed, and older versions are never sent
+            streams.onRatesLoaded("USD", snapshot(3, "0.87", "0.74"));
+            streams.onRatesLoaded("USD", snapshot(1, "0.85", "0.70"));
+            assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+        } finally {
+            subscription.dispose();
+        }
+    }
+
+    @Test
+    void testSubscribe_BaseCoversItsWholeRowAndIgnoresOtherBases() throws InterruptedException {
+        BlockingQueue<RateUpdate> received = new LinkedBlockingQueue<>();
+        Disposable subscription = streams.open(Set.of("EUR"), Set.of()).orElseThrow().subscribe(received::add);
+        try {
+            RateUpdate first = received.poll(5, TimeUnit.SECONDS);
+            assertTrue(first.getRates().keySet().containsAll(Set.of("EUR/USD", "EUR/GBP", "EUR/JPY")));
+
+            streams.onRatesLoaded("GBP", snapshot(2, "0.86", "0.74"));
+            assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+
+            // Every cross rate from EUR moves when EUR does
+            streams.onRatesLoaded("USD", snapshot(3, "0.90", "0.73"));
+            RateUpdate delta = received.poll(5, TimeUnit.SECONDS);
+            assertEquals(3, delta.getVersion());
+            assertTrue(delta.getRates().keySet().containsAll(Set.of("EUR/USD", "EUR/GBP", "EUR/JPY")));
+        } finally {
+            subscription.dispose();
+        }
+    }
+
+    @Test
+    void testOpen_ReservesSlotsUpToCapacity() throws InterruptedException {
+        BlockingQueue<RateUpdate> received = new LinkedBlockingQueue<>();
+        Disposable subscription = streams.open(Set.of("USD"), Set.of()).orElseThrow().subscribe(received::add);
+        try {
+            received.poll(5, TimeUnit.SECONDS);
+            assertEquals(1.0, meterRegistry.get("currency.stream.subscribers").gauge().value());
+            assertTrue(streams.open(Set.of("EUR"), Set.of()).isEmpty());
+        } finally {
+            subscription.dispose();
+        }
+        assertEquals(0, streams.subscriberCount());
+        assertTrue(streams.open(Set.of("EUR"), Set.of()).isPresent());
+    }
+
+    @Test
+    void testOpen_UnsubscribedStreamGivesSlotBackAfterTimeout() throws InterruptedException {
+        properties.getStream().setSubscribeTimeout(Duration.ofMillis(100));
+        streams = new RateStreamService(currencyService, properties, meterRegistry);
+        Flux<RateUpdate> abandoned = streams.open(Set.of("USD"), Set.of()).orElseThrow();
+        assertEquals(1, streams.subscriberCount());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (streams.subscriberCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, streams.subscriberCount());
+        assertThrows(IllegalStateException.class, () -> abandoned.blockFirst(Duration.ofSeconds(5)));
+        assertEquals(0, streams.subscriberCount());
+        assertTrue(streams.open(Set.of("EUR"), Set.of()).isPresent());
+    }
+
+    @Test
+    void testOpen_SecondSubscriptionIsRefusedWithoutFreeingTheSlot() throws InterruptedException {
+        Flux<RateUpdate> stream = streams.open(Set.of("USD"), Set.of()).orElseThrow();
+        BlockingQueue<RateUpdate> received = new LinkedBlockingQueue<>();
+        Disposable subscription = stream.subscribe(received::add);
+        try {
+            received.poll(5, TimeUnit.SECONDS);
+
+            assertThrows(IllegalStateException.class, () -> stream.blockFirst(Duration.ofSeconds(5)));
+            assertEquals(1, streams.subscriberCount());
+        } finally {
+            subscription.dispose();
+        }
+        assertEquals(0, streams.subscriberCount());
+    }
+
+    @Test
+    void testSubscribe_StalledSubscriberStillGetsSnapshotFirst() throws InterruptedException {
+        properties.getStream().setMaxBuffered(1);
+        streams = new RateStreamService(currencyService, properties, meterRegistry);
+        Sinks.One<CrossRateMatrix> current = Sinks.one();
+        when(currencyService.getCrossRatesReactive()).thenReturn(current.asMono());
+        BlockingQueue<RateUpdate> received = new LinkedBlockingQueue<>();
+        BaseSubscriber<RateUpdate> stalled = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // No demand until the test asks for it
+            }
+
+            @Override
+            protected void hookOnNext(RateUpdate update) {
+                received.add(update);
+            }
+        };
+        streams.open(Set.of("USD"), Set.of()).orElseThrow().subscribe(stalled);
+        try {
+            // Enough rows to fill every queue ahead of the subscriber and overflow the buffer,
+            // both before and after the current matrix is read
+            for (int version = 2; version < 400; version++) {
+                streams.onRatesLoaded("USD", snapshot(version, "0.85", version % 2 == 0 ? "0.73" : "0.74"));
+            }
+            current.tryEmitValue(CrossRateMatrix.from(snapshot(1, "0.85", "0.73")));
+            for (int version = 400; version < 800; version++) {
+                streams.onRatesLoaded("USD", snapshot(version, "0.85", version % 2 == 0 ? "0.73" : "0.74"));
+            }
+
+            stalled.request(Long.MAX_VALUE);
+
+            RateUpdate first = received.poll(5, TimeUnit.SECONDS);
+            assertEquals(RateUpdate.SNAPSHOT, first.getType());
+            assertEquals(1, first.getVersion());
+            assertEquals(RateUpdate.DELTA, received.poll(5, TimeUnit.SECONDS).getType());
+            assertTrue(meterRegistry.get("currency.stream.dropped").counter().count() > 0);
+        } finally {
+            stalled.dispose();
+        }
+    }
+
+    @Test
+    void testOpen_ConcurrentCallersGetOneSlot() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> opened = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                opened.add(executor.submit(() -> {
+                    start.await();
+                    return streams.open(Set.of("USD"), Set.of()).isPresent();
+                }));
+            }
+            start.countDown();
+            int granted = 0;
+            for (Future<Boolean> result : opened) {
+                granted += result.get(5, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertEquals(1, granted);
+            assertEquals(1, streams.subscriberCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSubscribe_SubscribersOfOneBaseShareItsRow() throws InterruptedException {
+        properties.getStream().setMaxSubscribers(2);
+        streams = new RateStreamService(currencyService, properties, meterRegistry);
+        BlockingQueue<RateUpdate> wholeRow = new LinkedBlockingQueue<>();
+        BlockingQueue<RateUpdate> onePair = new LinkedBlockingQueue<>();
+        Disposable first = streams.open(Set.of("USD"), Set.of()).orElseThrow().subscribe(wholeRow::add);
+        Disposable second = streams.open(Set.of(), Set.of("USD/EUR")).orElseThrow().subscribe(onePair::add);
+        try {
+            wholeRow.poll(5, TimeUnit.SECONDS);
+            onePair.poll(5, TimeUnit.SECONDS);
+
+            streams.onRatesLoaded("USD", snapshot(2, "0.86", "0.74"));
+            assertEquals(Map.of("USD/EUR", new BigDecimal("0.86"), "USD/GBP", new BigDecimal("0.74")),
+                wholeRow.poll(5, TimeUnit.SECONDS).getRates());
+            assertEquals(Map.of("USD/EUR", new BigDecimal("0.86")), onePair.poll(5, TimeUnit.SECONDS).getRates());
+        } finally {
+            first.dispose();
+            second.dispose();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.syskan.currencyconverter.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.syskan.currencyconverter.cache.RateSnapshot;
+import com.syskan.currencyconverter.dto.ExchangeRateResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RenderedRateTablesTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger renders = new AtomicInteger();
+    private final RenderedRateTables tables = new RenderedRateTables(
+        snapshot -> List.of("USD", "EUR"),
+        (base, snapshot) -> {
+            renders.incrementAndGet();
+            return Map.of("GBP", snapshot.rates().getRates().get("GBP"));
+        },
+        meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        tables.close();
+    }
+
+    private static RateSnapshot snapshot(long version, String gbp) {
+        return new RateSnapshot("USD", ExchangeRateResponse.builder()
+            .base("USD")
+            .rates(Map.of("GBP", new BigDecimal(gbp)))
+            .build(), version, Instant.now());
+    }
+
+    private void awaitTables(int expected, long version) throws InterruptedException {
+        for (int i = 0; i < 200 && !(tables.size() == expected
+                && tables.get("USD", snapshot(version, "0")).version() == version); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testOnRatesLoaded_RendersEveryBaseOnce() throws InterruptedException {
+        RateSnapshot snapshot = snapshot(1, "0.73");
+        tables.onRatesLoaded("USD", snapshot);
+        awaitTables(2, 1);
+
+        RenderedRates usd = tables.get("USD", snapshot);
+        assertSame(usd, tables.get("USD", snapshot));
+        assertEquals("{\"GBP\":0.73}", new String(usd.json(), StandardCharsets.UTF_8));
+        assertEquals(2, renders.get());
+        assertEquals((double) 2 * usd.sizeInBytes(),
+            meterRegistry.get("currency.rates.rendered.bytes").gauge().value());
+    }
+
+    @Test
+    void testGet_RendersMissingVersionOnDemandAndKeepsIt() {
+        RateSnapshot older = snapshot(1, "0.73");
+        RateSnapshot newer = snapshot(2, "0.74");
+
+        RenderedRates first = tables.get("USD", older);
+        RenderedRates second = tables.get("USD", newer);
+
+        assertNotSame(first, second);
+        assertSame(second, tables.get("USD", newer));
+        assertTrue(new String(second.json(), StandardCharsets.UTF_8).contains("0.74"));
+        // A request for an older version never replaces a newer table
+        tables.get("USD", older);
+        assertSame(second, tables.get("USD", newer));
+        assertEquals(3, renders.get());
+    }
+}
@@ -0,0 +1,73 @@
+package com.syskan.currencyconverter.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class UpstreamLimiterTest {
+
+    private final UpstreamLimiter limiter = new UpstreamLimiter(1, 1, new SimpleMeterRegistry());
+
+    @Test
+    void testLimit_QueuesCallsOverTheCap() {
+        Sinks.One<String> first = Sinks.one();
+        AtomicInteger started = new AtomicInteger();
+
+        CompletableFuture<String> running = limiter.limit(() -> {
+            started.incrementAndGet();
+            return first.asMono();
+        }).toFuture();
+        CompletableFuture<String> queued = limiter.limit(() -> {
+            started.incrementAndGet();
+            return Mono.just("second");
+        }).toFuture();
+
+        assertEquals(1, started.get());
+        assertEquals(1, limiter.activeCount());
+        assertEquals(1, limiter.waitingCount());
+        assertFalse(queued.isDone());
+
+        first.tryEmitValue("first");
+
+        assertEquals("first", running.join());
+        assertEquals("second", queued.join());
+        assertEquals(2, started.get());
+        assertEquals(0, limiter.activeCount());
+        assertEquals(0, limiter.waitingCount());
+    }
+
+    @Test
+    void testLimit_RejectsWhenQueueIsFull() {
+        limiter.limit(Mono::never).subscribe();
+        limiter.limit(() -> Mono.just("queued")).subscribe();
+
+        assertThrows(UpstreamLimiter.UpstreamRejectedException.class,
+            () -> limiter.limit(() -> Mono.just("rejected")).block());
+    }
+
+    @Test
+    void testLimit_TimedOutWaiterGivesUpItsPlace() {
+        Sinks.One<String> first = Sinks.one();
+        limiter.limit(first::asMono).subscribe();
+
+        assertThrows(RuntimeException.class, () -> limiter.limit(() -> Mono.just("late"))
+            .timeout(Duration.ofMillis(20))
+            .block());
+        assertEquals(0, limiter.waitingCount());
+
+        first.tryEmitValue("done");
+        assertEquals(0, limiter.activeCount());
+        assertTrue(limiter.limit(() -> Mono.just("next")).blockOptional().isPresent());
+    }
+}